@@ -25,6 +25,7 @@ package org.json;
  */
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.lang.reflect.Array;
 import java.util.ArrayList;
@@ -850,7 +851,7 @@ public class JSONArray {
     @Override
     public String toString() {
         try {
-            return '[' + join(",") + ']';
+            return write(new StringWriter()).toString();
         } catch (Exception e) {
             return null;
         }
@@ -934,14 +935,7 @@ public class JSONArray {
                 if (b) {
                     writer.write(',');
                 }
-                Object v = this.myArrayList.get(i);
-                if (v instanceof JSONObject) {
-                    ((JSONObject) v).write(writer);
-                } else if (v instanceof JSONArray) {
-                    ((JSONArray) v).write(writer);
-                } else {
-                    writer.write(JSONObject.valueToString(v));
-                }
+                JSONObject.writeValue(writer, this.myArrayList.get(i));
                 b = true;
             }
             writer.write(']');
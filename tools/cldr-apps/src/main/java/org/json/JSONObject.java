@@ -25,6 +25,7 @@ package org.json;
  */
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -1126,58 +1127,84 @@ public class JSONObject {
         if (string == null || string.length() == 0) {
             return "\"\"";
         }
+        try {
+            return quote(string, new StringWriter(string.length() + 4)).toString();
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // not thrown by StringWriter
+        }
+    }
+
+    /**
+     * Write a string in double quotes with backslash sequences in all the
+     * right places, as {@link #quote(String)} does, without making a String.
+     *
+     * @param string
+     *            A String
+     * @param w
+     *            The writer
+     * @return The writer.
+     * @throws IOException
+     */
+    public static Writer quote(String string, Writer w) throws IOException {
+        if (string == null || string.length() == 0) {
+            w.write("\"\"");
+            return w;
+        }
 
         char b;
         char c = 0;
         int i;
         int len = string.length();
-        StringBuffer sb = new StringBuffer(len + 4);
-        String t;
 
-        sb.append('"');
+        w.write('"');
         for (i = 0; i < len; i += 1) {
             b = c;
             c = string.charAt(i);
             switch (c) {
             case '\\':
             case '"':
-                sb.append('\\');
-                sb.append(c);
+                w.write('\\');
+                w.write(c);
                 break;
             case '/':
                 if (b == '<') {
-                    sb.append('\\');
+                    w.write('\\');
                 }
-                sb.append(c);
+                w.write(c);
                 break;
             case '\b':
-                sb.append("\\b");
+                w.write("\\b");
                 break;
             case '\t':
-                sb.append("\\t");
+                w.write("\\t");
                 break;
             case '\n':
-                sb.append("\\n");
+                w.write("\\n");
                 break;
             case '\f':
-                sb.append("\\f");
+                w.write("\\f");
                 break;
             case '\r':
-                sb.append("\\r");
+                w.write("\\r");
                 break;
             default:
                 if (c < ' ' || (c >= '\u0080' && c < '\u00a0') || (c >= '\u2000' && c < '\u2100')) {
-                    t = "000" + Integer.toHexString(c);
-                    sb.append("\\u" + t.substring(t.length() - 4));
+                    w.write("\\u");
+                    w.write(HEX[(c >> 12) & 0xF]);
+                    w.write(HEX[(c >> 8) & 0xF]);
+                    w.write(HEX[(c >> 4) & 0xF]);
+                    w.write(HEX[c & 0xF]);
                 } else {
-                    sb.append(c);
+                    w.write(c);
                 }
             }
         }
-        sb.append('"');
-        return sb.toString();
+        w.write('"');
+        return w;
     }
 
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
     /**
      * Remove a name and its value, if present.
      *
@@ -1314,20 +1341,7 @@ public class JSONObject {
     @Override
     public String toString() {
         try {
-            Iterator keys = keys();
-            StringBuffer sb = new StringBuffer("{");
-
-            while (keys.hasNext()) {
-                if (sb.length() > 1) {
-                    sb.append(',');
-                }
-                Object o = keys.next();
-                sb.append(quote(o.toString()));
-                sb.append(':');
-                sb.append(valueToString(this.map.get(o)));
-            }
-            sb.append('}');
-            return sb.toString();
+            return write(new StringWriter()).toString();
         } catch (Exception e) {
             SurveyLog.logException(e, "JSONObject toString exception");
             return null;
@@ -1588,16 +1602,9 @@ public class JSONObject {
                     writer.write(',');
                 }
                 Object k = keys.next();
-                writer.write(quote(k.toString()));
+                quote(k.toString(), writer);
                 writer.write(':');
-                Object v = this.map.get(k);
-                if (v instanceof JSONObject) {
-                    ((JSONObject) v).write(writer);
-                } else if (v instanceof JSONArray) {
-                    ((JSONArray) v).write(writer);
-                } else {
-                    writer.write(valueToString(v));
-                }
+                writeValue(writer, this.map.get(k));
                 b = true;
             }
             writer.write('}');
@@ -1606,4 +1613,36 @@ public class JSONObject {
             throw new JSONException(exception);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Write the JSON text of a value to a writer, as {@link #valueToString(Object)}
+     * would make it, but without making a String for objects, arrays, and strings.
+     * <p>
+     * Warning: This method assumes that the data structure is acyclical.
+     *
+     * @param writer
+     * @param value
+     *            The value to be serialized.
+     * @throws JSONException
+     * @throws IOException
+     */
+    static void writeValue(Writer writer, Object value) throws JSONException, IOException {
+        if (value == null) {
+            writer.write("null");
+        } else if (value instanceof JSONString || value instanceof Number || value instanceof Boolean) {
+            writer.write(valueToString(value));
+        } else if (value instanceof JSONObject) {
+            ((JSONObject) value).write(writer);
+        } else if (value instanceof JSONArray) {
+            ((JSONArray) value).write(writer);
+        } else if (value instanceof Map) {
+            new JSONObject((Map) value).write(writer);
+        } else if (value instanceof Collection) {
+            new JSONArray((Collection) value).write(writer);
+        } else if (value.getClass().isArray()) {
+            new JSONArray(value).write(writer);
+        } else {
+            quote(value.toString(), writer);
+        }
+    }
+}
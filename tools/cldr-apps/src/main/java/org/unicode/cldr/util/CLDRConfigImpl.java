@@ -149,6 +149,7 @@ public class CLDRConfigImpl extends CLDRConfig implements JSONString {
 
         // set defaults here
         survprops.put("CLDR_SURVEY_URL", "survey"); // default to relative URL.
+        survprops.put(CLDRTransforms.LAZY_REGISTRATION, "true"); // compile transforms on first use
 
         File propFile;
 
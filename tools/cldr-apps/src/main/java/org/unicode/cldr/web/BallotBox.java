@@ -6,6 +6,7 @@ package org.unicode.cldr.web;
 import java.util.Date;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 import org.json.JSONObject;
 import org.unicode.cldr.util.VoteResolver;
@@ -68,6 +69,28 @@ public interface BallotBox<T> {
     public void voteForValueWithType(T user, String distinguishingXpath, String value, Integer withVote, VoteType voteType) throws InvalidXPathException,
         VoteNotAcceptedException;
 
+    /**
+     * Vote for many values at once, such as for a bulk upload or an import of old votes.
+     * Each vote is checked as by voteForValueWithType; the accepted votes are applied,
+     * and the others are returned with the reason.
+     *
+     * @param user
+     * @param votes map from distinguishing xpath to value, or null to abstain
+     * @param voteType
+     * @return map from xpath to exception, for each vote that was not accepted
+     */
+    public default Map<String, SurveyException> voteForValues(T user, Map<String, String> votes, VoteType voteType) {
+        final Map<String, SurveyException> rejected = new TreeMap<>();
+        for (Map.Entry<String, String> e : votes.entrySet()) {
+            try {
+                voteForValueWithType(user, e.getKey(), e.getValue(), voteType);
+            } catch (InvalidXPathException | VoteNotAcceptedException ex) {
+                rejected.put(e.getKey(), ex);
+            }
+        }
+        return rejected;
+    }
+
     /**
      * Return a vote for a value, as a string
      *
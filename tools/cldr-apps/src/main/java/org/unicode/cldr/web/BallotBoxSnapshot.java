@@ -0,0 +1,26 @@
+package org.unicode.cldr.web;
+
+import org.unicode.cldr.util.CLDRLocale;
+
+/**
+ * A read-only, point-in-time view of a BallotBox. Reading it never waits for voting,
+ * and it does not change as votes arrive; the voting methods throw.
+ *
+ * Since it is stamped with the locale Stamp it reflects, results computed from it
+ * can be cached by stamp.
+ */
+public interface BallotBoxSnapshot<T> extends BallotBox<T> {
+    /**
+     * Get the locale stamp as of which this snapshot was taken
+     *
+     * @return
+     */
+    Stamp getStamp();
+
+    /**
+     * Get the locale of this snapshot
+     *
+     * @return
+     */
+    CLDRLocale getLocale();
+}
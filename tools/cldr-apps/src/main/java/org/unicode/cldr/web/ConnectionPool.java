@@ -0,0 +1,589 @@
+package org.unicode.cldr.web;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * The connections handed out by DBUtils: a pool with leak detection, wait counts,
+ * and a cache of prepared statements for each connection.
+ *
+ * Callers get a proxy. Closing it returns the real connection to the pool, after rolling back
+ * anything not committed and closing any statements that were left open. Closing a cached
+ * PreparedStatement returns it to its connection's cache. Each lease remembers the caller that took it;
+ * a connection held longer than the leak threshold is logged once, with that caller.
+ *
+ * With a container DataSource, which already pools connections and caches statements,
+ * DBUtils keeps no idle connections and no statements here, so that this only tracks leases.
+ */
+public final class ConnectionPool {
+    private static final Logger logger = SurveyLog.forClass(ConnectionPool.class);
+
+    /**
+     * Idle connections unused for longer than this are checked before they are handed out
+     */
+    private static final long VALIDATE_AFTER_MILLIS = 30 * 1000;
+    private static final int VALIDATE_TIMEOUT_SECONDS = 2;
+
+    /**
+     * Opens a new physical connection
+     */
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    /**
+     * A physical connection, with its statement cache
+     */
+    private final class Pooled {
+        final Connection connection;
+        /**
+         * Least recently used first; only touched by the one lease holding this connection
+         */
+        final LinkedHashMap<List<Object>, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+        /**
+         * Statements that are not cached, closed when the connection is returned
+         */
+        final List<Statement> unmanaged = new ArrayList<>();
+        /**
+         * Size of unmanaged at which statements the caller already closed are dropped from it
+         */
+        private int pruneAt = MIN_PRUNE_AT;
+        long lastUsed = System.currentTimeMillis();
+
+        Pooled(Connection connection) {
+            this.connection = connection;
+        }
+
+        Object prepare(Lease lease, Method m, Object[] args) throws Throwable {
+            final List<Object> key = Arrays.asList(args);
+            CachedStatement cs = statements.get(key);
+            if (cs != null && !cs.inUse) {
+                statementHits.increment();
+                return cs.handOut(lease);
+            }
+            statementMisses.increment();
+            final PreparedStatement ps = (PreparedStatement) ConnectionPool.invoke(connection, m, args);
+            if (cs != null) {
+                track(ps); // the cached one is in use
+                return ps;
+            }
+            cs = new CachedStatement(key, ps);
+            statements.put(key, cs);
+            if (statements.size() > statementCacheSize) {
+                final CachedStatement eldest = statements.values().iterator().next();
+                statements.remove(eldest.key);
+                eldest.evicted = true;
+                if (!eldest.inUse) {
+                    eldest.closeQuietly();
+                }
+            }
+            return cs.handOut(lease);
+        }
+
+        /**
+         * Close a statement that is not cached when the connection is returned, unless the caller does first.
+         * Closed statements are dropped now and then, so that a long lease does not keep every one it made.
+         */
+        void track(Statement s) {
+            if (unmanaged.size() >= pruneAt) {
+                unmanaged.removeIf(ConnectionPool::isClosedQuietly);
+                pruneAt = Math.max(MIN_PRUNE_AT, unmanaged.size() * 2);
+            }
+            unmanaged.add(s);
+        }
+
+        /**
+         * Make ready for the next lease
+         *
+         * @throws SQLException if the connection is not usable
+         */
+        void reset() throws SQLException {
+            for (Statement s : unmanaged) {
+                try {
+                    s.close();
+                } catch (SQLException e) {
+                    // it was the caller's; the connection may still be fine
+                }
+            }
+            unmanaged.clear();
+            pruneAt = MIN_PRUNE_AT;
+            for (CachedStatement cs : new ArrayList<>(statements.values())) {
+                if (cs.inUse) {
+                    cs.giveBack(); // the caller did not close it
+                    if (cs.evicted) {
+                        statements.remove(cs.key, cs);
+                    }
+                }
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            connection.clearWarnings();
+            lastUsed = System.currentTimeMillis();
+        }
+
+        void closeQuietly() {
+            for (CachedStatement cs : statements.values()) {
+                cs.closeQuietly();
+            }
+            statements.clear();
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                logger.fine(() -> "Closing pooled connection: " + DBUtils.unchainSqlException(e));
+            }
+        }
+    }
+
+    /**
+     * A cached PreparedStatement, handed out to one caller at a time
+     */
+    private final class CachedStatement {
+        final List<Object> key;
+        final PreparedStatement statement;
+        boolean inUse = false;
+        boolean evicted = false;
+        private StatementHandle handle = null;
+
+        CachedStatement(List<Object> key, PreparedStatement statement) {
+            this.key = key;
+            this.statement = statement;
+        }
+
+        PreparedStatement handOut(Lease lease) {
+            inUse = true;
+            handle = new StatementHandle(this, lease);
+            return (PreparedStatement) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class }, handle);
+        }
+
+        /**
+         * Called when the caller closes the statement, or returns the connection without closing it
+         */
+        void giveBack() {
+            if (handle != null) {
+                handle.closed = true;
+                handle = null;
+            }
+            inUse = false;
+            if (evicted) {
+                closeQuietly();
+                return;
+            }
+            try {
+                final ResultSet rs = statement.getResultSet();
+                if (rs != null) {
+                    rs.close();
+                }
+                statement.clearParameters();
+                statement.clearBatch();
+                statement.clearWarnings();
+            } catch (SQLException e) {
+                evicted = true;
+                closeQuietly();
+            }
+        }
+
+        void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                // nothing to do
+            }
+        }
+    }
+
+    private final class StatementHandle implements InvocationHandler {
+        final CachedStatement cs;
+        final Lease lease;
+        boolean closed = false;
+
+        StatementHandle(CachedStatement cs, Lease lease) {
+            this.cs = cs;
+            this.lease = lease;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+            switch (m.getName()) {
+            case "close":
+                if (!closed) {
+                    cs.giveBack();
+                    if (cs.evicted) {
+                        lease.pooled.statements.remove(cs.key, cs);
+                    }
+                }
+                return null;
+            case "isClosed":
+                return closed;
+            case "getConnection":
+                return lease.proxy;
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                if (closed) {
+                    throw new SQLException("Statement is closed");
+                }
+                return ConnectionPool.invoke(cs.statement, m, args);
+            }
+        }
+    }
+
+    /**
+     * One caller's use of a connection
+     */
+    private final class Lease implements InvocationHandler {
+        final Pooled pooled;
+        final String caller;
+        final long since = System.currentTimeMillis();
+        final AtomicBoolean returned = new AtomicBoolean(false);
+        final Connection proxy;
+        volatile boolean reported = false;
+
+        Lease(Pooled pooled, String caller) {
+            this.pooled = pooled;
+            this.caller = caller;
+            this.proxy = (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+            switch (m.getName()) {
+            case "close":
+                release(this);
+                return null;
+            case "isClosed":
+                if (returned.get()) {
+                    return true;
+                }
+                break;
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "pooled " + pooled.connection + " taken by " + caller;
+            default:
+                break;
+            }
+            if (returned.get()) {
+                throw new SQLException("Connection is closed");
+            }
+            if (m.getName().equals("prepareStatement") && statementCacheSize > 0 && isCacheable(args)) {
+                return pooled.prepare(this, m, args);
+            }
+            final Object result = ConnectionPool.invoke(pooled.connection, m, args);
+            // a connection that is not kept is closed when it is returned, along with its statements
+            if (maxIdle > 0 && result instanceof Statement) {
+                pooled.track((Statement) result);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Fewest statements a lease tracks before checking which are closed
+     */
+    private static final int MIN_PRUNE_AT = 32;
+
+    private final ConnectionFactory factory;
+    private final int maxIdle;
+    private final int statementCacheSize;
+    private final long leakMillis;
+    private final long maxWaitMillis;
+    /**
+     * Limits the connections in use at once, or null for no limit
+     */
+    private final Semaphore permits;
+
+    // guarded by this
+    private final Deque<Pooled> idle = new ArrayDeque<>();
+    private final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed = false;
+
+    private final LongAdder borrowed = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder waited = new LongAdder();
+    private final LongAdder leaks = new LongAdder();
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+
+    /**
+     * @param factory opens new connections
+     * @param maxInUse the most connections to hand out at once, or 0 for no limit
+     * @param maxWaitMillis how long to wait for a connection when maxInUse are in use
+     * @param maxIdle the most connections to keep for reuse, or 0 to close each one when it is returned
+     * @param statementCacheSize the most prepared statements to cache per connection, or 0 for none
+     * @param leakMillis how long a connection may be held before it is logged as a possible leak, or 0 for never
+     */
+    public ConnectionPool(ConnectionFactory factory, int maxInUse, long maxWaitMillis, int maxIdle,
+        int statementCacheSize, long leakMillis) {
+        this.factory = factory;
+        this.permits = (maxInUse > 0) ? new Semaphore(maxInUse, true) : null;
+        this.maxWaitMillis = maxWaitMillis;
+        this.maxIdle = maxIdle;
+        this.statementCacheSize = (maxIdle > 0) ? statementCacheSize : 0;
+        this.leakMillis = leakMillis;
+    }
+
+    /**
+     * Get a connection. Close it to return it.
+     *
+     * @return the connection
+     * @throws SQLException if a connection could not be opened, or none was free in time
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        checkLeaks();
+        if (permits != null && !permits.tryAcquire()) {
+            waited.increment();
+            try {
+                if (!permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                    throw new SQLException("No database connection free after " + maxWaitMillis + "ms; "
+                        + leases.size() + " in use, oldest taken by " + oldestCaller());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted waiting for a database connection", e);
+            }
+        }
+        try {
+            Pooled p = takeIdle();
+            if (p == null) {
+                p = new Pooled(factory.open());
+                created.increment();
+            }
+            borrowed.increment();
+            final Lease lease = new Lease(p, (leakMillis > 0) ? callerOf() : "?");
+            leases.add(lease);
+            return lease.proxy;
+        } catch (SQLException | RuntimeException e) {
+            if (permits != null) {
+                permits.release();
+            }
+            throw e;
+        }
+    }
+
+    private Pooled takeIdle() {
+        while (true) {
+            final Pooled p;
+            synchronized (this) {
+                p = idle.pollFirst();
+            }
+            if (p == null) {
+                return null;
+            }
+            if (System.currentTimeMillis() - p.lastUsed < VALIDATE_AFTER_MILLIS) {
+                return p;
+            }
+            try {
+                if (p.connection.isValid(VALIDATE_TIMEOUT_SECONDS)) {
+                    return p;
+                }
+            } catch (SQLException e) {
+                // drop it
+            }
+            p.closeQuietly();
+        }
+    }
+
+    private void release(Lease lease) {
+        if (!lease.returned.compareAndSet(false, true)) {
+            return; // already closed
+        }
+        leases.remove(lease);
+        final Pooled p = lease.pooled;
+        try {
+            boolean keep = false;
+            if (!closed && maxIdle > 0) {
+                try {
+                    p.reset();
+                    synchronized (this) {
+                        if (idle.size() < maxIdle) {
+                            idle.addFirst(p);
+                            keep = true;
+                        }
+                    }
+                } catch (SQLException e) {
+                    logger.fine(() -> "Dropping connection that could not be reset: " + DBUtils.unchainSqlException(e));
+                }
+            }
+            if (!keep) {
+                p.closeQuietly();
+            }
+        } finally {
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Log, once each, connections held longer than the leak threshold
+     */
+    public void checkLeaks() {
+        if (leakMillis <= 0) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        for (Lease lease : leases) {
+            if (!lease.reported && now - lease.since > leakMillis) {
+                lease.reported = true;
+                leaks.increment();
+                logger.warning("Possible connection leak: connection held for " + (now - lease.since) / 1000
+                    + "s, taken by " + lease.caller);
+            }
+        }
+    }
+
+    private String oldestCaller() {
+        Lease oldest = null;
+        for (Lease lease : leases) {
+            if (oldest == null || lease.since < oldest.since) {
+                oldest = lease;
+            }
+        }
+        return (oldest == null) ? "none" : oldest.caller;
+    }
+
+    /**
+     * Close the idle connections, and each connection in use when it is returned
+     */
+    public void close() {
+        closed = true;
+        final List<Pooled> toClose;
+        synchronized (this) {
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+        }
+        for (Pooled p : toClose) {
+            p.closeQuietly();
+        }
+        if (!leases.isEmpty()) {
+            logger.warning("Closing connection pool with " + leases.size() + " connections in use, oldest taken by "
+                + oldestCaller());
+        }
+    }
+
+    /**
+     * @return the number of connections handed out and not yet returned
+     */
+    public int getInUse() {
+        return leases.size();
+    }
+
+    /**
+     * @return the number of connections ready for reuse
+     */
+    public synchronized int getIdle() {
+        return idle.size();
+    }
+
+    /**
+     * @return the number of connections handed out so far
+     */
+    public long getBorrowed() {
+        return borrowed.sum();
+    }
+
+    /**
+     * @return the number of connections opened so far
+     */
+    public long getCreated() {
+        return created.sum();
+    }
+
+    /**
+     * @return the number of times a caller had to wait for a connection to be returned
+     */
+    public long getWaited() {
+        return waited.sum();
+    }
+
+    /**
+     * @return the number of connections found held longer than the leak threshold
+     */
+    public long getLeaks() {
+        return leaks.sum();
+    }
+
+    /**
+     * @return the fraction of prepareStatement calls answered from the cache
+     */
+    public double getStatementHitRatio() {
+        final long hits = statementHits.sum();
+        final long total = hits + statementMisses.sum();
+        return (total == 0) ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPool in use: " + getInUse() + ", idle: " + getIdle() + ", borrowed: " + getBorrowed()
+            + ", opened: " + getCreated() + ", waited: " + getWaited() + ", leaks: " + getLeaks()
+            + ", statement hit ratio: " + String.format("%.2f", getStatementHitRatio());
+    }
+
+    private static boolean isCacheable(Object[] args) {
+        for (Object o : args) {
+            if (o != null && o.getClass().isArray()) {
+                return false; // column names or indexes; not worth caching
+            }
+        }
+        return true;
+    }
+
+    private static boolean isClosedQuietly(Statement s) {
+        try {
+            return s.isClosed();
+        } catch (SQLException e) {
+            return false; // keep it, to close with the connection
+        }
+    }
+
+    private static Object invoke(Object target, Method m, Object[] args) throws Throwable {
+        try {
+            return m.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * @return the first caller outside of DBUtils and this class, for leak reports
+     */
+    private static String callerOf() {
+        return StackWalker.getInstance().walk(frames -> frames
+            .filter(f -> !f.getClassName().startsWith(ConnectionPool.class.getName())
+                && !f.getClassName().equals(DBUtils.class.getName()))
+            .findFirst()
+            .map(StackWalker.StackFrame::toString)
+            .orElse("?"));
+    }
+}
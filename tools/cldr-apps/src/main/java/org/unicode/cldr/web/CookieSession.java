@@ -21,6 +21,9 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Logger;
 
 import org.unicode.cldr.util.CLDRConfig;
@@ -64,8 +67,8 @@ public class CookieSession {
      * "stuff" must be public since it is referenced by jsp for bulk upload
      * Reference: https://unicode-org.atlassian.net/browse/CLDR-15676
      */
-    public Hashtable<String, Object> stuff = new Hashtable<>(); // user data
-    public Hashtable<String, Comparable> prefs = new Hashtable<>(); // user prefs
+    public final ConcurrentHashMap<String, Object> stuff = new ConcurrentHashMap<>(); // user data
+    public final ConcurrentHashMap<String, Comparable> prefs = new ConcurrentHashMap<>(); // user prefs
     public UserRegistry.User user = null;
     /**
      * CookieSession.sm was formerly deprecated: "need to refactor anything that uses this."
@@ -82,7 +85,7 @@ public class CookieSession {
      *
      * Compare lastBrowserCallMillisSinceEpoch.
      */
-    private long lastActionMillisSinceEpoch = System.currentTimeMillis();
+    private volatile long lastActionMillisSinceEpoch = System.currentTimeMillis();
 
     /**
      * Get the time (in millis since 1970) when the user last took an explicit action.
@@ -149,7 +152,7 @@ public class CookieSession {
      *
      * Compare lastActionMillisSinceEpoch.
      */
-    private long lastBrowserCallMillisSinceEpoch;
+    private volatile long lastBrowserCallMillisSinceEpoch;
 
     /**
      * Get the time (in millis since 1970) when the user last touched this session.
@@ -175,8 +178,18 @@ public class CookieSession {
             + "}";
     }
 
-    static Hashtable<String, CookieSession> gHash = new Hashtable<>(); // hash by sess ID
-    static Hashtable<String, CookieSession> uHash = new Hashtable<>(); // hash by user ID
+    /*
+     * Lookups do not lock; changes that involve both maps (setUser, remove) are made under the lock of gHash,
+     * so that uHash only refers to sessions in gHash.
+     */
+    static final ConcurrentHashMap<String, CookieSession> gHash = new ConcurrentHashMap<>(); // hash by sess ID
+    static final ConcurrentHashMap<String, CookieSession> uHash = new ConcurrentHashMap<>(); // hash by user ID
+
+    /**
+     * Number of session lookups, and the time they took, for SurveyMetrics
+     */
+    private static final LongAdder lookupCount = new LongAdder();
+    private static final LongAdder lookupNanos = new LongAdder();
 
     /**
      *
@@ -184,18 +197,31 @@ public class CookieSession {
      * Called by AdminAjax.jsp
      */
     public static Set<CookieSession> getAllSet() {
-        synchronized (gHash) {
-            TreeSet<CookieSession> sessSet = new TreeSet<>((Comparator<Object>) (a, b) -> {
-                CookieSession aa = (CookieSession) a;
-                CookieSession bb = (CookieSession) b;
-                if (aa == bb)
-                    return 0;
-                return Long.compare(bb.lastBrowserCallMillisSinceEpoch, aa.lastBrowserCallMillisSinceEpoch);
-                // same age
-            });
-            sessSet.addAll(gHash.values()); // ALL sessions
-            return sessSet;
-        }
+        TreeSet<CookieSession> sessSet = new TreeSet<>((Comparator<Object>) (a, b) -> {
+            CookieSession aa = (CookieSession) a;
+            CookieSession bb = (CookieSession) b;
+            if (aa == bb)
+                return 0;
+            return Long.compare(bb.lastBrowserCallMillisSinceEpoch, aa.lastBrowserCallMillisSinceEpoch);
+            // same age
+        });
+        sessSet.addAll(gHash.values()); // ALL sessions
+        return sessSet;
+    }
+
+    /**
+     * @return the number of sessions, including observers
+     */
+    public static int getSessionCount() {
+        return gHash.size();
+    }
+
+    /**
+     * @return the mean time taken by retrieveWithoutTouch, in microseconds, since startup
+     */
+    public static double getMeanLookupMicros() {
+        final long n = lookupCount.sum();
+        return (n == 0) ? 0.0 : (lookupNanos.sum() / 1000.0) / n;
     }
 
     /**
@@ -227,9 +253,11 @@ public class CookieSession {
      */
     public static CookieSession retrieveWithoutTouch(String sessionid) {
         checkForExpiredSessions();
-        synchronized (gHash) {
-            return gHash.get(sessionid);
-        }
+        final long start = System.nanoTime(); // the lookup alone, not any reaping above
+        final CookieSession c = gHash.get(sessionid);
+        lookupNanos.add(System.nanoTime() - start);
+        lookupCount.increment();
+        return c;
     }
 
     /**
@@ -240,9 +268,7 @@ public class CookieSession {
      * @return session or null
      */
     public static CookieSession retrieveUserWithoutTouch(String email) {
-        synchronized (gHash) {
-            return uHash.get(email);
-        }
+        return uHash.get(email);
     }
 
     /**
@@ -253,13 +279,11 @@ public class CookieSession {
      * @return session or null
      */
     public static CookieSession retrieveUser(String email) {
-        synchronized (gHash) {
-            CookieSession c = retrieveUserWithoutTouch(email);
-            if (c != null) {
-                c.touch();
-            }
-            return c;
+        CookieSession c = retrieveUserWithoutTouch(email);
+        if (c != null) {
+            c.touch();
         }
+        return c;
     }
 
 
@@ -314,12 +338,9 @@ public class CookieSession {
             id = fromId;
         }
         if (DEBUG_INOUT) System.out.println("S: new " + id + " - " + user);
-        synchronized (gHash) {
-            if (gHash.containsKey(id)) {
-                System.err.println("CookieSession.CookieSession() - dup id " + id);
-            }
-            gHash.put(id, this);
-            touch();
+        touch();
+        if (gHash.put(id, this) != null) {
+            System.err.println("CookieSession.CookieSession() - dup id " + id);
         }
     }
 
@@ -328,20 +349,21 @@ public class CookieSession {
     }
 
     public static CookieSession newSession(String ip, String fromId) {
-        CookieSession rv;
-        synchronized (gHash) {
-            rv = gHash.get(fromId);
-            if (rv != null) {
-                System.err.println("Trying to create extant session " + rv);
-                if (!rv.ip.equals(ip)) {
-                    if (SurveyMain.isUnofficial()) System.out.println("IP changed from " + rv.ip + " to " + ip + " - " + rv);
-                    rv.ip = ip;
-                    rv.touch();
+        CookieSession rv = gHash.get(fromId);
+        if (rv == null) {
+            synchronized (gHash) { // only to keep two requests from both creating this session
+                rv = gHash.get(fromId);
+                if (rv == null) {
+                    return new CookieSession(ip, fromId);
                 }
-            } else {
-                rv = new CookieSession(ip, fromId);
             }
         }
+        System.err.println("Trying to create extant session " + rv);
+        if (!rv.ip.equals(ip)) {
+            if (SurveyMain.isUnofficial()) System.out.println("IP changed from " + rv.ip + " to " + ip + " - " + rv);
+            rv.ip = ip;
+            rv.touch();
+        }
         return rv;
     }
 
@@ -366,7 +388,7 @@ public class CookieSession {
     public void remove() {
         synchronized (gHash) {
             if (user != null) {
-                uHash.remove(user.email);
+                uHash.remove(user.email, this); // unless the user has a newer session
             }
             gHash.remove(id);
         }
@@ -403,19 +425,26 @@ public class CookieSession {
     }
 
     // secure stuff
-    static SecureRandom myRand = null;
 
-    /* Secure random number generator */
+    /* Secure random number generator, which may be shared between threads */
+    private static final class RandHelper {
+        static final SecureRandom myRand;
+        static {
+            try {
+                myRand = SecureRandom.getInstance("SHA1PRNG");
+            } catch (NoSuchAlgorithmException nsa) {
+                throw new IllegalStateException(nsa);
+            }
+        }
+    }
 
     /**
      * Generate a new ID.
      *
      */
-    public static synchronized String newId() {
+    public static String newId() {
         try {
-            if (myRand == null) {
-                myRand = SecureRandom.getInstance("SHA1PRNG");
-            }
+            final SecureRandom myRand = RandHelper.myRand;
 
             MessageDigest aDigest = MessageDigest.getInstance("SHA-1");
             byte[] outBytes = aDigest.digest(Integer.toString(myRand.nextInt()).getBytes());
@@ -435,9 +464,7 @@ public class CookieSession {
      *            the key to load
      */
     Object get(String key) {
-        synchronized (stuff) {
-            return stuff.get(key);
-        }
+        return stuff.get(key);
     }
 
     /**
@@ -449,9 +476,7 @@ public class CookieSession {
      *            object to be set
      */
     public void put(String key, Object value) {
-        synchronized (stuff) {
-            stuff.put(key, value);
-        }
+        stuff.put(key, value);
     }
 
     /**
@@ -514,14 +539,7 @@ public class CookieSession {
      * @return the locale hashtable
      */
     public Hashtable<String, Hashtable<String, Object>> getLocales() {
-        synchronized (stuff) {
-            Hashtable<String, Hashtable<String, Object>> l = (Hashtable<String, Hashtable<String, Object>>) get("locales");
-            if (l == null) {
-                l = new Hashtable<>();
-                put("locales", l);
-            }
-            return l;
-        }
+        return (Hashtable<String, Hashtable<String, Object>>) stuff.computeIfAbsent("locales", k -> new Hashtable<>());
     }
 
     /**
@@ -676,17 +694,22 @@ public class CookieSession {
     /**
      * last time reaped. Starts at 0, so reap immediately
      */
-    static long lastReapMillisSinceEpoch = 0;
+    static volatile long lastReapMillisSinceEpoch = 0;
+
+    /**
+     * Set while one thread is reaping; other threads do not wait for it
+     */
+    private static final AtomicBoolean reaping = new AtomicBoolean(false);
 
     /**
      * Number of observers (users who are not logged in)
      */
-    private static int nObservers = 0;
+    private static volatile int nObservers = 0;
 
     /**
      * Number of users
      */
-    private static int nUsers = 0;
+    private static volatile int nUsers = 0;
 
     public static int getObserverCount() {
         getUserCount();
@@ -698,28 +721,35 @@ public class CookieSession {
      * @return user count
      */
     public static int getUserCount() {
-        synchronized (uHash) {
-            return uHash.size();
-        }
+        return uHash.size();
     }
 
-    private static int lastCount = -1;
+    private static volatile int lastCount = -1;
 
+    /**
+     * Remove sessions that have timed out, if it is time to check, and count the rest.
+     * The check walks all of the sessions, but only one thread does it at a time,
+     * and lookups proceed meanwhile; a thread arriving during a check uses the last count.
+     * (Timeouts depend on how many users there are, so the sessions cannot be kept in order of expiry.)
+     *
+     * @return the number of users
+     */
     public static int checkForExpiredSessions() {
+        int allCount = gHash.size(); // count of ALL users
+        long nowMillisSinceEpoch = System.currentTimeMillis();
+        long elapsedMillis = (nowMillisSinceEpoch - lastReapMillisSinceEpoch);
 
-        synchronized (gHash) {
-            int allCount = gHash.size(); // count of ALL users
-            long nowMillisSinceEpoch = System.currentTimeMillis();
-            long elapsedMillis = (nowMillisSinceEpoch - lastReapMillisSinceEpoch);
-
-            final boolean tooManyUsers = tooManyUsers();
-            final boolean tooManyObservers = tooManyObservers();
-
-            final long CHECK_SECS = 5; // check every 5 seconds or if count grows
-            if (elapsedMillis < (1000 * CHECK_SECS) && allCount <= lastCount && !tooManyObservers) {
-                return nUsers;
-            }
+        final boolean tooManyUsers = tooManyUsers();
+        final boolean tooManyObservers = tooManyObservers();
 
+        final long CHECK_SECS = 5; // check every 5 seconds or if count grows
+        if (elapsedMillis < (1000 * CHECK_SECS) && allCount <= lastCount && !tooManyObservers) {
+            return nUsers;
+        }
+        if (!reaping.compareAndSet(false, true)) {
+            return nUsers; // another thread is checking
+        }
+        try {
             lastCount = allCount;
 
             int observers = 0;
@@ -754,6 +784,8 @@ public class CookieSession {
             }
             nObservers = observers;
             return (nUsers = users);
+        } finally {
+            reaping.set(false);
         }
     }
 
@@ -785,13 +817,12 @@ public class CookieSession {
 
     private UserSettings settings;
 
-    static CookieSession specialObserver = null;
+    private static final class SpecialObserverHelper {
+        static final CookieSession specialObserver = new CookieSession("[throttled]", null);
+    }
 
-    private static synchronized CookieSession getSpecialObserver() {
-        if (specialObserver == null) {
-            specialObserver = new CookieSession("[throttled]", null);
-        }
-        return specialObserver;
+    private static CookieSession getSpecialObserver() {
+        return SpecialObserverHelper.specialObserver;
     }
 
     private static class BadUserRecord {
@@ -818,7 +849,7 @@ public class CookieSession {
         }
     }
 
-    public static synchronized CookieSession checkForAbuseFrom(String userIP, Hashtable<String, Object> BAD_IPS, String userAgent) {
+    public static CookieSession checkForAbuseFrom(String userIP, Hashtable<String, Object> BAD_IPS, String userAgent) {
         if (userAgent == null)
             userAgent = "X-None";
         if (BAD_IPS.containsKey(userIP)) {
@@ -835,18 +866,16 @@ public class CookieSession {
 
         int noSes = 0;
         long nowMillisSinceEpoch = System.currentTimeMillis();
-        synchronized (gHash) {
-            for (CookieSession cs : gHash.values()) {
-                if (!userIP.equals(cs.ip)) {
-                    continue;
-                }
-                if (cs.user != null) {
-                    return null; // has a user, OK
-                }
-                final long N_MINUTES = 5; // five minutes (why?)
-                if ((nowMillisSinceEpoch - cs.lastBrowserCallMillisSinceEpoch) < (N_MINUTES * 60 * 1000)) {
-                    noSes++;
-                }
+        for (CookieSession cs : gHash.values()) {
+            if (!userIP.equals(cs.ip)) {
+                continue;
+            }
+            if (cs.user != null) {
+                return null; // has a user, OK
+            }
+            final long N_MINUTES = 5; // five minutes (why?)
+            if ((nowMillisSinceEpoch - cs.lastBrowserCallMillisSinceEpoch) < (N_MINUTES * 60 * 1000)) {
+                noSes++;
             }
         }
         if ((noSes > 10) || userAgent.contains("Googlebot") || userAgent.contains("MJ12bot") || userAgent.contains("ezooms.bot")
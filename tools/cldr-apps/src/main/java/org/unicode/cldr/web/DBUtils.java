@@ -81,6 +81,7 @@ public class DBUtils {
     private static final String JDBC_SURVEYTOOL = ("jdbc/SurveyTool");
     private static DataSource datasource = null;
     private String connectionUrl = null;
+    private ConnectionPool pool = null;
     public static final boolean db_Derby = false;
     public static final boolean db_Mysql = true;
 
@@ -128,8 +129,12 @@ public class DBUtils {
     private static final StackTracker tracker = DEBUG
         ? new StackTracker() : null;
     public Appendable stats(Appendable output) throws IOException {
-        return output.append("DBUtils: currently open: " + db_number_open).append(", max open: " + db_max_open)
+        output.append("DBUtils: currently open: " + db_number_open).append(", max open: " + db_max_open)
             .append(", total used: " + db_number_used);
+        if (pool != null) {
+            output.append(", " + pool);
+        }
+        return output;
     }
 
     public Appendable statsShort(Appendable output) throws IOException {
@@ -238,10 +243,20 @@ public class DBUtils {
     /**
      * For testing use, injecting a specific data source.
      * For production use, call getInstance().
+     * If the instance already uses the data source, it is kept, with its pool; otherwise the
+     * pool of the instance being replaced is closed.
      */
-    public static void makeInstanceFrom(DataSource dataSource2, String url) {
+    public static synchronized void makeInstanceFrom(DataSource dataSource2, String url) {
+        final DBUtils previous = DBUtilsHelper.SINGLETON;
+        if (previous != null && dataSource2 != null && previous.datasource == dataSource2) {
+            logger.info("DBUtils: Note: the DBUtils singleton instance already uses " + dataSource2);
+            return;
+        }
         logger.warning("DBUtils: Note: changing the DBUtils singleton instance to " + dataSource2 + " @ " + url);
         DBUtilsHelper.SINGLETON = new DBUtils(dataSource2, url);
+        if (previous != null && previous.pool != null) {
+            previous.pool.close(); // connections still in use are closed as they are returned
+        }
     }
 
     private static final class DBUtilsHelper {
@@ -555,6 +570,7 @@ public class DBUtils {
 
             if (datasource != null) {
                 logger.info("Got datasource: " + datasource + " in " + et);
+                pool = newPool(datasource::getConnection, false);
             }
             Connection c = null;
             try {
@@ -596,9 +612,11 @@ public class DBUtils {
         Connection c = null;
         try {
             if (datasource != null) {
+                pool = newPool(datasource::getConnection, false);
                 c = datasource.getConnection();
             } else if(curl != null && !curl.isEmpty()) {
                 this.connectionUrl = curl;
+                pool = newPool(() -> getDBConnectionFor(curl), true);
                 c = getDBConnection();
                 DatabaseMetaData dmd = c.getMetaData();
                 dbInfo = dmd.getDatabaseProductName() + " v" + dmd.getDatabaseProductVersion();
@@ -630,6 +648,32 @@ public class DBUtils {
         }
     }
 
+    /**
+     * Make the pool for this instance. A container DataSource pools connections and caches statements
+     * itself, so by default the pool only tracks the connections in use; with a JDBC URL (tests,
+     * benchmarks, the embedded database) it pools them too. Each setting can be overridden in cldr.properties.
+     *
+     * @param factory opens new connections
+     * @param pooled true if this pool should keep connections and statements for reuse
+     * @return the pool
+     */
+    private static ConnectionPool newPool(ConnectionPool.ConnectionFactory factory, boolean pooled) {
+        final CLDRConfig config = CLDRConfig.getInstance();
+        return new ConnectionPool(factory,
+            config.getProperty("CLDR_DB_POOL_MAX", pooled ? 32 : 0),
+            config.getProperty("CLDR_DB_POOL_WAIT_SECONDS", 30) * 1000L,
+            config.getProperty("CLDR_DB_POOL_IDLE", pooled ? 8 : 0),
+            config.getProperty("CLDR_DB_STATEMENT_CACHE", pooled ? 64 : 0),
+            config.getProperty("CLDR_DB_LEAK_SECONDS", 120) * 1000L);
+    }
+
+    /**
+     * @return the pool of connections, or null if there is no database
+     */
+    public ConnectionPool getPool() {
+        return pool;
+    }
+
     private void setupSqlForServerType() {
         SurveyLog.debug("setting up SQL for database type " + dbInfo);
         logger.info("setting up SQL for database type " + dbInfo);
@@ -663,6 +707,9 @@ public class DBUtils {
     }
 
     public void doShutdown() throws SQLException {
+        if (pool != null) {
+            pool.close();
+        }
         try {
             DBUtils.close(datasource);
         } catch (IllegalArgumentException iae) {
@@ -722,22 +769,24 @@ public class DBUtils {
      */
     public final Connection getAConnection() {
         logger.fine(() -> "DB OPEN: " + getDBOpenStack());
+        final long start = System.nanoTime();
         try {
+            final Connection c = pool.getConnection();
             if(connectionUrl != null) {
-                Connection c = getDBConnectionFor(connectionUrl);
                 c.setAutoCommit(true);
-                return c;
             }
-            return datasource.getConnection();
+            return c;
         } catch (SQLException se) {
             se.printStackTrace();
             SurveyMain.busted("Fatal in getConnection()", se);
             return null;
+        } finally {
+            SurveyMetrics.record(SurveyMetrics.Timing.DB_CONNECTION_WAIT, start);
         }
     }
 
     /**
-     * For TESTS only
+     * For TESTS only: opens connections for the pool
      * @param connectionUrl
      * @return
      */
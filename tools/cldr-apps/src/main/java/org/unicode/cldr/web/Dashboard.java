@@ -231,12 +231,16 @@ public class Dashboard {
         if (xpath != null) {
             args.setXpath(xpath);
         }
-        return reallyGet(vv, args);
+        return reallyGet(vv, args, usersOrg, coverageLevel);
     }
 
-    private ReviewOutput reallyGet(VettingViewer<Organization> vv, VettingParameters args) {
+    private ReviewOutput reallyGet(VettingViewer<Organization> vv, VettingParameters args, Organization usersOrg, Level coverageLevel) {
         VettingViewer<Organization>.DashboardData dd;
-        dd = vv.generateDashboard(args);
+        if (args.isOnlyForSinglePath()) {
+            dd = vv.generateDashboard(args);
+        } else {
+            dd = DashboardIndexTracker.getDashboardData(args.getLocale(), coverageLevel, usersOrg, args.getUserId());
+        }
 
         ReviewOutput reviewOutput = new ReviewOutput();
 
@@ -0,0 +1,172 @@
+package org.unicode.cldr.web;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.unicode.cldr.util.CLDRLocale;
+import org.unicode.cldr.util.Level;
+import org.unicode.cldr.util.NotificationCategory;
+import org.unicode.cldr.util.Organization;
+import org.unicode.cldr.util.VettingParameters;
+import org.unicode.cldr.util.VettingViewer;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalNotification;
+
+/**
+ * Keeps a VettingViewer.DashboardIndex up to date for one locale, coverage level and organization,
+ * so that a Dashboard request does not need a full scan of the locale.
+ *
+ * Votes (reported by STFactory.VoteListener) only mark their paths dirty; the next request
+ * rechecks just those paths. The index is rebuilt on first use and then periodically,
+ * to pick up indirect changes (such as inheritance from a parent locale) that are not reported per path.
+ */
+final class DashboardIndexTracker {
+    private static final Logger logger = SurveyLog.forClass(DashboardIndexTracker.class);
+
+    /**
+     * How often to rebuild the index with a full scan
+     */
+    static final long REBUILD_MILLIS = Duration.ofMinutes(20).toMillis();
+
+    private static final class Key {
+        private final CLDRLocale locale;
+        private final Level coverageLevel;
+        private final Organization org;
+
+        Key(CLDRLocale locale, Level coverageLevel, Organization org) {
+            this.locale = locale;
+            this.coverageLevel = coverageLevel;
+            this.org = org;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) return true;
+            if (!(other instanceof Key)) return false;
+            final Key k = (Key) other;
+            return locale.equals(k.locale) && coverageLevel == k.coverageLevel && org == k.org;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(locale, coverageLevel, org);
+        }
+    }
+
+    /**
+     * The trackers in the cache, by locale, so that a vote only visits the trackers for its own locale
+     */
+    private static final Map<CLDRLocale, Set<DashboardIndexTracker>> byLocale = new ConcurrentHashMap<>();
+
+    private static final LoadingCache<Key, DashboardIndexTracker> trackers = CacheBuilder.newBuilder()
+        .expireAfterAccess(2, TimeUnit.HOURS)
+        .removalListener((RemovalNotification<Key, DashboardIndexTracker> n) -> byLocale.computeIfPresent(n.getKey().locale,
+            (locale, set) -> {
+                set.remove(n.getValue());
+                return set.isEmpty() ? null : set;
+            }))
+        .build(new CacheLoader<Key, DashboardIndexTracker>() {
+            @Override
+            public DashboardIndexTracker load(Key key) {
+                final DashboardIndexTracker t = new DashboardIndexTracker(key);
+                byLocale.compute(key.locale, (locale, set) -> { // atomic with the removal above
+                    if (set == null) {
+                        set = ConcurrentHashMap.newKeySet();
+                    }
+                    set.add(t);
+                    return set;
+                });
+                return t;
+            }
+        });
+
+    private static STFactory listeningTo = null;
+
+    /**
+     * Make sure we hear about votes. There is normally only one STFactory,
+     * but it is not created until Survey Tool is up.
+     */
+    private static synchronized void listen(STFactory stFactory) {
+        if (listeningTo != stFactory) {
+            stFactory.addVoteListener((locale, xpath) -> {
+                final Set<DashboardIndexTracker> forLocale = byLocale.get(locale);
+                if (forLocale != null) {
+                    for (DashboardIndexTracker t : forLocale) {
+                        t.dirtyPaths.add(xpath);
+                    }
+                }
+            });
+            listeningTo = stFactory;
+        }
+    }
+
+    /**
+     * Get the Dashboard data for a user
+     *
+     * @param locale
+     * @param coverageLevel
+     * @param org the user's organization
+     * @param userId the user
+     * @return the DashboardData
+     */
+    static VettingViewer<Organization>.DashboardData getDashboardData(CLDRLocale locale, Level coverageLevel,
+        Organization org, int userId) {
+        listen(CookieSession.sm.getSTFactory());
+        return trackers.getUnchecked(new Key(locale, coverageLevel, org)).get(userId);
+    }
+
+    private final Key key;
+
+    /**
+     * Paths voted on since the index was last updated
+     */
+    private final Set<String> dirtyPaths = ConcurrentHashMap.newKeySet();
+
+    // The following are guarded by this
+
+    private VettingViewer<Organization>.DashboardIndex index = null;
+    private long builtAt = 0;
+
+    private DashboardIndexTracker(Key key) {
+        this.key = key;
+    }
+
+    private synchronized VettingViewer<Organization>.DashboardData get(int userId) {
+        if (index == null || System.currentTimeMillis() - builtAt > REBUILD_MILLIS) {
+            rebuild();
+        } else if (!dirtyPaths.isEmpty()) {
+            final List<String> paths = new ArrayList<>(dirtyPaths);
+            dirtyPaths.removeAll(paths);
+            index.update(paths);
+        }
+        return index.getDashboardData(userId);
+    }
+
+    private void rebuild() {
+        final long start = System.currentTimeMillis();
+        final SurveyMain sm = CookieSession.sm;
+        final STFactory sourceFactory = sm.getSTFactory();
+        final VettingViewer<Organization> vv = new VettingViewer<>(sm.getSupplementalDataInfo(), sourceFactory,
+            new STUsersChoice(sm));
+        final EnumSet<NotificationCategory> choiceSet = VettingViewer.getDashboardNotificationCategories(key.org);
+        final VettingParameters args = new VettingParameters(choiceSet, key.locale, key.coverageLevel);
+        args.setUserAndOrganization(0, key.org);
+        args.setFiles(key.locale, sourceFactory, sm.getDiskFactory());
+        dirtyPaths.clear(); // anything voted on from now on will be seen as dirty
+        index = vv.getDashboardIndex(args);
+        builtAt = System.currentTimeMillis();
+        logger.fine(() -> "Built dashboard index for " + key.locale + "/" + key.coverageLevel + "/" + key.org
+            + ": " + index.size() + " paths in " + (builtAt - start) + "ms");
+    }
+}
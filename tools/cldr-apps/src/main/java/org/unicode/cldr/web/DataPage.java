@@ -895,6 +895,13 @@ public class DataPage {
             return sm.getSTFactory().getFlag(locale, xpathId);
         }
 
+        /**
+         * @return the forum status of this row's path
+         */
+        public ForumIndex.PathStats getForumStats() {
+            return sm.fora.getPathStats(locale, xpathId);
+        }
+
         public VoteResolver<String> getResolver() {
             return ballotBox.getResolver(xpath);
         }
@@ -1352,7 +1359,10 @@ public class DataPage {
         return options;
     }
 
-    private final BallotBox<User> ballotBox;
+    /**
+     * The votes, as of when this page was made. Reading these never waits for voting.
+     */
+    private final BallotBoxSnapshot<User> ballotBox;
 
     /*
      * hashtable of type->Row
@@ -1376,7 +1386,7 @@ public class DataPage {
         this.sm = sm;
         this.matcher = matcher;
         xpathPrefix = prefix;
-        ballotBox = sm.getSTFactory().ballotBoxForLocale(locale);
+        ballotBox = sm.getSTFactory().ballotBoxSnapshotForLocale(locale);
         this.pageId = pageId;
 
         if (DEBUG_DATA_PAGE) {
@@ -1407,6 +1417,15 @@ public class DataPage {
         return pageId;
     }
 
+    /**
+     * Get the locale stamp as of which this page's votes were read
+     *
+     * @return the Stamp
+     */
+    public Stamp getStamp() {
+        return ballotBox.getStamp();
+    }
+
     /**
      * Create a DisplaySet for this DataPage
      *
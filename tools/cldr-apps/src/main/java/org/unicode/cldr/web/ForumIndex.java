@@ -0,0 +1,211 @@
+package org.unicode.cldr.web;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import org.unicode.cldr.util.CLDRLocale;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+/**
+ * In-memory index of the forum posts of each locale, by xpath id, so that showing or checking
+ * the forum status of a path does not need a query.
+ *
+ * A locale is loaded with one query on first use. New posts are added to it as they are made;
+ * closing threads (which may touch many paths) drops the locale so that it is reloaded.
+ * A post or close that finds the locale not loaded (or still loading) bumps its generation,
+ * so that a load which may have missed it is thrown away and redone on the next read.
+ * Entries also expire, as a bound on any other drift.
+ */
+public final class ForumIndex {
+    private static final Logger logger = SurveyLog.forClass(ForumIndex.class);
+
+    private static final int EXPIRE_MINUTES = 30;
+
+    /**
+     * The forum status of one path in one locale
+     */
+    public static final class PathStats {
+        public static final PathStats NONE = new PathStats(0, 0, 0);
+
+        private final int postCount;
+        private final int openCount;
+        private final long lastPostMillis;
+
+        PathStats(int postCount, int openCount, long lastPostMillis) {
+            this.postCount = postCount;
+            this.openCount = openCount;
+            this.lastPostMillis = lastPostMillis;
+        }
+
+        /**
+         * @return the number of posts
+         */
+        public int getPostCount() {
+            return postCount;
+        }
+
+        /**
+         * @return true if any of the posts is in an open thread
+         */
+        public boolean hasOpenThread() {
+            return openCount > 0;
+        }
+
+        /**
+         * @return the time of the last post, in millis since 1970, or 0 if there are none
+         */
+        public long getLastPostMillis() {
+            return lastPostMillis;
+        }
+
+        private PathStats withPost(boolean open, long millis) {
+            return new PathStats(postCount + 1, openCount + (open ? 1 : 0), Math.max(lastPostMillis, millis));
+        }
+    }
+
+    private static final class LocaleIndex {
+        final Map<Integer, PathStats> byXpath = new ConcurrentHashMap<>();
+        /**
+         * The generation of the locale when the load started
+         */
+        final long generation;
+        /**
+         * The highest post id that was loaded; later posts are added by postAdded
+         */
+        int maxPostId = 0;
+
+        LocaleIndex(long generation) {
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * Bumped for a locale when a change could not be applied to its index
+     */
+    private final Map<CLDRLocale, Long> generations = new ConcurrentHashMap<>();
+
+    /**
+     * Bumped by invalidateAll
+     */
+    private final AtomicLong allGeneration = new AtomicLong();
+
+    private long generation(CLDRLocale locale) {
+        return allGeneration.get() + generations.getOrDefault(locale, 0L);
+    }
+
+    private void bump(CLDRLocale locale) {
+        generations.merge(locale, 1L, Long::sum);
+    }
+
+    private final LoadingCache<CLDRLocale, LocaleIndex> locales = CacheBuilder.newBuilder()
+        .expireAfterWrite(EXPIRE_MINUTES, TimeUnit.MINUTES)
+        .build(new CacheLoader<CLDRLocale, LocaleIndex>() {
+            @Override
+            public LocaleIndex load(CLDRLocale locale) throws SQLException {
+                return loadLocale(locale, generation(locale));
+            }
+        });
+
+    private static LocaleIndex loadLocale(CLDRLocale locale, long generation) throws SQLException {
+        final LocaleIndex li = new LocaleIndex(generation);
+        final String tableName = DBUtils.Table.FORUM_POSTS.toString();
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            conn = DBUtils.getInstance().getAConnection();
+            if (conn == null) {
+                return li;
+            }
+            ps = DBUtils.prepareForwardReadOnly(conn, "SELECT xpath, COUNT(*), SUM(CASE WHEN is_open THEN 1 ELSE 0 END),"
+                + " MAX(last_time), MAX(id) FROM " + tableName + " WHERE loc=? GROUP BY xpath");
+            ps.setString(1, locale.getBaseName());
+            rs = ps.executeQuery();
+            while (rs.next()) {
+                final Timestamp last = rs.getTimestamp(4);
+                li.byXpath.put(rs.getInt(1), new PathStats(rs.getInt(2), rs.getInt(3),
+                    (last == null) ? 0 : last.getTime()));
+                li.maxPostId = Math.max(li.maxPostId, rs.getInt(5));
+            }
+        } finally {
+            DBUtils.close(rs, ps, conn);
+        }
+        logger.fine(() -> "Loaded forum index for " + locale + ": " + li.byXpath.size() + " paths");
+        return li;
+    }
+
+    /**
+     * Get the forum status of a path
+     *
+     * @param locale
+     * @param xpathId
+     * @return the status, or PathStats.NONE if there are no posts (or they could not be read)
+     */
+    public PathStats get(CLDRLocale locale, int xpathId) {
+        try {
+            LocaleIndex li = locales.getUnchecked(locale);
+            if (li.generation != generation(locale)) {
+                // changed while it was loading (or since); read it again
+                locales.asMap().remove(locale, li);
+                li = locales.getUnchecked(locale);
+            }
+            return li.byXpath.getOrDefault(xpathId, PathStats.NONE);
+        } catch (RuntimeException e) {
+            SurveyLog.logException(logger, e, "Loading forum index for " + locale + ":" + xpathId);
+            return PathStats.NONE;
+        }
+    }
+
+    /**
+     * Note a new post, after it is committed. If the locale is not loaded, it will be read when needed;
+     * if it is loading, the load may have missed the post, so it is marked to be read again.
+     *
+     * @param locale
+     * @param xpathId
+     * @param postId the id of the new post
+     * @param open whether the post is in an open thread
+     */
+    void postAdded(CLDRLocale locale, int xpathId, int postId, boolean open) {
+        final LocaleIndex li = locales.getIfPresent(locale);
+        if (li == null) {
+            bump(locale);
+            return;
+        }
+        synchronized (li) {
+            if (postId <= li.maxPostId) {
+                return; // already seen by the load
+            }
+            li.byXpath.merge(xpathId, PathStats.NONE.withPost(open, System.currentTimeMillis()),
+                (old, added) -> old.withPost(open, added.lastPostMillis));
+        }
+    }
+
+    /**
+     * Forget a locale, such as after a thread in it was closed and committed
+     *
+     * @param locale
+     */
+    void invalidate(CLDRLocale locale) {
+        bump(locale); // a load in progress is not removed by invalidate
+        locales.invalidate(locale);
+    }
+
+    /**
+     * Forget all locales, such as after threads were closed in bulk
+     */
+    void invalidateAll() {
+        allGeneration.incrementAndGet();
+        locales.invalidateAll();
+    }
+}
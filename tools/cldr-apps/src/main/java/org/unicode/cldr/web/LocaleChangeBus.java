@@ -0,0 +1,226 @@
+package org.unicode.cldr.web;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.logging.Logger;
+
+import org.unicode.cldr.util.CLDRLocale;
+import org.unicode.cldr.util.XMLSource;
+
+/**
+ * Delivers changes to the data of a locale (after votes) to the interested caches,
+ * off the voting thread.
+ *
+ * Each locale has its own ordered queue: every change gets the next sequence number for the locale,
+ * and changes are delivered in order, by one thread at a time per locale. A path that changes again
+ * before it is delivered is only delivered once (bursts, such as bulk uploads, are coalesced).
+ * Delivery first calls XMLSource.notifyListeners for each path, so that listeners such as TestCache and
+ * resolving sources are called as before, then calls each Subscriber with the whole batch.
+ *
+ * If too many paths are waiting for a locale, the publishing thread delivers them itself.
+ * A reader that must see every change already published, such as STFactory.make, calls flush,
+ * which likewise delivers any waiting changes on the calling thread.
+ */
+public final class LocaleChangeBus {
+    private static final Logger logger = SurveyLog.forClass(LocaleChangeBus.class);
+
+    /**
+     * Number of waiting paths for a locale beyond which the publisher delivers them
+     */
+    private static final int MAX_PENDING = 2000;
+
+    /**
+     * Receives the changes for a locale, in batches, in order
+     */
+    public interface Subscriber {
+        /**
+         * Called on a delivery thread, one thread at a time per locale.
+         * Must not publish changes.
+         *
+         * @param locale
+         * @param xpaths the paths that changed, each once
+         * @param seq the sequence number of the last change in this batch
+         */
+        void localeChanged(CLDRLocale locale, Collection<String> xpaths, long seq);
+    }
+
+    private static final class LocaleQueue {
+        final CLDRLocale locale;
+        /**
+         * Held while delivering, so that batches for the locale are delivered in order
+         */
+        final Object deliveryLock = new Object();
+
+        // guarded by this
+        Set<String> pending = new LinkedHashSet<>();
+        XMLSource source = null;
+        boolean scheduled = false;
+
+        volatile long publishedSeq = 0;
+        volatile long deliveredSeq = 0;
+
+        LocaleQueue(CLDRLocale locale) {
+            this.locale = locale;
+        }
+    }
+
+    private final Map<CLDRLocale, LocaleQueue> queues = new ConcurrentHashMap<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Executor executor;
+
+    /**
+     * @param executor runs deliveries
+     */
+    public LocaleChangeBus(Executor executor) {
+        this.executor = executor;
+    }
+
+    public void subscribe(Subscriber s) {
+        subscribers.add(s);
+    }
+
+    public void unsubscribe(Subscriber s) {
+        subscribers.remove(s);
+    }
+
+    /**
+     * Publish a change
+     *
+     * @param locale
+     * @param source the source whose listeners are to be notified
+     * @param xpath the path that changed
+     * @return the sequence number of the change
+     */
+    public long publish(CLDRLocale locale, XMLSource source, String xpath) {
+        return publish(locale, source, Collections.singletonList(xpath));
+    }
+
+    /**
+     * Publish changes to several paths of a locale
+     *
+     * @param locale
+     * @param source the source whose listeners are to be notified
+     * @param xpaths the paths that changed
+     * @return the sequence number of the last change
+     */
+    public long publish(CLDRLocale locale, XMLSource source, Collection<String> xpaths) {
+        final LocaleQueue q = queues.computeIfAbsent(locale, LocaleQueue::new);
+        final long seq;
+        final boolean deliverHere;
+        boolean schedule = false;
+        synchronized (q) {
+            q.pending.addAll(xpaths);
+            q.source = source;
+            seq = q.publishedSeq += xpaths.size();
+            deliverHere = q.pending.size() > MAX_PENDING;
+            if (!deliverHere && !q.scheduled) {
+                q.scheduled = schedule = true;
+            }
+        }
+        if (deliverHere) {
+            logger.fine(() -> "Back-pressure: delivering changes to " + locale + " on the publishing thread");
+            deliver(q);
+        } else if (schedule) {
+            executor.execute(() -> runScheduled(q));
+        }
+        return seq;
+    }
+
+    /**
+     * Deliver any changes to the locale that are waiting, on this thread, and wait for any delivery in progress
+     *
+     * @param locale
+     */
+    public void flush(CLDRLocale locale) {
+        final LocaleQueue q = queues.get(locale);
+        if (q != null && q.deliveredSeq != q.publishedSeq) {
+            deliver(q);
+        }
+    }
+
+    /**
+     * @param locale
+     * @return the sequence number of the last change published for the locale
+     */
+    public long getPublishedSeq(CLDRLocale locale) {
+        final LocaleQueue q = queues.get(locale);
+        return (q == null) ? 0 : q.publishedSeq;
+    }
+
+    /**
+     * @param locale
+     * @return the sequence number of the last change delivered for the locale
+     */
+    public long getDeliveredSeq(CLDRLocale locale) {
+        final LocaleQueue q = queues.get(locale);
+        return (q == null) ? 0 : q.deliveredSeq;
+    }
+
+    private void runScheduled(LocaleQueue q) {
+        deliver(q);
+        boolean again = false;
+        synchronized (q) {
+            q.scheduled = false;
+            if (!q.pending.isEmpty()) { // published after the last batch was taken
+                q.scheduled = again = true;
+            }
+        }
+        if (again) {
+            executor.execute(() -> runScheduled(q));
+        }
+    }
+
+    /**
+     * Deliver batches until none are waiting
+     */
+    private void deliver(LocaleQueue q) {
+        synchronized (q.deliveryLock) {
+            while (true) {
+                final Set<String> batch;
+                final XMLSource source;
+                final long seq;
+                synchronized (q) {
+                    if (q.pending.isEmpty()) {
+                        return;
+                    }
+                    batch = q.pending;
+                    q.pending = new LinkedHashSet<>();
+                    source = q.source;
+                    seq = q.publishedSeq;
+                }
+                deliverBatch(q.locale, source, batch, seq);
+                q.deliveredSeq = seq;
+            }
+        }
+    }
+
+    private void deliverBatch(CLDRLocale locale, XMLSource source, Set<String> batch, long seq) {
+        if (source != null) {
+            for (String xpath : batch) {
+                try {
+                    source.notifyListeners(xpath);
+                } catch (RuntimeException e) {
+                    SurveyLog.logException(logger, e, "Notifying listeners of " + locale + ":" + xpath);
+                }
+            }
+        }
+        if (!subscribers.isEmpty()) {
+            final Collection<String> xpaths = Collections.unmodifiableList(new ArrayList<>(batch));
+            for (Subscriber s : subscribers) {
+                try {
+                    s.localeChanged(locale, xpaths, seq);
+                } catch (RuntimeException e) {
+                    SurveyLog.logException(logger, e, "Delivering changes to " + locale + " to " + s);
+                }
+            }
+        }
+    }
+}
@@ -17,11 +17,12 @@ public class MutableStamp extends Stamp {
     }
 
     /**
-     * Update the stamp to the next stamp
+     * Update the stamp to the next stamp. Synchronized so that concurrent callers
+     * leave the stamp at the latest value, never move it backwards.
      *
      * @return
      */
-    public long next() {
+    public synchronized long next() {
         return (stamp = Stamp.nextStampTime());
     }
 }
@@ -24,7 +24,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
@@ -50,7 +49,7 @@ public class OutputFileManager {
         this.sm = surveyMain;
     }
 
-    private enum Kind {
+    enum Kind {
         vxml, // Vetted XML. This is the 'final' output from the SurveyTool.
         xml, // Input XML. This is the on-disk data as read by the SurveyTool.
         rxml, // Fully resolved, vetted, XML. This includes all parent data. Huge and expensive.
@@ -94,7 +93,7 @@ public class OutputFileManager {
     }
 
     /**
-     * Output all files (VXML, etc.) and verify their consistency
+     * Start outputting all files (VXML, etc.) and verifying their consistency
      *
      * @param request the HttpServletRequest, used for "vap"
      * @param out the Writer, to receive HTML output
@@ -105,7 +104,9 @@ public class OutputFileManager {
      * This function was started using code moved here from admin-OutputAllFiles.jsp.
      * Reference: CLDR-12016 and CLDR-11877
      *
-     * TODO: link to gear menu and use JavaScript for a front-end.
+     * The work is done in the background by VxmlGenerator, since it may take over ten minutes;
+     * this only starts it (unless it is already running) and shows its progress.
+     * The same can be done with the /api/vxml REST API.
      */
     public static void outputAndVerifyAllFiles(HttpServletRequest request, Writer out) {
         String vap = request.getParameter("vap");
@@ -114,54 +115,22 @@ public class OutputFileManager {
                 out.write("Not authorized.");
                 return;
             }
-            boolean outputFiles = "true".equals(request.getParameter("output"));
-            boolean removeEmpty = "true".equals(request.getParameter("remove"));
-            boolean verifyConsistent = "true".equals(request.getParameter("verify"));
-            if (!(outputFiles || removeEmpty || verifyConsistent)) {
+            VxmlGenerator.Options options = new VxmlGenerator.Options();
+            options.outputFiles = "true".equals(request.getParameter("output"));
+            options.removeEmpty = "true".equals(request.getParameter("remove"));
+            options.verifyConsistent = "true".equals(request.getParameter("verify"));
+            options.changedOnly = "true".equals(request.getParameter("changed"));
+            if (!options.isValid()) {
                 out.write("<p>Usage: specify at least one of these parameters (all false by default):</p>\n");
                 out.write("output=true/false<br>\n");
                 out.write("remove=true/false<br>\n");
                 out.write("verify=true/false<br>\n");
+                out.write("<p>and optionally changed=true/false, to output only the locales with votes changed since the last output</p>\n");
                 return;
             }
-            /*
-             * Sync on OutputFileManager.class here prevents re-entrance if invoked repeatedly before completion.
-             * Performance problem if run while Survey Tool has multiple users/requests?
-             * Completion of http request/response may take over ten minutes! TODO: use ajax.
-             */
-            synchronized (OutputFileManager.class) {
-                SurveyMain sm = CookieSession.sm;
-
-                OutputFileManager ofm = sm.getOutputFileManager();
-
-                File vetdataDir = sm.getVetdir();
-                vetdataDir = createNewManualVetdataDir(vetdataDir);
-                if (vetdataDir == null) {
-                    out.write("Directory creation for vetting data failed.");
-                    return;
-                }
-                out.write("<p>Created new directory: " + vetdataDir.toString() + "</p>");
-
-                if (outputFiles && !ofm.outputAllFiles(out, vetdataDir)) {
-                    out.write("File output failed.");
-                    return;
-                }
-                if (!ofm.copyDtd(vetdataDir)) {
-                    out.write("Copying DTD failed.");
-                    return;
-                }
-                File vxmlDir = null;
-                if (removeEmpty || verifyConsistent) {
-                    vxmlDir = new File(vetdataDir.toString() + "/" + Kind.vxml.name());
-                }
-                if (removeEmpty) {
-                    ofm.removeEmptyFiles(out, vxmlDir);
-                }
-                if (verifyConsistent) {
-                    ofm.verifyAllFiles(out, vxmlDir);
-                }
-            }
-            System.out.println("outputAndVerifyAllFiles finished");
+            VxmlGenerator.Job job = VxmlGenerator.start(options);
+            out.write("<p>" + job.getStatusHtml() + "</p>\n");
+            out.write("<p>Use the /api/vxml REST API to see the progress, or to cancel.</p>\n");
         } catch (Exception e) {
             System.err.println("Exception in outputAndVerifyAllFiles: " + e);
             e.printStackTrace();
@@ -174,7 +143,7 @@ public class OutputFileManager {
      * @param vetdataDir the File that would have been the "automatic vetdata" directory when that existed
      * @return the File for the newly created directory, or null for failure
      */
-    private static File createNewManualVetdataDir(File vetdataDir) {
+    static File createNewManualVetdataDir(File vetdataDir) {
         /*
          * Include in the directory name a timestamp like 2019-05-28T12-34-56-789Z,
          * which is almost standard like 2019-05-28T12:34:56.789Z,
@@ -209,7 +178,7 @@ public class OutputFileManager {
      *
      * They should be copies of "trunk" like cldr/common/dtd/ldml.dtd
      */
-    private boolean copyDtd(File vetdataDir) {
+    boolean copyDtd(File vetdataDir) {
         String dtdDirName = "dtd";
         String dtdFileName = "ldml.dtd";
         File baseDir = CLDRConfig.getInstance().getCldrBaseDirectory();
@@ -236,73 +205,6 @@ public class OutputFileManager {
         return true;
     }
 
-    /**
-     * Output all files (VXML, etc.)
-     *
-     * @param out the Writer, to receive HTML output
-     * @param vetDataDir the folder in which to write
-     * @return true for success, false for failure
-     *
-     * This function was first created using code moved here from admin-OutputAllFiles.jsp.
-     * Reference: CLDR-12016 and CLDR-11877 and CLDR-11850
-     */
-    private boolean outputAllFiles(Writer out, File vetDataDir) {
-        try {
-            long start = System.currentTimeMillis();
-            ElapsedTimer overallTimer = new ElapsedTimer("overall update started " + new java.util.Date());
-            int numupd = 0;
-
-            out.write("<ol>\n");
-
-            Set<CLDRLocale> sortSet = new TreeSet<>();
-            sortSet.addAll(SurveyMain.getLocalesSet());
-            /*
-             * skip "en" and "root", since they should never be changed by the Survey Tool
-             */
-            sortSet.remove(CLDRLocale.getInstance("en"));
-            sortSet.remove(CLDRLocale.getInstance(LocaleNames.ROOT));
-
-            for (CLDRLocale loc : sortSet) {
-                out.write("<li>" + loc.getDisplayName() + "<br/>\n");
-                for (OutputFileManager.Kind kind : OutputFileManager.Kind.values()) {
-                    /*
-                     * TODO: is there any point in outputting anything here for kind other than vxml and pxml?
-                     */
-                    String background = "#ff9999";
-                    String weight = "regular";
-                    String color = "silver";
-                    out.write("\n\n\t<span style=' background-color: " + background + "; font-weight: " + weight + "; color: " + color + ";'>");
-                    out.write(kind.toString());
-                    if (kind == OutputFileManager.Kind.vxml || kind == OutputFileManager.Kind.pxml) {
-                        System.err.println("Writing " + loc.getDisplayName() + ":" + kind);
-                        ElapsedTimer et = new ElapsedTimer("to write " + loc + ":" + kind);
-                        File f = writeManualOutputFile(vetDataDir, loc, kind);
-                        if (f == null) {
-                            out.write("FILE CREATION FAILED: " + loc.toString() + kind.name());
-                            return false;
-                        }
-                        numupd++;
-                        System.err.println(et + " - upd " + numupd + "/" + (sortSet.size() + 2));
-                    }
-                    out.write("</span>  &nbsp;");
-                }
-                out.write("</li>\n");
-            }
-            out.write("</ol>\n");
-            out.write("<hr>\n");
-            out.write("Total upd: " + numupd + "/" + (sortSet.size() + 2) + "\n");
-            out.write("Total time: " + overallTimer + " : " + ((System.currentTimeMillis() - start) / (1000.0 * 60)) + "min\n");
-
-            System.err.println(overallTimer + " - updated " + numupd + "/" + (sortSet.size() + 2) +
-                " in " + (System.currentTimeMillis() - start) / (1000.0 * 60) + " min");
-            return true;
-        } catch (Exception e) {
-            System.err.println("Exception in outputAllFiles: " + e);
-            e.printStackTrace();
-            return false;
-        }
-    }
-
     /**
      * Write out the specified file(s).
      *
@@ -316,11 +218,11 @@ public class OutputFileManager {
      * @param kind the Kind, currently Kind.vxml and Kind.pxml are supported
      * @return the File, or null for failure
      */
-    private File writeManualOutputFile(File vetDataDir, CLDRLocale loc, Kind kind) {
+    File writeManualOutputFile(File vetDataDir, CLDRLocale loc, Kind kind) {
         long st = System.currentTimeMillis();
         CLDRFile cldrFile;
         if (kind == Kind.vxml) {
-            cldrFile = sm.getSTFactory().makeVettedFile(loc);
+            cldrFile = sm.getSTFactory().makeVettedFileTransient(loc);
         } else if (kind == Kind.pxml) {
             cldrFile = sm.getSTFactory().makeProposedFile(loc);
         } else {
@@ -347,7 +249,7 @@ public class OutputFileManager {
              */
             String outDirName = vetDataDir + "/" + kind.toString() +  "/" + commonOrSeed + "/" + DirNames.justMain;
             File outDir = new File(outDirName);
-            if (!outDir.exists() && !outDir.mkdirs()) {
+            if (!outDir.mkdirs() && !outDir.isDirectory()) { // may be created concurrently for another locale
                 throw new InternalError("Unable to create directory: " + outDirName);
             }
             String outFileName = outDirName + "/" + loc.toString() + XML_SUFFIX;
@@ -370,7 +272,7 @@ public class OutputFileManager {
      *
      * Reference: https://unicode-org.atlassian.net/browse/CLDR-12016
      */
-    private void removeEmptyFiles(Writer out, File vxmlDir) throws IOException {
+    void removeEmptyFiles(Writer out, File vxmlDir) throws IOException {
         for (String c: DirNames.commonAndSeed) {
             /*
              * Skip main. Only do common/annotations and seed/annotations.
@@ -470,7 +372,7 @@ public class OutputFileManager {
      *         ├── annotations
      *         └── main
      */
-    private void verifyAllFiles(Writer out, File vxmlDir) throws IOException {
+    void verifyAllFiles(Writer out, File vxmlDir) throws IOException {
         int failureCount = 0;
 
         /*
@@ -7,6 +7,7 @@ import java.io.File;
 import java.io.IOException;
 import java.lang.ref.Reference;
 import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -16,6 +17,13 @@ import java.sql.Timestamp;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Logger;
 
 import org.unicode.cldr.test.CheckCLDR;
@@ -34,6 +42,8 @@ import org.unicode.cldr.web.UserRegistry.User;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Striped;
 import com.ibm.icu.dev.util.ElapsedTimer;
 import com.ibm.icu.text.NumberFormat;
 import com.ibm.icu.util.VersionInfo;
@@ -136,8 +146,105 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
     /**
      * Names of some columns in DBUtils.Table.VOTE_VALUE
      */
-    private static final String VOTE_OVERRIDE = "vote_override";
-    private static final String VOTE_TYPE = "vote_type";
+    static final String VOTE_OVERRIDE = "vote_override";
+    static final String VOTE_TYPE = "vote_type";
+
+    /**
+     * Number of lock stripes per locale for vote submission. Votes on xpaths that hash
+     * to different stripes proceed concurrently.
+     */
+    private static final int PATH_LOCK_STRIPES = 64;
+
+    /**
+     * Number of votes validated by one thread, and saved in one JDBC batch, in voteForValues
+     */
+    private static final int BULK_CHUNK_SIZE = 500;
+
+    /**
+     * Maximum number of threads used to resolve paths when loading a locale
+     */
+    private static final int RESOLVER_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Don't bother splitting up resolution for fewer than this many paths per thread
+     */
+    private static final int MIN_PATHS_PER_RESOLVER = 500;
+
+    /**
+     * Columnar buffer of vote rows read by loadVoteValues, so that the result set can be
+     * drained quickly and then interpreted without holding a connection.
+     * Rows added after endOfVotes() are permanent (locked) votes.
+     */
+    private static final class VoteRows {
+        private int size = 0;
+        private int firstPermanent = -1;
+        private int[] xpathIds = new int[1024];
+        private int[] submitters = new int[1024];
+        private String[] values = new String[1024];
+        private int[] overrides = new int[1024];
+        private final BitSet noOverride = new BitSet();
+        private long[] lastMods = new long[1024];
+        private byte[] voteTypes = new byte[1024];
+
+        void add(int xpathId, int submitter, String value, Integer override, Timestamp lastMod, int voteType) {
+            if (size == xpathIds.length) {
+                final int newLength = size * 2;
+                xpathIds = Arrays.copyOf(xpathIds, newLength);
+                submitters = Arrays.copyOf(submitters, newLength);
+                values = Arrays.copyOf(values, newLength);
+                overrides = Arrays.copyOf(overrides, newLength);
+                lastMods = Arrays.copyOf(lastMods, newLength);
+                voteTypes = Arrays.copyOf(voteTypes, newLength);
+            }
+            xpathIds[size] = xpathId;
+            submitters[size] = submitter;
+            values[size] = value;
+            if (override == null) {
+                noOverride.set(size);
+            } else {
+                overrides[size] = override;
+            }
+            lastMods[size] = (lastMod == null) ? Long.MIN_VALUE : lastMod.getTime();
+            voteTypes[size] = (byte) voteType;
+            size++;
+        }
+
+        void endOfVotes() {
+            firstPermanent = size;
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean isPermanent(int i) {
+            return firstPermanent != -1 && i >= firstPermanent;
+        }
+
+        int xpathId(int i) {
+            return xpathIds[i];
+        }
+
+        int submitter(int i) {
+            return submitters[i];
+        }
+
+        String value(int i) {
+            return values[i];
+        }
+
+        Integer override(int i) {
+            return noOverride.get(i) ? null : overrides[i];
+        }
+
+        Timestamp lastMod(int i) {
+            return (lastMods[i] == Long.MIN_VALUE) ? null : new Timestamp(lastMods[i]);
+        }
+
+        int voteType(int i) {
+            return voteTypes[i];
+        }
+    }
 
     private class DataBackedSource extends DelegateXMLSource {
         PerLocaleData ballotBox;
@@ -202,6 +309,16 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
          * @return the VoteResolver
          */
         private VoteResolver<String> setValueFromResolver(String path, VoteResolver<String> resolver, VoteLoadingContext voteLoadingContext) {
+            return setValueFromResolver(path, resolver, voteLoadingContext, null);
+        }
+
+        /**
+         * Set the value for the given path, as above.
+         *
+         * @param baileyFile the resolved file to get bailey values from, or null to call make()
+         */
+        private VoteResolver<String> setValueFromResolver(String path, VoteResolver<String> resolver, VoteLoadingContext voteLoadingContext,
+            CLDRFile baileyFile) {
             PerLocaleData.PerXPathData xpd = ballotBox.peekXpathData(path);
             String value;
             String fullPath;
@@ -224,7 +341,7 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
                 value = ballotBox.diskData.getValueAtDPath(path);
                 fullPath = ballotBox.diskData.getFullPathAtDPath(path);
             } else {
-                resolver = ballotBox.getResolver(xpd, path, resolver);
+                resolver = ballotBox.getResolver(xpd, path, resolver, baileyFile);
                 value = resolver.getWinningValue();
                 fullPath = getFullPathWithResolver(path, resolver);
             }
@@ -371,11 +488,20 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
         private final CLDRLocale locale;
         private final boolean readonly;
         private final MutableStamp stamp;
+        /**
+         * True if this data is not in the factory's cache; see makeVettedFileTransient
+         */
+        private final boolean uncached;
 
         /**
          * The held XMLSource.
          */
-        private DataBackedSource xmlsource = null;
+        private volatile DataBackedSource xmlsource = null;
+
+        /**
+         * True once the votes have been loaded into xmlsource
+         */
+        private volatile boolean loaded;
         /**
          * The on-disk data. May be == to xmlsource for readonly data.
          */
@@ -384,9 +510,36 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
 
         private DisplayAndInputProcessor daip;
 
+        /**
+         * Locale-wide lock. Vote submission takes the read lock (plus a per-path lock from pathLocks),
+         * so that votes on different paths do not block each other. Operations that need a consistent
+         * view of the whole locale, such as makeVettedSource, take the write lock.
+         */
+        private final ReadWriteLock localeLock = new ReentrantReadWriteLock();
+
+        /**
+         * Per-xpath locks, guarding vote application and setValueFromResolver for a single path.
+         */
+        private final Striped<Lock> pathLocks = Striped.lock(PATH_LOCK_STRIPES);
+
+        /**
+         * For each page, the locale stamp as of the last vote that changed a path on that page.
+         * Used to tell whether a rendered page (see RowResponseCache) is still current.
+         */
+        private final Map<PathHeader.PageId, Long> pageChangeStamps = new ConcurrentHashMap<>();
+
+        /**
+         * The locale stamp as of when the votes were last loaded. Every page is considered changed as of then.
+         */
+        private volatile long loadStamp = 0;
+
         /**
          * Per-xpath data. There's one of these per xpath- voting data, etc.
          * Does not contain the actual xpath, at least for now.
+         *
+         * The votes are held in an immutable State, which writers (serialized on this object) replace,
+         * so readers never need a lock. Each State is stamped with the locale stamp of its change and
+         * linked to the one before it, for as long as a live snapshot may need it; see snapshotAt.
          * @author srl
          *
          */
@@ -400,14 +553,14 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
                 /**
                  * What is this user voting for?
                  */
-                String vote;
+                final String vote;
                 /**
                  * What is this user's override strength?
                  */
-                Integer override;
-                Date when;
+                final Integer override;
+                final Date when;
 
-                VoteType voteType;
+                final VoteType voteType;
 
                 public PerUserData(String value, Integer voteOverride, Date when, VoteType voteType) {
                     this.vote = value;
@@ -418,9 +571,6 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
                         logger.warning("PerUserData got vote type " + voteType + "; changed to UNKNOWN");
                         voteType = VoteType.UNKNOWN;
                     }
-                    if (lastModDate == null || lastModDate.before(when)) {
-                        lastModDate = when;
-                    }
                 }
 
                 /**
@@ -444,16 +594,85 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
                 }
             }
 
-            Date lastModDate = null;
+            /**
+             * The votes on this path as of one change. Never modified, except that writers
+             * unlink previous states that no live snapshot needs.
+             */
+            private final class State {
+                /**
+                 * Unmodifiable, or null
+                 */
+                final Map<User, PerUserData> userToData;
+                final Date lastModDate;
+                /**
+                 * The locale stamp of this change; 0 for the initial empty state
+                 */
+                final long version;
+                volatile State previous;
+
+                State(Map<User, PerUserData> userToData, Date lastModDate, long version, State previous) {
+                    this.userToData = userToData;
+                    this.lastModDate = lastModDate;
+                    this.version = version;
+                    this.previous = previous;
+                }
+            }
+
             Set<String> otherValues = null;
-            Map<User, PerUserData> userToData = null;
+            private volatile State state = new State(null, null, 0, null);
+
+            PerXPathData() {
+            }
+
+            /**
+             * Constructor for snapshotAt: unchanging data as of the given state
+             */
+            private PerXPathData(State state) {
+                this.state = state;
+            }
+
+            /**
+             * Get an unchanging copy of this data as of a snapshot's stamp: the latest change made
+             * at or before that stamp. Changes made after it are not seen.
+             *
+             * @param snapStamp the value of the snapshot's stamp
+             * @return the copy
+             */
+            PerXPathData snapshotAt(long snapStamp) {
+                State st = state;
+                while (st != null && st.version > snapStamp) {
+                    st = st.previous;
+                }
+                if (st == null) {
+                    // not expected: history is kept back to the oldest live snapshot
+                    logger.warning("No votes as of " + snapStamp + " in " + locale + "; using current votes");
+                    st = state;
+                }
+                return new PerXPathData(st);
+            }
+
+            /**
+             * Replace the state. Called with this object's monitor held.
+             */
+            private void publish(Map<User, PerUserData> userToData, Date lastModDate) {
+                final State st = new State(userToData, lastModDate, stamp.next(), state);
+                final long keepFrom = oldestSnapshotStamp();
+                for (State s = st; s != null; s = s.previous) {
+                    if (s.version <= keepFrom) {
+                        s.previous = null; // no live snapshot is older than s
+                        break;
+                    }
+                }
+                state = st;
+            }
 
             /**
              * Is there any user data (votes)?
              * @return
              */
             public boolean isEmpty() {
-                return userToData == null || userToData.isEmpty();
+                final Map<User, PerUserData> m = state.userToData;
+                return m == null || m.isEmpty();
             }
 
             /**
@@ -461,7 +680,8 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
              * @return
              */
             public Iterable<Entry<User, PerUserData>> getVotes() {
-                return userToData.entrySet();
+                final Map<User, PerUserData> m = state.userToData;
+                return (m == null) ? Collections.emptySet() : m.entrySet();
             }
 
             /**
@@ -477,7 +697,7 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
                     return null;
                 }
                 TreeSet<User> ts = new TreeSet<>();
-                for (Entry<User, PerUserData> e : userToData.entrySet()) {
+                for (Entry<User, PerUserData> e : getVotes()) {
                     if (e.getValue().getValue().equals(value)) {
                         ts.add(e.getKey());
                     }
@@ -498,11 +718,12 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
             }
 
             private PerUserData peekUserToData(User user) {
-                if (userToData == null) return null;
-                return userToData.get(user);
+                final Map<User, PerUserData> m = state.userToData;
+                if (m == null) return null;
+                return m.get(user);
             }
 
-            private void setVoteForValue(User user, String value, Integer voteOverride, Date when, VoteType voteType) {
+            private synchronized void setVoteForValue(User user, String value, Integer voteOverride, Date when, VoteType voteType) {
                 if (value != null) {
                     setPerUserData(user, new PerUserData(value, voteOverride, when, voteType));
                 } else {
@@ -510,12 +731,13 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
                 }
             }
 
-            private void removePerUserData(User user) {
-                if (userToData != null) {
-                    userToData.remove(user);
-                    if (userToData.isEmpty()) {
-                        lastModDate = null; // date is now null- object is empty
-                    }
+            private synchronized void removePerUserData(User user) {
+                final State st = state;
+                if (st.userToData != null && st.userToData.containsKey(user)) {
+                    final Map<User, PerUserData> m = new HashMap<>(st.userToData);
+                    m.remove(user);
+                    // date is now null if the object is empty
+                    publish(Collections.unmodifiableMap(m), m.isEmpty() ? null : st.lastModDate);
                 }
             }
 
@@ -525,18 +747,12 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
              *
              * @param overrideVoteCount
              */
-            private void removeOverrideVotes(int overrideVoteCount) {
-                if (userToData != null) {
-                    HashSet<User> toDelete = new HashSet<>();
-                    userToData.forEach((k, v) -> {
-                        Integer override = v.getOverride();
-                        if (override != null && override == overrideVoteCount) {
-                            toDelete.add(k);
-                        }
-                    });
-                    for (User k : toDelete) {
-                        userToData.remove(k);
-                    }
+            private synchronized void removeOverrideVotes(int overrideVoteCount) {
+                final State st = state;
+                if (st.userToData != null) {
+                    final Map<User, PerUserData> m = new HashMap<>(st.userToData);
+                    m.values().removeIf(v -> v.getOverride() != null && v.getOverride() == overrideVoteCount);
+                    publish(Collections.unmodifiableMap(m), st.lastModDate);
                 }
             }
 
@@ -545,11 +761,12 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
              * @param user
              * @param pud
              */
-            private void setPerUserData(User user, PerUserData pud) {
-                if (userToData == null) {
-                    userToData = new ConcurrentHashMap<>();
-                }
-                userToData.put(user, pud);
+            private synchronized void setPerUserData(User user, PerUserData pud) {
+                final State st = state;
+                final Map<User, PerUserData> m = (st.userToData == null) ? new HashMap<>() : new HashMap<>(st.userToData);
+                m.put(user, pud);
+                final Date lastModDate = (st.lastModDate == null || st.lastModDate.before(pud.getWhen())) ? pud.getWhen() : st.lastModDate;
+                publish(Collections.unmodifiableMap(m), lastModDate);
             }
 
             /**
@@ -558,17 +775,11 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
              * @return
              */
             public boolean userDidVote(User myUser) {
-                if (userToData == null) {
-                    return false;
-                }
                 PerUserData pud = peekUserToData(myUser);
                 return (pud != null && pud.getValue() != null);
             }
 
             public VoteType getUserVoteType(User myUser) {
-                if (userToData == null) {
-                    return VoteType.NONE;
-                }
                 PerUserData pud = peekUserToData(myUser);
                 if (pud == null) {
                     return VoteType.NONE;
@@ -578,8 +789,8 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
 
             public Map<User, Integer> getOverridesPerUser() {
                 if (isEmpty()) return null;
-                Map<User, Integer> rv = new HashMap<>(userToData.size());
-                for (Entry<User, PerUserData> e : userToData.entrySet()) {
+                Map<User, Integer> rv = new HashMap<>();
+                for (Entry<User, PerUserData> e : getVotes()) {
                     if (e.getValue().getOverride() != null) {
                         rv.put(e.getKey(), e.getValue().getOverride());
                     }
@@ -588,16 +799,21 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
             }
 
             public Date getLastModDate() {
-                return lastModDate;
+                return state.lastModDate;
             }
         }
 
-        private final Map<String, PerXPathData> xpathToData = new HashMap<>();
+        private final Map<String, PerXPathData> xpathToData = new ConcurrentHashMap<>();
 
         private XMLSource resolvedXmlsource = null;
 
         PerLocaleData(CLDRLocale locale) {
+            this(locale, false);
+        }
+
+        PerLocaleData(CLDRLocale locale, boolean uncached) {
             this.locale = locale;
+            this.uncached = uncached;
             readonly = isReadOnlyLocale(locale);
             diskData = sm.getDiskFactory().makeSource(locale.getBaseName()).freeze();
             sm.xpt.loadXPaths(diskData);
@@ -653,6 +869,11 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
         /**
          * Load internal data (votes, etc.) for this PerLocaleData, and push it into the given DataBackedSource.
          *
+         * This is done in three phases: the vote rows are read from the database into a compact
+         * VoteRows buffer; the rows are applied to the per-xpath data (looking up each distinct
+         * xpath and submitter only once); and then the affected paths are resolved in parallel,
+         * each worker using its own VoteResolver.
+         *
          * @param targetXmlSource the DataBackedSource which might or might not equal this.xmlsource;
          *                        for makeVettedSource, it is a different (uncached) DataBackedSource.
          *
@@ -663,129 +884,447 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
          * and by PerLocaleData.makeVettedSource (with VoteLoadingContext.VXML_GENERATION).
          */
         private void loadVoteValues(DataBackedSource targetXmlSource, VoteLoadingContext voteLoadingContext) {
-            VoteResolver<String> resolver = null; // save recalculating this.
-            ElapsedTimer et = (SurveyLog.DEBUG) ? new ElapsedTimer("Loading PLD for " + locale) : null;
+            final long start = System.currentTimeMillis();
+            final VoteRows rows = readVoteRows();
+            final long readDone = System.currentTimeMillis();
+            final int n = applyVoteRows(rows);
+            final long applyDone = System.currentTimeMillis();
+
+            /*
+             * Now that we've loaded all the votes, resolve the votes for each path.
+             *
+             * For VoteLoadingContext.VXML_GENERATION we use all paths in diskData (trunk) in
+             * addition to allPXDPaths(); otherwise, vxml produced by OutputFileManager is missing some paths.
+             * allPXDPaths() may return an empty array if there are no votes in current votes table.
+             * (However, we assume that last-release value soon won't be used anymore for vote resolution.
+             * If we did need paths from last-release, or any paths missing from trunk and current votes table,
+             * we could loop through sm.getSTFactory().getPathsForFile(locale); however, that would generally
+             * include more paths than are wanted for vxml.)
+             * Reference: https://unicode-org.atlassian.net/browse/CLDR-11909
+             *
+             * TODO: revisit whether this difference for VoteLoadingContext.VXML_GENERATION is still necessary; when added
+             * cases where last-release value made a difference to vote resolution; now that "baseline" = trunk not
+             * last-release it's possible that vote resolution isn't needed for items without current votes.
+             */
+            Set<String> xpathSet;
+            if (voteLoadingContext == VoteLoadingContext.VXML_GENERATION) {
+                xpathSet = new HashSet<>(allPXDPaths());
+                for (String xp : diskData) {
+                    xpathSet.add(xp);
+                }
+            } else { // voteLoadingContext == VoteLoadingContext.ORDINARY_LOAD_VOTES
+                xpathSet = allPXDPaths();
+            }
+            final int j = resolveAll(targetXmlSource, xpathSet, voteLoadingContext);
+            final long end = System.currentTimeMillis();
+            lastLoadMillis = end - start;
+            logger.fine(() -> "Loaded " + locale + " (" + voteLoadingContext + "): " + rows.size() + " rows read in " + (readDone - start)
+                + "ms, " + n + " votes applied in " + (applyDone - readDone) + "ms, " + j + " paths resolved in " + (end - applyDone)
+                + "ms; total " + lastLoadMillis + "ms");
+        }
+
+        /**
+         * Read all current votes and permanent (locked) votes for this locale into a VoteRows buffer.
+         * Nothing is interpreted here, so that the connection is held only for the duration of the reads.
+         *
+         * @return the buffered rows
+         */
+        private VoteRows readVoteRows() {
+            final VoteRows rows = new VoteRows();
             Connection conn = null;
             PreparedStatement ps = null;
             ResultSet rs = null;
-            int n = 0;
-            int del = 0;
-
             try {
                 /*
                  * Select several columns (xp, submitter, value, override, last_mod, vote_type),
                  * from all rows with the given locale in the votes table.
                  */
                 conn = DBUtils.getInstance().getAConnection();
-                ps = openQueryByLocaleRW(conn);
+                ps = openQueryByLocale(conn);
                 ps.setString(1, locale.getBaseName());
                 rs = ps.executeQuery();
-
                 while (rs.next()) {
-                    int xp = rs.getInt(1);
-                    String xpath = sm.xpt.getById(xp);
-                    int submitter = rs.getInt(2);
-                    String value = DBUtils.getStringUTF8(rs, 3);
-                    /*
-                     * 4 = locale is unused here, but is required in the query in case deleteRow
-                     * is called below. See openQueryByLocaleRW for explanation.
-                     */
-                    Integer voteOverride = rs.getInt(5); // 5 override
+                    Integer voteOverride = rs.getInt(4);
                     if (voteOverride == 0 && rs.wasNull()) { // if override was a null..
                         voteOverride = null;
                     }
-                    Timestamp last_mod = rs.getTimestamp(6); // last mod
-                    VoteType voteType = VoteType.fromId(rs.getInt(7)); // vote_type
-                    User theSubmitter = sm.reg.getInfo(submitter);
-                    if (theSubmitter == null) {
-                        SurveyLog.warnOnce(logger, "Ignoring votes for deleted user #" + submitter);
-                    }
-                    if (!UserRegistry.countUserVoteForLocale(theSubmitter, locale)) { // check user permission to submit
-                        continue;
-                    }
-                    if (!isValidSurveyToolVote(theSubmitter, xpath)) { // Make sure it is a visible path
-                        continue;
-                    }
-                    try {
-                        value = processValue(xpath, value);
-                        if (voteType == null || voteType == VoteType.NONE) {
-                            logger.warning("loadVoteValues got vote type " + voteType + "; changed to UNKNOWN");
-                            voteType = VoteType.UNKNOWN;
-                        }
-                        internalSetVoteForValue(theSubmitter, xpath, value, voteOverride, last_mod, voteType);
-                        n++;
-                    } catch (VoteNotAcceptedException e) {
-                        logger.severe("VoteNotAcceptedException: " + theSubmitter + ":" + locale + ":" + xpath);
-                    } catch (BallotBox.InvalidXPathException e) {
-                        logger.severe("InvalidXPathException: Deleting vote for " + theSubmitter + ":" + locale + ":" + xpath);
-                        rs.deleteRow();
-                        del++;
-                    }
-                }
-                if (del > 0) {
-                    logger.warning ("Summary: delete of " + del + " invalid votes from " + locale);
+                    rows.add(rs.getInt(1), rs.getInt(2), DBUtils.getStringUTF8(rs, 3), voteOverride,
+                        rs.getTimestamp(5), rs.getInt(6));
                 }
+                rows.endOfVotes();
                 DBUtils.close(rs, ps);
                 ps = openPermVoteQuery(conn);
                 ps.setString(1, locale.getBaseName());
                 rs = ps.executeQuery();
                 while (rs.next()) {
-                    int xp = rs.getInt(1);
-                    String xpath = sm.xpt.getById(xp);
-                    String value = DBUtils.getStringUTF8(rs, 2);
-                    Timestamp last_mod = rs.getTimestamp(3);
+                    rows.add(rs.getInt(1), UserRegistry.ADMIN_ID, DBUtils.getStringUTF8(rs, 2), VoteResolver.Level.LOCKING_VOTES,
+                        rs.getTimestamp(3), VoteType.DIRECT.id());
+                }
+            } catch (SQLException e) {
+                SurveyLog.logException(logger, e, "In loadVoteValues");
+                SurveyMain.busted("Could not read locale " + locale, e);
+                throw new InternalError("Could not load locale " + locale + " : " + DBUtils.unchainSqlException(e));
+            } finally {
+                DBUtils.close(rs, ps, conn);
+            }
+            return rows;
+        }
+
+        /**
+         * Apply buffered vote rows to the per-xpath data. Votes for invalid paths are deleted
+         * from the database in a single batch.
+         *
+         * @param rows the rows from readVoteRows
+         * @return the number of votes applied
+         */
+        private int applyVoteRows(VoteRows rows) {
+            final Map<Integer, String> xpathCache = new HashMap<>();
+            final Map<Integer, User> userCache = new HashMap<>();
+            final Set<Integer> countedUsers = new HashSet<>();
+            final User admin = sm.reg.getInfo(UserRegistry.ADMIN_ID);
+            final List<int[]> toDelete = new ArrayList<>();
+            int n = 0;
+            for (int i = 0; i < rows.size(); i++) {
+                final int xp = rows.xpathId(i);
+                final String xpath = xpathCache.computeIfAbsent(xp, sm.xpt::getById);
+                final Timestamp last_mod = rows.lastMod(i);
+                if (rows.isPermanent(i)) {
                     try {
-                        internalSetVoteForValue(sm.reg.getInfo(UserRegistry.ADMIN_ID), xpath, value, VoteResolver.Level.LOCKING_VOTES, last_mod, VoteType.DIRECT);
+                        internalSetVoteForValue(admin, xpath, rows.value(i), VoteResolver.Level.LOCKING_VOTES, last_mod, VoteType.DIRECT);
                         n++;
                     } catch (BallotBox.InvalidXPathException e) {
                         System.err.println("InvalidXPathException: Ignoring permanent vote for:" + locale + ":" + xpath);
                     }
+                    continue;
+                }
+                final int submitter = rows.submitter(i);
+                User theSubmitter = userCache.get(submitter);
+                if (theSubmitter == null && !userCache.containsKey(submitter)) {
+                    theSubmitter = sm.reg.getInfo(submitter);
+                    userCache.put(submitter, theSubmitter);
+                    if (theSubmitter == null) {
+                        SurveyLog.warnOnce(logger, "Ignoring votes for deleted user #" + submitter);
+                    } else if (UserRegistry.countUserVoteForLocale(theSubmitter, locale)) {
+                        countedUsers.add(submitter);
+                    }
+                }
+                if (!countedUsers.contains(submitter)) { // check user permission to submit
+                    continue;
+                }
+                if (!isValidSurveyToolVote(theSubmitter, xpath)) { // Make sure it is a visible path
+                    continue;
+                }
+                try {
+                    final String value = processValue(xpath, rows.value(i));
+                    VoteType voteType = VoteType.fromId(rows.voteType(i));
+                    if (voteType == null || voteType == VoteType.NONE) {
+                        logger.warning("loadVoteValues got vote type " + voteType + "; changed to UNKNOWN");
+                        voteType = VoteType.UNKNOWN;
+                    }
+                    internalSetVoteForValue(theSubmitter, xpath, value, rows.override(i), last_mod, voteType);
+                    n++;
+                } catch (VoteNotAcceptedException e) {
+                    logger.severe("VoteNotAcceptedException: " + theSubmitter + ":" + locale + ":" + xpath);
+                } catch (BallotBox.InvalidXPathException e) {
+                    logger.severe("InvalidXPathException: Deleting vote for " + theSubmitter + ":" + locale + ":" + xpath);
+                    toDelete.add(new int[] { submitter, xp });
                 }
+            }
+            if (!toDelete.isEmpty()) {
+                deleteVotes(toDelete);
+                logger.warning("Summary: delete of " + toDelete.size() + " invalid votes from " + locale);
+            }
+            return n;
+        }
+
+        /**
+         * Delete the given votes from this locale, in one batch.
+         *
+         * @param toDelete list of {submitter, xpath id} pairs
+         */
+        private void deleteVotes(List<int[]> toDelete) {
+            Connection conn = null;
+            PreparedStatement ps = null;
+            try {
+                conn = DBUtils.getInstance().getDBConnection();
+                ps = conn.prepareStatement("DELETE FROM " + DBUtils.Table.VOTE_VALUE
+                    + " WHERE locale=? AND submitter=? AND xpath=?");
+                for (int[] sx : toDelete) {
+                    ps.setString(1, locale.getBaseName());
+                    ps.setInt(2, sx[0]);
+                    ps.setInt(3, sx[1]);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                conn.commit();
             } catch (SQLException e) {
-                SurveyLog.logException(logger, e, "In setValueFromResolver");
-                SurveyMain.busted("Could not read locale " + locale, e);
-                throw new InternalError("Could not load locale " + locale + " : " + DBUtils.unchainSqlException(e));
+                SurveyLog.logException(logger, e, "Deleting invalid votes from " + locale);
             } finally {
-                DBUtils.close(rs, ps, conn);
+                DBUtils.close(ps, conn);
             }
-            SurveyLog.debug(et + " - read " + n + " items  (" + xpathToData.size() + " xpaths.)");
+        }
 
-            et = (SurveyLog.DEBUG) ? new ElapsedTimer("Resolver loading for xpaths in " + locale) : null;
+        /**
+         * Resolve the given paths into targetXmlSource. Large sets are split among the
+         * SurveyThreadManager executor; each worker has its own VoteResolver.
+         *
+         * @return the number of paths resolved
+         */
+        private int resolveAll(DataBackedSource targetXmlSource, Set<String> xpathSet, VoteLoadingContext voteLoadingContext) {
+            if (xpathSet.isEmpty()) {
+                return 0;
+            }
             /*
-             * Now that we've loaded all the votes, resolve the votes for each path.
-             *
-             * For VoteLoadingContext.VXML_GENERATION we use all paths in diskData (trunk) in
-             * addition to allPXDPaths(); otherwise, vxml produced by OutputFileManager is missing some paths.
-             * allPXDPaths() may return an empty array if there are no votes in current votes table.
-             * (However, we assume that last-release value soon won't be used anymore for vote resolution.
-             * If we did need paths from last-release, or any paths missing from trunk and current votes table,
-             * we could loop through sm.getSTFactory().getPathsForFile(locale); however, that would generally
-             * include more paths than are wanted for vxml.)
-             * Reference: https://unicode-org.atlassian.net/browse/CLDR-11909
-             *
-             * TODO: revisit whether this difference for VoteLoadingContext.VXML_GENERATION is still necessary; when added
-             * cases where last-release value made a difference to vote resolution; now that "baseline" = trunk not
-             * last-release it's possible that vote resolution isn't needed for items without current votes.
+             * Fetch the resolved file here, on the loading thread: workers must not call make(),
+             * since the loading thread may hold the STFactory and PerLocaleData monitors.
              */
-            Set<String> xpathSet;
-            if (voteLoadingContext == VoteLoadingContext.VXML_GENERATION) {
-                xpathSet = new HashSet<>(allPXDPaths());
-                for (String xp : diskData) {
-                    xpathSet.add(xp);
+            final CLDRFile baileyFile = uncached ? makeUncachedResolvedFile() : make(locale, true);
+            final List<String> paths = new ArrayList<>(xpathSet);
+            final int chunks = Math.min(RESOLVER_THREADS, paths.size() / MIN_PATHS_PER_RESOLVER + 1);
+            if (chunks <= 1) {
+                return resolveRange(targetXmlSource, paths, 0, paths.size(), voteLoadingContext, baileyFile);
+            }
+            final int chunkSize = (paths.size() + chunks - 1) / chunks;
+            final List<Future<Integer>> futures = new ArrayList<>(chunks);
+            final ExecutorService executor = SurveyThreadManager.getExecutorService();
+            for (int from = 0; from < paths.size(); from += chunkSize) {
+                final int start = from;
+                final int end = Math.min(paths.size(), from + chunkSize);
+                futures.add(executor.submit(() -> resolveRange(targetXmlSource, paths, start, end, voteLoadingContext, baileyFile)));
+            }
+            int j = 0;
+            for (Future<Integer> f : futures) {
+                try {
+                    j += f.get();
+                } catch (InterruptedException | ExecutionException e) {
+                    SurveyLog.logException(logger, e, "In resolveAll for " + locale);
+                    throw new InternalError("Could not resolve votes for locale " + locale + " : " + e);
                 }
-            } else { // voteLoadingContext == VoteLoadingContext.ORDINARY_LOAD_VOTES
-                xpathSet = allPXDPaths();
             }
-            int j = 0;
-            for (String xp : xpathSet) {
-                try {
-                    resolver = targetXmlSource.setValueFromResolver(xp, resolver, voteLoadingContext);
-                } catch (Exception e) {
-                    SurveyLog.logException(logger, e, "In setValueFromResolver, xp = " + xp);
-                }
-                j++;
+            return j;
+        }
+
+        /**
+         * Make the resolved file of this uncached locale without loading it or its parents into the factory:
+         * parents that are loaded are used, and the others are read just for this file.
+         */
+        private CLDRFile makeUncachedResolvedFile() {
+            final List<XMLSource> sources = new ArrayList<>();
+            sources.add(makeSource(false));
+            for (String parent = LocaleIDParser.getParent(locale.getBaseName(), false); parent != null;
+                parent = LocaleIDParser.getParent(parent, false)) {
+                final CLDRLocale parentLocale = CLDRLocale.getInstance(parent);
+                PerLocaleData pld = peek(parentLocale);
+                if (pld == null) {
+                    pld = new PerLocaleData(parentLocale, true);
+                }
+                sources.add(pld.makeSource(false));
+            }
+            return new CLDRFile(Factory.makeResolvingSource(sources)).setSupplementalDirectory(getSupplementalDirectory());
+        }
+
+        private int resolveRange(DataBackedSource targetXmlSource, List<String> paths, int start, int end,
+            VoteLoadingContext voteLoadingContext, CLDRFile baileyFile) {
+            VoteResolver<String> resolver = null; // save recalculating this.
+            int j = 0;
+            for (int i = start; i < end; i++) {
+                final String xp = paths.get(i);
+                try {
+                    resolver = targetXmlSource.setValueFromResolver(xp, resolver, voteLoadingContext, baileyFile);
+                } catch (Exception e) {
+                    SurveyLog.logException(logger, e, "In setValueFromResolver, xp = " + xp);
+                }
+                j++;
+            }
+            return j;
+        }
+
+        /**
+         * Time taken by the most recent loadVoteValues, in milliseconds
+         */
+        private volatile long lastLoadMillis = -1;
+
+        /**
+         * The most recent snapshot, or null. Replaced when the stamp moves on.
+         */
+        private volatile PerLocaleSnapshot snapshot = null;
+
+        /**
+         * Snapshots that may still be read, so that writers keep the history they need
+         */
+        private final List<WeakReference<PerLocaleSnapshot>> liveSnapshots = new ArrayList<>();
+
+        /**
+         * @return the oldest stamp of any snapshot still in use, or Long.MAX_VALUE if none
+         */
+        private long oldestSnapshotStamp() {
+            long oldest = Long.MAX_VALUE;
+            synchronized (liveSnapshots) {
+                for (Iterator<WeakReference<PerLocaleSnapshot>> i = liveSnapshots.iterator(); i.hasNext();) {
+                    final PerLocaleSnapshot s = i.next().get();
+                    if (s == null) {
+                        i.remove();
+                    } else {
+                        oldest = Math.min(oldest, s.getStamp().current());
+                    }
+                }
+            }
+            return oldest;
+        }
+
+        /**
+         * Get the locale stamp as of the last change to the given page in this locale.
+         *
+         * @param pageId
+         * @return the stamp value, or 0 if the page has not changed since startup
+         */
+        private long getPageChangeStamp(PathHeader.PageId pageId) {
+            return Math.max(loadStamp, pageChangeStamps.getOrDefault(pageId, 0L));
+        }
+
+        /**
+         * Get a read-only view of the votes in this locale. No lock is taken, and nothing is copied
+         * up front: each path is looked up as of the snapshot's stamp the first time it is read,
+         * so a render pays only for the paths it reads. The snapshot is reused by all callers
+         * until the locale's stamp changes.
+         *
+         * @return the snapshot
+         */
+        private PerLocaleSnapshot getSnapshot() {
+            makeSource(false); // make sure votes are loaded
+            PerLocaleSnapshot s = snapshot;
+            if (s == null || s.getStamp().current() != stamp.current()) {
+                s = new PerLocaleSnapshot();
+                snapshot = s;
+            }
+            return s;
+        }
+
+        /**
+         * A read-only view of the votes in a PerLocaleData as of a certain stamp.
+         * Voting methods throw.
+         *
+         * Every path reads as it was at the snapshot's stamp: it reflects every vote completed
+         * before the snapshot was taken, and none made after, however late the path is first read.
+         * Writers keep each path's history back to the oldest registered snapshot for this.
+         */
+        private final class PerLocaleSnapshot implements BallotBoxSnapshot<User> {
+            private final Stamp snapStamp;
+            private final Map<String, PerXPathData> frozen = new ConcurrentHashMap<>();
+
+            /**
+             * Stands for a path with no data at the snapshot's stamp
+             */
+            private final PerXPathData noData = new PerXPathData();
+
+            /**
+             * Read the stamp and register under the same lock as oldestSnapshotStamp, so a writer
+             * either has its change counted in the stamp read here, or sees this snapshot and keeps
+             * the history it needs.
+             */
+            private PerLocaleSnapshot() {
+                synchronized (liveSnapshots) {
+                    snapStamp = Stamp.forValue(stamp.current());
+                    liveSnapshots.add(new WeakReference<>(this));
+                }
+            }
+
+            /**
+             * @return the data for the path as of this snapshot's stamp, or null if it had none
+             */
+            private PerXPathData get(String xpath) {
+                final PerXPathData xpd = frozen.computeIfAbsent(xpath, p -> {
+                    final PerXPathData live = xpathToData.get(p);
+                    return (live == null) ? noData : live.snapshotAt(snapStamp.current());
+                });
+                return (xpd == noData) ? null : xpd;
+            }
+
+            @Override
+            public Stamp getStamp() {
+                return snapStamp;
+            }
+
+            @Override
+            public CLDRLocale getLocale() {
+                return locale;
+            }
+
+            @Override
+            public void voteForValue(User user, String distinguishingXpath, String value) {
+                readonly();
+            }
+
+            @Override
+            public void voteForValueWithType(User user, String distinguishingXpath, String value, VoteType voteType) {
+                readonly();
+            }
+
+            @Override
+            public void voteForValueWithType(User user, String distinguishingXpath, String value, Integer withVote, VoteType voteType) {
+                readonly();
+            }
+
+            @Override
+            public void unvoteFor(User user, String xpath) {
+                readonly();
+            }
+
+            @Override
+            public void revoteFor(User user, String xpath) {
+                readonly();
+            }
+
+            @Override
+            public String getVoteValue(User user, String distinguishingXpath) {
+                PerXPathData xpd = get(distinguishingXpath);
+                return (xpd == null) ? null : xpd.getVoteValue(user);
+            }
+
+            @Override
+            public Set<User> getVotesForValue(String xpath, String value) {
+                PerXPathData xpd = get(xpath);
+                return (xpd == null || xpd.isEmpty()) ? null : xpd.getVotesForValue(value);
+            }
+
+            @Override
+            public Map<User, Integer> getOverridesPerUser(String xpath) {
+                PerXPathData xpd = get(xpath);
+                return (xpd == null) ? null : xpd.getOverridesPerUser();
+            }
+
+            @Override
+            public Set<String> getValues(String xpath) {
+                return PerLocaleData.this.getValues(get(xpath), xpath);
+            }
+
+            @Override
+            public VoteResolver<String> getResolver(String path) {
+                return PerLocaleData.this.getResolver(get(path), path, null);
+            }
+
+            @Override
+            public boolean userDidVote(User myUser, String somePath) {
+                PerXPathData xpd = get(somePath);
+                return (xpd != null && xpd.userDidVote(myUser));
+            }
+
+            @Override
+            public VoteType getUserVoteType(User myUser, String somePath) {
+                PerXPathData xpd = get(somePath);
+                return (xpd == null) ? VoteType.NONE : xpd.getUserVoteType(myUser);
+            }
+
+            @Override
+            public boolean hadVotesSometimeThisRelease(int xpid) {
+                return PerLocaleData.this.hadVotesSometimeThisRelease(xpid);
+            }
+
+            @Override
+            public Date getLastModDate(String xpath) {
+                PerXPathData xpd = get(xpath);
+                return (xpd == null) ? null : xpd.getLastModDate();
             }
-            SurveyLog.debug(et + " - resolved " + j + " items, " + n + " total.");
         }
 
         @Override
@@ -808,7 +1347,12 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
             }
         }
 
-        public synchronized CLDRFile getFile(boolean resolved) {
+        public CLDRFile getFile(boolean resolved) {
+            makeSource(false); // load outside of the monitor: see makeSource
+            return getFileLocked(resolved);
+        }
+
+        private synchronized CLDRFile getFileLocked(boolean resolved) {
             if (resolved) {
                 if (rFile == null) {
                     if (getSupplementalDirectory() == null)
@@ -836,11 +1380,13 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
          *            xpath voted on
          * @param r
          *            if non-null, resolver to re-use.
+         * @param baileyFile
+         *            if non-null, the resolved file for this locale (saves a call to make())
          * @return the new or updated resolver
          *
          * This function is called by getResolver, and may also call itself recursively.
          */
-        private VoteResolver<String> getResolverInternal(PerXPathData perXPathData, String path, VoteResolver<String> r) {
+        private VoteResolver<String> getResolverInternal(PerXPathData perXPathData, String path, VoteResolver<String> r, CLDRFile baileyFile) {
             if (path == null) {
                 throw new IllegalArgumentException("path must not be null");
             }
@@ -861,7 +1407,7 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
             r.setBaseline(currentValue, currentStatus);
             r.add(currentValue);
 
-            CLDRFile cf = make(locale, true);
+            CLDRFile cf = (baileyFile != null) ? baileyFile : make(locale, true);
             r.setBaileyValue(cf.getBaileyValue(path, null, null));
 
             // add each vote
@@ -876,12 +1422,16 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
         }
 
         public VoteResolver<String> getResolver(PerXPathData perXPathData, String path, VoteResolver<String> r) {
+            return getResolver(perXPathData, path, r, null);
+        }
+
+        private VoteResolver<String> getResolver(PerXPathData perXPathData, String path, VoteResolver<String> r, CLDRFile baileyFile) {
             try {
-                r = getResolverInternal(perXPathData, path, r);
+                r = getResolverInternal(perXPathData, path, r, baileyFile);
             } catch (VoteResolver.UnknownVoterException uve) {
                 sm.reg.userModified();  // try reloading user table
                 try {
-                    r = getResolverInternal(perXPathData, path, r);
+                    r = getResolverInternal(perXPathData, path, r, baileyFile);
                 } catch (VoteResolver.UnknownVoterException uve2) {
                     SurveyLog.logException(logger, uve2, "Exception in getResolver");
                     SurveyMain.busted(uve2.toString(), uve2);
@@ -898,8 +1448,10 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
 
         @Override
         public Set<String> getValues(String xpath) {
-            PerXPathData xpd = peekXpathData(xpath); // peek - may be empty
+            return getValues(peekXpathData(xpath), xpath); // peek - may be empty
+        }
 
+        private Set<String> getValues(PerXPathData xpd, String xpath) {
             Set<String> ts = new TreeSet<>(); // return set
 
             if (xpd != null) {
@@ -946,12 +1498,7 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
          * Called by internalSetVoteForValue only.
          */
         private PerXPathData getXPathData(String xpath) {
-            PerXPathData xpd = peekXpathData(xpath);
-            if (xpd == null) {
-                xpd = new PerXPathData();
-                xpathToData.put(xpath, xpd);
-            }
-            return xpd;
+            return xpathToData.computeIfAbsent(xpath, k -> new PerXPathData());
         }
 
         @Override
@@ -974,25 +1521,49 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
             }
         }
 
-        private synchronized XMLSource makeSource(boolean resolved) {
-            if (resolved) {
-                if (resolvedXmlsource == null) {
-                    resolvedXmlsource = makeResolvingSource(locale.getBaseName(), getMinimalDraftStatus());
-                }
-                return resolvedXmlsource;
-            } else {
-                if (readonly) {
-                    return diskData;
-                } else {
-                    if (xmlsource == null) {
-                        xmlsource = new DataBackedSource(this);
-                        loadVoteValues(xmlsource, VoteLoadingContext.ORDINARY_LOAD_VOTES);
-                        stamp.next();
-                        xmlsource.addListener(gTestCache);
-                    }
-                    return xmlsource;
+        /**
+         * Get the source for this locale, loading the votes the first time.
+         *
+         * Loading writes to xpathToData, as makeVettedSource does, so it takes the write lock on localeLock.
+         * Lock order is localeLock before this object's monitor, so this must not be called while
+         * holding the monitor unless the locale is already loaded.
+         */
+        private XMLSource makeSource(boolean resolved) {
+            if (!readonly && !loaded) {
+                localeLock.writeLock().lock();
+                try {
+                    loadSource();
+                } finally {
+                    localeLock.writeLock().unlock();
                 }
             }
+            if (resolved) {
+                return makeResolvedSource();
+            }
+            return readonly ? diskData : xmlsource;
+        }
+
+        /**
+         * Load the votes. Called with the write lock on localeLock held. When called again
+         * by the same thread while loading (through the resolving source), returns at once.
+         */
+        private void loadSource() {
+            if (xmlsource == null) {
+                final long start = System.nanoTime();
+                xmlsource = new DataBackedSource(this);
+                loadVoteValues(xmlsource, VoteLoadingContext.ORDINARY_LOAD_VOTES);
+                SurveyMetrics.record(SurveyMetrics.Timing.LOCALE_LOAD, start);
+                loadStamp = stamp.next();
+                xmlsource.addListener(gTestCache);
+                loaded = true;
+            }
+        }
+
+        private synchronized XMLSource makeResolvedSource() {
+            if (resolvedXmlsource == null) {
+                resolvedXmlsource = makeResolvingSource(locale.getBaseName(), getMinimalDraftStatus());
+            }
+            return resolvedXmlsource;
         }
 
         /**
@@ -1002,11 +1573,21 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
          * This function is similar to makeSource, but with VoteLoadingContext.VXML_GENERATION.
          *
          * @return the DataBackedSource (NOT the same as PerLocaleData.xmlsource)
+         *
+         * Takes the write lock on localeLock, as makeSource does, since both loads write to xpathToData.
+         * Not synchronized: lock order is localeLock before this object's monitor.
          */
-        private synchronized XMLSource makeVettedSource() {
+        private XMLSource makeVettedSource() {
             DataBackedSource vxmlSource = new DataBackedSource(this);
             if (!readonly) {
-                loadVoteValues(vxmlSource, VoteLoadingContext.VXML_GENERATION);
+                final long lockStart = System.nanoTime();
+                localeLock.writeLock().lock(); // no votes may be applied while we load
+                SurveyMetrics.record(SurveyMetrics.Timing.LOCALE_LOCK_WAIT, lockStart);
+                try {
+                    loadVoteValues(vxmlSource, VoteLoadingContext.VXML_GENERATION);
+                } finally {
+                    localeLock.writeLock().unlock();
+                }
             }
             return vxmlSource;
         }
@@ -1032,8 +1613,39 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
             voteForValueWithType(user, distinguishingXpath, value, null, voteType);
         }
 
+        /**
+         * Vote for a value. Votes on different paths in the same locale may proceed concurrently;
+         * votes on the same path are serialized by a per-path lock.
+         */
         @Override
-        public synchronized void voteForValueWithType(User user, String distinguishingXpath, String value, Integer withVote, VoteType voteType) throws BallotBox.InvalidXPathException,
+        public void voteForValueWithType(User user, String distinguishingXpath, String value, Integer withVote, VoteType voteType) throws BallotBox.InvalidXPathException,
+            BallotBox.VoteNotAcceptedException {
+            final long start = System.nanoTime();
+            // Load the locale before taking any vote locks: loading takes the write lock on localeLock.
+            makeSource(false);
+            getProcessor();
+            final long lockStart = System.nanoTime();
+            localeLock.readLock().lock();
+            try {
+                final Lock pathLock = pathLocks.get(distinguishingXpath);
+                pathLock.lock();
+                SurveyMetrics.record(SurveyMetrics.Timing.LOCALE_LOCK_WAIT, lockStart);
+                try {
+                    voteForValueLocked(user, distinguishingXpath, value, withVote, voteType);
+                } finally {
+                    pathLock.unlock();
+                }
+            } finally {
+                localeLock.readLock().unlock();
+                SurveyMetrics.record(SurveyMetrics.Timing.VOTE, start);
+            }
+        }
+
+        /**
+         * Apply a vote. Called by voteForValueWithType, with the read lock on localeLock
+         * and the path lock for distinguishingXpath held.
+         */
+        private void voteForValueLocked(User user, String distinguishingXpath, String value, Integer withVote, VoteType voteType) throws BallotBox.InvalidXPathException,
             BallotBox.VoteNotAcceptedException {
             makeSureInPathsForFile(distinguishingXpath, user, value);
             value = processValue(distinguishingXpath, value);
@@ -1060,16 +1672,7 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
                 }
             }
 
-            // check for too-long
-            if (value != null) {
-                final int valueLimit = SurveyMain.localeSizer.getSize(locale, distinguishingXpath);
-                final int valueLength = value.length();
-                if (valueLength > valueLimit) {
-                    NumberFormat nf = NumberFormat.getInstance();
-                    throw new VoteNotAcceptedException(ErrorCode.E_BAD_VALUE, "Length " + nf.format(valueLength) + " exceeds limit of "
-                        + nf.format(valueLimit) + " - please file a bug if you need a longer value.");
-                }
-            }
+            checkValueLength(distinguishingXpath, value);
 
             String oldVal = xmlsource.getValueAtDPath(distinguishingXpath);
 
@@ -1087,9 +1690,181 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
 
             xmlsource.setValueFromResolver(distinguishingXpath, null, VoteLoadingContext.SINGLE_VOTE);
 
+            // Bump the stamp again, so that any page rendered while this vote was being applied counts as stale
+            PathHeader ph = getPathHeader(distinguishingXpath);
+            if (ph != null) {
+                pageChangeStamps.merge(ph.getPageId(), stamp.next(), Long::max);
+            }
+            for (VoteListener l : voteListeners) {
+                l.voteApplied(locale, distinguishingXpath);
+            }
+
             String newVal = xmlsource.getValueAtDPath(distinguishingXpath);
             if (newVal != null && !newVal.equals(oldVal)) {
-                xmlsource.notifyListeners(distinguishingXpath);
+                changeBus.publish(locale, xmlsource, distinguishingXpath); // listeners are called later
+            }
+        }
+
+        /**
+         * A vote in a call to voteForValues
+         */
+        private final class BulkVote {
+            final String xpath;
+            String value;
+            int xpathId;
+            SurveyException rejection = null;
+
+            BulkVote(String xpath, String value) {
+                this.xpath = xpath;
+                this.value = value;
+            }
+
+            /**
+             * Check and normalize the vote, as voteForValueLocked does for a vote with no override
+             *
+             * @param user
+             * @param processor the DAIP to use, not shared with other threads
+             */
+            void validate(User user, DisplayAndInputProcessor processor) {
+                try {
+                    makeSureInPathsForFile(xpath, user, value);
+                    value = processValue(xpath, value, processor);
+                    checkValueLength(xpath, value);
+                    xpathId = sm.xpt.getByXpath(xpath);
+                } catch (InvalidXPathException | VoteNotAcceptedException e) {
+                    rejection = e;
+                }
+            }
+        }
+
+        /**
+         * Vote for many values at once, such as for a bulk upload.
+         *
+         * The votes are validated in parallel, without holding any locks. The accepted votes are then
+         * saved in one batched transaction, and each path is resolved once, while the affected paths are locked.
+         * The changes are published together after all of the votes have been applied.
+         */
+        @Override
+        public Map<String, SurveyException> voteForValues(User user, Map<String, String> votes, VoteType voteType) {
+            final Map<String, SurveyException> rejected = new TreeMap<>();
+            if (votes.isEmpty()) {
+                return rejected;
+            }
+            makeSource(false);
+            getProcessor();
+            ModifyDenial denial = UserRegistry.userCanModifyLocaleWhy(user, locale);
+            if (denial != null) {
+                for (String xpath : votes.keySet()) {
+                    rejected.put(xpath, new VoteNotAcceptedException(ErrorCode.E_NO_PERMISSION, "User " + user + " cannot modify " + locale + " " + denial));
+                }
+                return rejected;
+            }
+            ElapsedTimer et = new ElapsedTimer("{0} Bulk vote of " + votes.size() + " in " + locale + " by " + user);
+
+            final List<BulkVote> all = new ArrayList<>(votes.size());
+            votes.forEach((xpath, value) -> all.add(new BulkVote(xpath, value)));
+            final List<List<BulkVote>> chunks = Lists.partition(all, BULK_CHUNK_SIZE);
+            if (chunks.size() == 1) {
+                final DisplayAndInputProcessor processor = getProcessor();
+                synchronized (processor) { // DAIP is not thread-safe
+                    all.forEach(v -> v.validate(user, processor));
+                }
+            } else {
+                chunks.parallelStream().forEach(chunk -> {
+                    final DisplayAndInputProcessor processor = newProcessor();
+                    chunk.forEach(v -> v.validate(user, processor));
+                });
+            }
+            final List<BulkVote> accepted = new ArrayList<>(all.size());
+            for (BulkVote v : all) {
+                if (v.rejection != null) {
+                    rejected.put(v.xpath, v.rejection);
+                } else {
+                    accepted.add(v);
+                }
+            }
+            if (accepted.isEmpty()) {
+                return rejected;
+            }
+
+            final List<String> changed = new ArrayList<>();
+            final long lockStart = System.nanoTime();
+            localeLock.readLock().lock();
+            try {
+                // bulkGet returns the locks in a fixed order, so two bulk votes cannot deadlock;
+                // a single vote only ever holds one path lock. Rejected votes need no lock.
+                final List<String> acceptedPaths = new ArrayList<>(accepted.size());
+                for (BulkVote v : accepted) {
+                    acceptedPaths.add(v.xpath);
+                }
+                final Iterable<Lock> locks = pathLocks.bulkGet(acceptedPaths);
+                final List<Lock> held = new ArrayList<>();
+                try {
+                    for (Lock l : locks) {
+                        l.lock();
+                        held.add(l);
+                    }
+                    SurveyMetrics.record(SurveyMetrics.Timing.LOCALE_LOCK_WAIT, lockStart);
+                    applyBulkVotes(user, accepted, voteType, changed);
+                } finally {
+                    for (int i = held.size() - 1; i >= 0; i--) {
+                        held.get(i).unlock();
+                    }
+                }
+            } finally {
+                localeLock.readLock().unlock();
+            }
+            if (!changed.isEmpty()) {
+                changeBus.publish(locale, xmlsource, changed);
+            }
+            logger.info(et + ": " + accepted.size() + " accepted, " + rejected.size() + " rejected, "
+                + changed.size() + " changed");
+            return rejected;
+        }
+
+        /**
+         * Save and apply validated votes. Called by voteForValues, with the read lock on localeLock
+         * and the path locks for all of the accepted votes held.
+         *
+         * @param changed filled in with the paths whose value changed
+         */
+        private void applyBulkVotes(User user, List<BulkVote> accepted, VoteType voteType, List<String> changed) {
+            final Map<String, String> oldValues = new HashMap<>();
+            for (BulkVote v : accepted) {
+                oldValues.put(v.xpath, xmlsource.getValueAtDPath(v.xpath));
+            }
+            if (!readonly) {
+                saveVotesToDb(user, accepted, voteType);
+            } else {
+                readonly();
+            }
+            final Date when = new Date();
+            final Set<PathHeader.PageId> pages = new HashSet<>();
+            for (BulkVote v : accepted) {
+                try {
+                    internalSetVoteForValue(user, v.xpath, v.value, null, when, voteType);
+                } catch (InvalidXPathException e) {
+                    // validated above, and paths are never removed from pathsForFile
+                    SurveyLog.logException(logger, e, "Applying bulk vote for " + v.xpath);
+                    continue;
+                }
+                xmlsource.setValueFromResolver(v.xpath, null, VoteLoadingContext.SINGLE_VOTE);
+                PathHeader ph = getPathHeader(v.xpath);
+                if (ph != null) {
+                    pages.add(ph.getPageId());
+                }
+                for (VoteListener l : voteListeners) {
+                    l.voteApplied(locale, v.xpath);
+                }
+                String newVal = xmlsource.getValueAtDPath(v.xpath);
+                if (newVal != null && !newVal.equals(oldValues.get(v.xpath))) {
+                    changed.add(v.xpath);
+                }
+            }
+            // As for a single vote, bump the stamp again, so that any page rendered meanwhile counts as stale
+            final long next = stamp.next();
+            for (PathHeader.PageId page : pages) {
+                pageChangeStamps.merge(page, next, Long::max);
             }
         }
 
@@ -1136,7 +1911,20 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
          */
         private String processValue(String xpath, String value) throws VoteNotAcceptedException {
             if (value != null && !value.isEmpty() && !CldrUtility.INHERITANCE_MARKER.equals(value)) {
-                value = getProcessor().processInput(xpath, value, null);
+                final DisplayAndInputProcessor processor = getProcessor();
+                synchronized (processor) { // DAIP is not thread-safe
+                    value = processValue(xpath, value, processor);
+                }
+            }
+            return value;
+        }
+
+        /**
+         * Normalize the value with the given DAIP, which the caller must not share with another thread
+         */
+        private String processValue(String xpath, String value, DisplayAndInputProcessor processor) throws VoteNotAcceptedException {
+            if (value != null && !value.isEmpty() && !CldrUtility.INHERITANCE_MARKER.equals(value)) {
+                value = processor.processInput(xpath, value, null);
                 if (value.isEmpty()) {
                     throw new VoteNotAcceptedException(ErrorCode.E_BAD_VALUE, "Normalization results in empty string.");
                 }
@@ -1144,16 +1932,33 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
             return value;
         }
 
-        private DisplayAndInputProcessor getProcessor() {
-            if (daip == null) {
-                daip = new DisplayAndInputProcessor(locale, true);
-                if (VoteResolver.DROP_HARD_INHERITANCE) {
-                    daip.enableInheritanceReplacement(getFile(true));
+        private void checkValueLength(String xpath, String value) throws VoteNotAcceptedException {
+            if (value != null) {
+                final int valueLimit = SurveyMain.localeSizer.getSize(locale, xpath);
+                final int valueLength = value.length();
+                if (valueLength > valueLimit) {
+                    NumberFormat nf = NumberFormat.getInstance();
+                    throw new VoteNotAcceptedException(ErrorCode.E_BAD_VALUE, "Length " + nf.format(valueLength) + " exceeds limit of "
+                        + nf.format(valueLimit) + " - please file a bug if you need a longer value.");
                 }
             }
+        }
+
+        private synchronized DisplayAndInputProcessor getProcessor() {
+            if (daip == null) {
+                daip = newProcessor();
+            }
             return daip;
         }
 
+        private DisplayAndInputProcessor newProcessor() {
+            final DisplayAndInputProcessor p = new DisplayAndInputProcessor(locale, true);
+            if (VoteResolver.DROP_HARD_INHERITANCE) {
+                p.enableInheritanceReplacement(getFile(true));
+            }
+            return p;
+        }
+
         /**
          * Save the vote to the database
          *
@@ -1229,6 +2034,86 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
             }
         }
 
+        /**
+         * Save votes to the database in one transaction, as saveVoteToDb does for each.
+         * The batched SQL is MySQL only; otherwise each vote is saved with saveVoteToDb.
+         *
+         * @param user
+         * @param votes the votes, with no overrides
+         * @param voteType
+         */
+        private void saveVotesToDb(final User user, final List<BulkVote> votes, VoteType voteType) {
+            if (!DBUtils.db_Mysql) {
+                for (BulkVote v : votes) {
+                    saveVoteToDb(user, v.xpath, v.value, null, v.xpathId, voteType);
+                }
+                return;
+            }
+            ElapsedTimer et = !SurveyLog.DEBUG ? null : new ElapsedTimer("{0} Recording " + votes.size()
+                + " votes for " + locale + " : " + user);
+            final boolean isTC = UserRegistry.userIsTC(user);
+            final Set<Integer> flagged = isTC ? getFlags(locale, votes) : Collections.emptySet(); // outside of the txn
+            final Set<BulkVote> clearedFlags = new HashSet<>();
+            Connection conn = null;
+            PreparedStatement saveOld = null; // save off old values
+            PreparedStatement ps = null;
+            try {
+                conn = DBUtils.getInstance().getDBConnection();
+                saveOld = conn.prepareStatement("insert IGNORE into " + DBUtils.Table.VOTE_VALUE_ALT
+                    + " select " + DBUtils.Table.VOTE_VALUE + ".locale,"
+                    + DBUtils.Table.VOTE_VALUE + ".xpath," + DBUtils.Table.VOTE_VALUE + ".value "
+                    + " from " + DBUtils.Table.VOTE_VALUE
+                    + " where locale=? and xpath=? and submitter=? and value is not null");
+                ps = conn.prepareStatement("INSERT INTO " + DBUtils.Table.VOTE_VALUE
+                    + " (locale,xpath,submitter,value,last_mod," + VOTE_OVERRIDE + "," + VOTE_TYPE + ") values (?,?,?,?,CURRENT_TIMESTAMP,?,?) "
+                    + "ON DUPLICATE KEY UPDATE value=VALUES(value),last_mod=CURRENT_TIMESTAMP," + VOTE_OVERRIDE + "=VALUES(" + VOTE_OVERRIDE + "),"
+                    + VOTE_TYPE + "=VALUES(" + VOTE_TYPE + ")");
+                int pending = 0;
+                for (BulkVote v : votes) {
+                    saveOld.setString(1, locale.getBaseName());
+                    saveOld.setInt(2, v.xpathId);
+                    saveOld.setInt(3, user.id);
+                    saveOld.addBatch();
+
+                    ps.setString(1, locale.getBaseName());
+                    ps.setInt(2, v.xpathId);
+                    ps.setInt(3, user.id);
+                    DBUtils.setStringUTF8(ps, 4, v.value);
+                    DBUtils.setInteger(ps, 5, null);
+                    DBUtils.setInteger(ps, 6, voteType.id());
+                    ps.addBatch();
+
+                    if (flagged.contains(v.xpathId)) {
+                        clearFlag(conn, locale, v.xpathId);
+                        clearedFlags.add(v);
+                    }
+                    if (++pending == BULK_CHUNK_SIZE) {
+                        saveOld.executeBatch(); // old values first, as for a single vote
+                        ps.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    saveOld.executeBatch();
+                    ps.executeBatch();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                SurveyLog.logException(logger, e, "Exception in saveVotesToDb");
+                SurveyMain.busted("Could not vote for values in locale " + locale, e);
+                throw new InternalError("Could not load locale " + locale + " : " + DBUtils.unchainSqlException(e));
+            } finally {
+                DBUtils.close(saveOld, ps, conn);
+            }
+            SurveyLog.debug(et);
+
+            if (sm.fora != null && (voteType != VoteType.AUTO_IMPORT && voteType != VoteType.MANUAL_IMPORT)) {
+                for (BulkVote v : votes) {
+                    sm.fora.doForumAfterVote(locale, user, v.xpath, v.xpathId, v.value, clearedFlags.contains(v));
+                }
+            }
+        }
+
         /**
          * Handle a Permanent Vote.
          *
@@ -1299,7 +2184,7 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
             return pathsForFile;
         }
 
-        private Set<String> pathsForFile;
+        private volatile Set<String> pathsForFile;
 
         BitSet votesSometimeThisRelease = null;
 
@@ -1559,6 +2444,79 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
         return get(locale);
     }
 
+    /**
+     * Get a read-only, point-in-time view of the votes for a locale, for page rendering.
+     * Obtaining and reading the snapshot never waits for voting.
+     *
+     * @param locale
+     * @return the snapshot, stamped with the locale stamp it reflects
+     */
+    public BallotBoxSnapshot<User> ballotBoxSnapshotForLocale(CLDRLocale locale) {
+        return get(locale).getSnapshot();
+    }
+
+    /**
+     * Listener for votes. Unlike XMLSource.Listener, this is called for every vote,
+     * whether or not it changed the winning value, since a vote can change the vote status
+     * for an organization without changing the winner.
+     */
+    public interface VoteListener {
+        /**
+         * Called on the voting thread, while the path is locked, after the vote has been applied.
+         * Must be cheap; do any real work later.
+         *
+         * @param locale
+         * @param xpath
+         */
+        void voteApplied(CLDRLocale locale, String xpath);
+    }
+
+    private final List<VoteListener> voteListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Changes to locale data (after votes) are delivered to the XMLSource listeners (such as TestCache,
+     * resolving sources, and locale completion) through this bus, rather than on the voting thread.
+     */
+    private final LocaleChangeBus changeBus = new LocaleChangeBus(r -> SurveyThreadManager.getExecutorService().execute(r));
+
+    /**
+     * Get the bus on which changes to locale data are published, to subscribe to them
+     */
+    public LocaleChangeBus getChangeBus() {
+        return changeBus;
+    }
+
+    /**
+     * Deliver the changes waiting for a locale (and, if resolved, its parents), so that data read next
+     * reflects every vote already applied. A CLDRFile held from before a vote may be stale until its changes
+     * are delivered.
+     *
+     * @param locale
+     * @param resolved
+     */
+    private void flushChanges(CLDRLocale locale, boolean resolved) {
+        for (CLDRLocale l = locale; l != null; l = resolved ? l.getParent() : null) {
+            changeBus.flush(l);
+        }
+    }
+
+    public void addVoteListener(VoteListener l) {
+        voteListeners.add(l);
+    }
+
+    /**
+     * Get the locale stamp as of the last vote that changed a path on the given page
+     * (or as of when the locale's votes were loaded, if later).
+     * A page rendered at or after this stamp is still current.
+     *
+     * @param locale
+     * @param pageId
+     * @return the stamp value
+     */
+    public long getPageChangeStamp(CLDRLocale locale, PathHeader.PageId pageId) {
+        return get(locale).getPageChangeStamp(pageId);
+    }
+
     /**
      * Per locale map
      */
@@ -1574,12 +2532,7 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
      * @return
      */
     public MutableStamp mintLocaleStamp(CLDRLocale locale) {
-        MutableStamp s = localeStamps.get(locale);
-        if (s == null) {
-            s = MutableStamp.getInstance();
-            localeStamps.put(locale, s);
-        }
-        return s;
+        return localeStamps.computeIfAbsent(locale, l -> MutableStamp.getInstance());
     }
 
     /**
@@ -1622,11 +2575,29 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
         return pld;
     }
 
+    /**
+     * Fetch a locale from the per locale data, if it is loaded.
+     *
+     * @param locale
+     * @return the data, or null
+     */
+    private synchronized PerLocaleData peek(CLDRLocale locale) {
+        PerLocaleData pld = rLocales.getIfPresent(locale);
+        if (pld == null) {
+            Reference<PerLocaleData> ref = locales.get(locale);
+            if (ref != null) {
+                pld = ref.get();
+            }
+        }
+        return pld;
+    }
+
     private PerLocaleData get(String locale) {
         return get(CLDRLocale.getInstance(locale));
     }
 
     public TestCache.TestResultBundle getTestResult(CLDRLocale loc, CheckCLDR.Options options) {
+        flushChanges(loc, true);
         return get(loc).getTestResultData(options);
     }
 
@@ -1700,6 +2671,7 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
      */
     @Override
     protected CLDRFile handleMake(String localeID, boolean resolved, DraftStatus madeWithMinimalDraftStatus) {
+        flushChanges(CLDRLocale.getInstance(localeID), resolved);
         return get(localeID).getFile(resolved);
     }
 
@@ -1714,6 +2686,7 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
     public XMLSource makeSource(String localeID, boolean resolved) {
         if (localeID == null)
             return null; // ?!
+        flushChanges(CLDRLocale.getInstance(localeID), resolved);
         return get(localeID).makeSource(resolved);
     }
 
@@ -1730,7 +2703,27 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
      * @return the vetted CLDRFile with more paths resolved
      */
     public CLDRFile makeVettedFile(CLDRLocale loc) {
-        PerLocaleData pld = get(loc.getBaseName());
+        return vettedFileOf(get(loc.getBaseName()));
+    }
+
+    /**
+     * Make a vetted CLDRFile as makeVettedFile does, but without loading the locale into this factory.
+     * If the locale is already loaded, its data is used; otherwise the data is read just for this file,
+     * and can be collected along with it. The same goes for the parents, which are needed for bailey values.
+     * Used when writing vxml for many locales.
+     *
+     * @param loc the CLDRLocale
+     * @return the vetted CLDRFile with more paths resolved
+     */
+    public CLDRFile makeVettedFileTransient(CLDRLocale loc) {
+        PerLocaleData pld = peek(loc);
+        if (pld == null) {
+            pld = new PerLocaleData(loc, true);
+        }
+        return vettedFileOf(pld);
+    }
+
+    private CLDRFile vettedFileOf(PerLocaleData pld) {
         XMLSource xmlSource = pld.makeVettedSource();
         CLDRFile cldrFile = new CLDRFile(xmlSource);
         cldrFile.setSupplementalDirectory(getSupplementalDirectory());
@@ -1738,24 +2731,19 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
     }
 
     /**
-     * Prepare statement. Args: locale Result: xpath,submitter,value
+     * Prepare statement. Args: locale Result: xpath,submitter,value,override,last_mod,vote_type
      *
      * @param conn
      * @return
      * @throws SQLException
      *
-     * Called only by loadVoteValues.
+     * Called only by loadVoteValues. Votes for invalid paths are deleted afterwards in a batch,
+     * so this result set need not be updateable.
      */
-    private PreparedStatement openQueryByLocaleRW(Connection conn) throws SQLException {
+    private PreparedStatement openQueryByLocale(Connection conn) throws SQLException {
         setupDB();
-        /*
-         * locale must be included in the SELECT list as well as the WHERE clause,
-         * to prevent SQL exception in the special case where deleteRow is called on
-         * the result set for votes for invalid (e.g., obsolete) paths. The query
-         * "must select all primary keys from that table".
-         */
         return DBUtils
-            .prepareForwardUpdateable(conn, "SELECT xpath,submitter,value,locale," + VOTE_OVERRIDE + ",last_mod, "
+            .prepareForwardReadOnly(conn, "SELECT xpath,submitter,value," + VOTE_OVERRIDE + ",last_mod, "
                 + VOTE_TYPE + " FROM " + DBUtils.Table.VOTE_VALUE
                 + " WHERE locale = ?");
     }
@@ -1763,7 +2751,7 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
     private PreparedStatement openPermVoteQuery(Connection conn) throws SQLException {
         setupDB();
         return DBUtils
-            .prepareForwardUpdateable(conn, "SELECT xpath,value,last_mod FROM " + DBUtils.Table.LOCKED_XPATHS
+            .prepareForwardReadOnly(conn, "SELECT xpath,value,last_mod FROM " + DBUtils.Table.LOCKED_XPATHS
                 + " WHERE locale = ?");
     }
 
@@ -1973,6 +2961,28 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
         }
     }
 
+    /**
+     * Which of these votes' paths are flagged?
+     *
+     * @param locale
+     * @param votes
+     * @return the xpath ids of the flagged paths
+     */
+    private Set<Integer> getFlags(CLDRLocale locale, Collection<PerLocaleData.BulkVote> votes) {
+        final Set<Integer> flagged = new HashSet<>();
+        synchronized (STFactory.class) {
+            final Set<Pair<CLDRLocale, Integer>> m = loadFlag();
+            if (!m.isEmpty()) {
+                for (PerLocaleData.BulkVote v : votes) {
+                    if (m.contains(new Pair<>(locale, v.xpathId))) {
+                        flagged.add(v.xpathId);
+                    }
+                }
+            }
+        }
+        return flagged;
+    }
+
     public boolean haveFlags() {
         synchronized (STFactory.class) {
             return !(loadFlag().isEmpty());
@@ -44,9 +44,12 @@ public class STUsersChoice implements UsersChoice<Organization> {
         return ballotBox.getUserVoteType(sm.reg.getInfo(userId), path);
     }
 
-    private LruMap<CLDRLocale, BallotBox<UserRegistry.User>> ballotBoxes = new LruMap<>(8);
+    /**
+     * Guarded by this; an LruMap changes on get, and VettingViewer calls from several threads
+     */
+    private final LruMap<CLDRLocale, BallotBox<UserRegistry.User>> ballotBoxes = new LruMap<>(8);
 
-    private BallotBox<UserRegistry.User> getBox(SurveyMain sm, CLDRLocale loc) {
+    private synchronized BallotBox<UserRegistry.User> getBox(SurveyMain sm, CLDRLocale loc) {
         BallotBox<User> box = ballotBoxes.get(loc);
         if (box == null) {
             box = sm.getSTFactory().ballotBoxForLocale(loc);
@@ -16,7 +16,17 @@ public class Stamp implements Comparable<Stamp> {
         return new Stamp(nextStampTime());
     }
 
-    protected long stamp;
+    /**
+     * Get an unchanging Stamp with the given value, such as the current value of a MutableStamp
+     *
+     * @param stamp
+     * @return
+     */
+    public static Stamp forValue(long stamp) {
+        return new Stamp(stamp);
+    }
+
+    protected volatile long stamp;
 
     protected Stamp(long stamp) {
         this.stamp = stamp;
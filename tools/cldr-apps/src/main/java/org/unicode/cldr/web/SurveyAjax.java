@@ -2,6 +2,7 @@ package org.unicode.cldr.web;
 
 import static org.unicode.cldr.web.XPathTable.getStringIDString;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.Writer;
@@ -15,6 +16,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -1197,8 +1199,21 @@ public class SurveyAjax extends HttpServlet {
         }
     }
 
+    /**
+     * Size of the buffer between the JSON and the response. The response goes out as the buffer fills,
+     * so a large response is never held as one String, and starts to arrive before it is complete.
+     */
+    private static final int SEND_BUFFER_SIZE = 8192;
+
     private static void send(SurveyJSONWrapper r, PrintWriter out) {
-        out.print(r.toString());
+        final BufferedWriter w = new BufferedWriter(out, SEND_BUFFER_SIZE);
+        try {
+            r.write(w);
+            w.flush();
+        } catch (JSONException | IOException e) {
+            // part of the response may already be sent, so it is too late for sendError
+            SurveyLog.logException(logger, e, "Writing JSON response");
+        }
     }
 
     /**
@@ -1860,7 +1875,10 @@ public class SurveyAjax extends HttpServlet {
             + "and " + oldVotesTable + ".submitter=" + newVotesTable + ".submitter)";
         Map<String, Object>[] rows = DBUtils.queryToArrayAssoc(sqlStr, user.id);
 
-        int confirmations = 0;
+        // Group the votes by locale, so that each locale's votes are applied together
+        final Map<CLDRLocale, Map<String, String>> votesByLocale = new LinkedHashMap<>();
+        final Map<CLDRLocale, XMLSource> diskSources = new HashMap<>();
+        final Map<CLDRLocale, DisplayAndInputProcessor> processors = new HashMap<>();
         for (Map<String, Object> m : rows) {
             Object obj = m.get("value");
             String value = (obj == null) ? null : obj.toString();
@@ -1874,12 +1892,13 @@ public class SurveyAjax extends HttpServlet {
             if (locale == null) {
                 continue;
             }
-            XMLSource diskData = sm.getDiskFactory().makeSource(locale.getBaseName()).freeze(); // trunk
-            DisplayAndInputProcessor daip = new DisplayAndInputProcessor(locale, false);
-            if (value != null) {
-                value = daip.processInput(xpathString, value, null);
-            }
+            XMLSource diskData = diskSources.computeIfAbsent(locale,
+                l -> sm.getDiskFactory().makeSource(l.getBaseName()).freeze()); // trunk
+            DisplayAndInputProcessor daip = processors.computeIfAbsent(locale, l -> new DisplayAndInputProcessor(l, false));
             try {
+                if (value != null) {
+                    value = daip.processInput(xpathString, value, null);
+                }
                 String curValue = diskData.getValueAtDPath(xpathString);
                 if (curValue == null) {
                     continue;
@@ -1893,18 +1912,23 @@ public class SurveyAjax extends HttpServlet {
                      * "for a later version".
                      */
                     if (box.getVoteValue(user, xpathString) == null) {
-                        box.voteForValueWithType(user, xpathString, value, VoteType.AUTO_IMPORT);
-                        confirmations++;
+                        votesByLocale.computeIfAbsent(locale, l -> new LinkedHashMap<>()).put(xpathString, value);
                     }
                 }
-            } catch (InvalidXPathException ix) {
-                /* Silently catch InvalidXPathException, otherwise logs grow too fast with useless warnings */
-            } catch (VoteNotAcceptedException ix) {
-                /* Silently catch VoteNotAcceptedException, otherwise logs grow too fast with useless warnings */
             } catch (IllegalByDtdException ix) {
                 /* Silently catch IllegalByDtdException, otherwise logs grow too fast with useless warnings */
             }
         }
+        int confirmations = 0;
+        for (Map.Entry<CLDRLocale, Map<String, String>> e : votesByLocale.entrySet()) {
+            final Map<String, String> votes = e.getValue();
+            /*
+             * Votes that are not accepted (InvalidXPathException, VoteNotAcceptedException) are silently
+             * skipped, otherwise logs grow too fast with useless warnings
+             */
+            final int rejected = fac.ballotBoxForLocale(e.getKey()).voteForValues(user, votes, VoteType.AUTO_IMPORT).size();
+            confirmations += votes.size() - rejected;
+        }
         return confirmations;
     }
 
@@ -2123,6 +2147,21 @@ public class SurveyAjax extends HttpServlet {
         r.put("old_user_id", old_user_id);
     }
 
+    /**
+     * One row of the table shown by handleBulkSubmit
+     */
+    private static final class BulkRow {
+        String base;
+        int baseXpathId;
+        PathHeader ph;
+        String valOrig;
+        String val0;
+        String style;
+        String result;
+        String resultIcon = "okay";
+        final List<CheckCLDR.CheckStatus> checkResult = new ArrayList<>();
+    }
+
     /**
      * Handle bulk submission upload when user chooses "Upload XML" from the gear menu.
      *
@@ -2268,8 +2307,8 @@ public class SurveyAjax extends HttpServlet {
         DisplayAndInputProcessor processor = new DisplayAndInputProcessor(loc,false);
         BallotBox<UserRegistry.User> ballotBox = stf.ballotBoxForLocale(loc);
 
-        int r = 0;
-        final List<CheckCLDR.CheckStatus> checkResult = new ArrayList<>();
+        final List<BulkRow> rows = new ArrayList<>(all.size());
+        final Map<String, String> votes = new LinkedHashMap<>();
         TestCache.TestResultBundle cc = stf.getTestResult(loc, DataPage.getOptions(cs, loc));
         UserRegistry.User u = theirU;
         CheckCLDR.Phase cPhase = CLDRConfig.getInstance().getPhase();
@@ -2278,44 +2317,44 @@ public class SurveyAjax extends HttpServlet {
         CLDRFile cldrUnresolved = cf.getUnresolved();
         try {
             for (String x : all) {
+                final BulkRow row = new BulkRow();
+                rows.add(row);
                 String full = cf.getFullXPath(x);
                 XPathParts xppMine = XPathParts.getFrozenInstance(full).cloneAsThawed(); // not frozen, for xPathPartsToBase
-                String valOrig = cf.getStringValue(x);
+                row.valOrig = cf.getStringValue(x);
                 Exception[] exc = new Exception[1];
-                final String val0 = processor.processInput(x, valOrig, exc);
+                final String val0 = processor.processInput(x, row.valOrig, exc);
+                row.val0 = val0;
                 XPathTable.xPathPartsToBase(xppMine);
                 xppMine.removeAttribute(-1, LDMLConstants.DRAFT);
                 String base = xppMine.toString();
-                int base_xpath_id = sm.xpt.getByXpath(base);
+                row.base = base;
+                row.baseXpathId = sm.xpt.getByXpath(base);
 
                 String valb = baseFile.getWinningValue(base);
 
-                String style;
                 if (valb == null) {
-                    style = "background-color: #bfb;";
+                    row.style = "background-color: #bfb;";
                 } else if (!val0.equals(valb)) {
-                    style = "font-weight: bold; background-color: #bfb;";
+                    row.style = "font-weight: bold; background-color: #bfb;";
                 } else {
-                    style = "opacity: 0.9;";
+                    row.style = "opacity: 0.9;";
                 }
 
                 XPathParts xpp = XPathParts.getFrozenInstance(base).cloneAsThawed(); // not frozen, for removeAttribute
                 xpp.removeAttribute(-1, LDMLConstants.ALT);
 
-                String result;
-                String resultStyle = "";
-                String resultIcon = "okay";
-
                 PathHeader ph = stf.getPathHeader(base);
+                row.ph = ph;
 
                 if (!allValidPaths.contains(base)) {
-                    result = "Item is not a valid XPath.";
-                    resultIcon = "stop";
+                    row.result = "Item is not a valid XPath.";
+                    row.resultIcon = "stop";
                 } else if (ph == null) {
-                    result = "Item is not a SurveyTool-visible LDML entity.";
-                    resultIcon = "stop";
+                    row.result = "Item is not a SurveyTool-visible LDML entity.";
+                    row.resultIcon = "stop";
                 } else {
-                    checkResult.clear();
+                    final List<CheckCLDR.CheckStatus> checkResult = row.checkResult;
                     cc.check(base, checkResult, val0);
 
                     DataPage page = DataPage.make(null, cs, loc, base, null);
@@ -2328,9 +2367,9 @@ public class SurveyAjax extends HttpServlet {
                         showRowAction = CheckCLDR.StatusAction.FORBID_CODE;
                     }
                     if (showRowAction.isForbidden()) {
-                        result = "Item may not be modified. ("
+                        row.result = "Item may not be modified. ("
                                 + showRowAction + ")";
-                        resultIcon = "stop";
+                        row.resultIcon = "stop";
                     } else {
                         CandidateInfo ci;
                         if (val0 == null) {
@@ -2362,52 +2401,67 @@ public class SurveyAjax extends HttpServlet {
                                         ph, cs.user);
 
                         if (status != CheckCLDR.StatusAction.ALLOW) {
-                            result = "Item will be skipped. (" + status
+                            row.result = "Item will be skipped. (" + status
                                     + ")";
-                            resultIcon = "stop";
+                            row.resultIcon = "stop";
                         } else {
                             if (doFinal) {
-                                ballotBox.voteForValueWithType(u, base, val0, VoteType.BULK_UPLOAD);
-                                result = "Vote accepted";
-                                resultIcon = "vote";
+                                votes.put(base, val0); // submitted together, below
+                                row.result = "Vote accepted";
+                                row.resultIcon = "vote";
                             } else {
-                                result = "Ready to submit.";
+                                row.result = "Ready to submit.";
                             }
                             updCnt++;
                         }
                     }
                 }
-
-                out.write("<tr class='r" + (r) % 2 + "'>\n");
-                out.write("<th title='" + base + " #" + base_xpath_id + "'"
-                    + " style='text-align: left; font-size: smaller;'>"
-                    + "<a target='" + WebContext.TARGET_ZOOMED + "'"
-                    + "href='" + contextPath
-                    + "/survey?_="+ loc + "&strid="
-                    + sm.xpt.getStringIDString(base_xpath_id) + ident + "'>"
-                    + ph.toString() + "</a>");
-                out.write("<br>");
-                out.write("<tt>" +  base + "</tt></th>\n");
-
-                out.write("<td style='" + style + "'>" + val0 + "\n");
-                if (!val0.equals(valOrig)) {
-                    out.write("<div class='graybox' title='original text'>" + valOrig + "</div>\n");
-                }
-                out.write("</td>\n");
-                out.write("<td title='vote:' style='" + resultStyle + "'>\n");
-                if (!checkResult.isEmpty()) {
-                    out.write("<script>\n");
-                    String testsToHtml = "testsToHtml";
-                    out.write("document.write(" + testsToHtml + "(" + SurveyJSONWrapper.wrap(checkResult) + ")");
-                    out.write("</script>\n");
-                }
-                out.write(WebContext.iconHtml(request, resultIcon, result) + result);
-                out.write("</tr>\n");
             }
         } finally {
             progress.close();
         }
 
+        if (!votes.isEmpty()) {
+            final Map<String, SurveyException> rejected = ballotBox.voteForValues(u, votes, VoteType.BULK_UPLOAD);
+            for (BulkRow row : rows) {
+                final SurveyException e = rejected.get(row.base);
+                if (e != null && votes.containsKey(row.base)) {
+                    row.result = "Vote not accepted. (" + e.getMessage() + ")";
+                    row.resultIcon = "stop";
+                    updCnt--;
+                }
+            }
+        }
+
+        int r = 0;
+        for (BulkRow row : rows) {
+            out.write("<tr class='r" + (r) % 2 + "'>\n");
+            out.write("<th title='" + row.base + " #" + row.baseXpathId + "'"
+                + " style='text-align: left; font-size: smaller;'>"
+                + "<a target='" + WebContext.TARGET_ZOOMED + "'"
+                + "href='" + contextPath
+                + "/survey?_="+ loc + "&strid="
+                + sm.xpt.getStringIDString(row.baseXpathId) + ident + "'>"
+                + row.ph.toString() + "</a>");
+            out.write("<br>");
+            out.write("<tt>" +  row.base + "</tt></th>\n");
+
+            out.write("<td style='" + row.style + "'>" + row.val0 + "\n");
+            if (!row.val0.equals(row.valOrig)) {
+                out.write("<div class='graybox' title='original text'>" + row.valOrig + "</div>\n");
+            }
+            out.write("</td>\n");
+            out.write("<td title='vote:' style=''>\n");
+            if (!row.checkResult.isEmpty()) {
+                out.write("<script>\n");
+                String testsToHtml = "testsToHtml";
+                out.write("document.write(" + testsToHtml + "(" + SurveyJSONWrapper.wrap(row.checkResult) + ")");
+                out.write("</script>\n");
+            }
+            out.write(WebContext.iconHtml(request, row.resultIcon, row.result) + row.result);
+            out.write("</tr>\n");
+        }
+
         out.write("</table>\n");
         out.write("<hr />\n");
         if (doFinal) {
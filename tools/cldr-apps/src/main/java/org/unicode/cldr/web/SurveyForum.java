@@ -556,6 +556,11 @@ public class SurveyForum {
             + "Forum" + "</a>";
     }
 
+    /**
+     * Index of the posts of each locale, so that post counts do not need a query
+     */
+    private static final ForumIndex forumIndex = new ForumIndex();
+
     /**
      * How many forum posts are there for the given locale and xpath?
      *
@@ -566,24 +571,18 @@ public class SurveyForum {
      * Called by STFactory.PerLocaleData.voteForValue and SurveyAjax.processRequest (WHAT_FORUM_COUNT)
      */
     public int postCountFor(CLDRLocale locale, int xpathId) {
-        Connection conn = null;
-        PreparedStatement ps = null;
-        String tableName = DBUtils.Table.FORUM_POSTS.toString();
-        try {
-            conn = DBUtils.getInstance().getAConnection();
-            if (conn == null) {
-                return 0;
-            }
-            ps = DBUtils.prepareForwardReadOnly(conn, "select count(*) from " + tableName + " where loc=? and xpath=?");
-            ps.setString(1, locale.getBaseName());
-            ps.setInt(2, xpathId);
-            return DBUtils.sqlCount(ps);
-        } catch (SQLException e) {
-            SurveyLog.logException(logger, e, "postCountFor for " + tableName + " " + locale + ":" + xpathId);
-            return 0;
-        } finally {
-            DBUtils.close(ps, conn);
-        }
+        return forumIndex.get(locale, xpathId).getPostCount();
+    }
+
+    /**
+     * Get the forum status (post count, open threads, last post time) of a path, from the in-memory index
+     *
+     * @param locale
+     * @param xpathId
+     * @return the status
+     */
+    public ForumIndex.PathStats getPathStats(CLDRLocale locale, int xpathId) {
+        return forumIndex.get(locale, xpathId);
     }
 
     /**
@@ -1051,7 +1050,8 @@ public class SurveyForum {
             try {
                 conn = sm.dbUtils.getDBConnection();
                 if (type == PostType.CLOSE) {
-                    closeThreads(conn, new ArrayList<>(List.of(root)));
+                    // the index is updated for this locale only, after the commit
+                    closeThreadsInDb(conn, new ArrayList<>(List.of(root)));
                 }
                 pAdd = prepare_pAdd(conn);
                 pAdd.setInt(1, user.id);
@@ -1081,6 +1081,11 @@ public class SurveyForum {
                 if (n != 1) {
                     throw new RuntimeException("Couldn't post to " + localeStr + " - update failed.");
                 }
+                if (type == PostType.CLOSE) {
+                    forumIndex.invalidate(locale);
+                } else {
+                    forumIndex.postAdded(locale, postInfo.getPath(), postId, open);
+                }
             } finally {
                 DBUtils.close(pAdd, conn);
             }
@@ -1102,6 +1107,8 @@ public class SurveyForum {
      *
      * This feature could probably be made a hundred times faster by using an sql stored procedure!
      *
+     * Drops the whole forum index, so conn should be in auto-commit mode, as it is for SurveyBulkClosePosts.
+     *
      * @param conn the db connection
      * @param rootIdList the list of post ids (typically about 4 thousand)
      * @return the number of posts closed
@@ -1109,6 +1116,21 @@ public class SurveyForum {
      * @throws SQLException
      */
     public static synchronized int closeThreads(Connection conn, ArrayList<Integer> rootIdList) throws SQLException {
+        final int postCount = closeThreadsInDb(conn, rootIdList);
+        forumIndex.invalidateAll();
+        return postCount;
+    }
+
+    /**
+     * Close all posts in the threads with the given root ids, without updating the forum index
+     *
+     * @param conn the db connection
+     * @param rootIdList the list of post ids
+     * @return the number of posts closed
+     *
+     * @throws SQLException
+     */
+    private static synchronized int closeThreadsInDb(Connection conn, ArrayList<Integer> rootIdList) throws SQLException {
         PreparedStatement pCloseThread = null;
         int postCount = 0, rootCount = 0;
         System.out.println("closeThreads starting: rootIdList.size = " + rootIdList.size());
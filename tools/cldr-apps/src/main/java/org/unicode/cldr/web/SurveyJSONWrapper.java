@@ -1,6 +1,7 @@
 package org.unicode.cldr.web;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -46,6 +47,16 @@ public final class SurveyJSONWrapper {
         return j.toString();
     }
 
+    /**
+     * Write the JSON text to a writer, without first making it into a String
+     *
+     * @param w
+     * @throws JSONException
+     */
+    public void write(Writer w) throws JSONException {
+        j.write(w);
+    }
+
     /**
      * Converts this CheckStatus to JSON.
      * @param status
@@ -1,18 +1,73 @@
 package org.unicode.cldr.web;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
 import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.MetricType;
 import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.Timer;
 import org.eclipse.microprofile.metrics.annotation.Gauge;
 import org.eclipse.microprofile.metrics.annotation.Metric;
+import org.unicode.cldr.test.TestCache;
+import org.unicode.cldr.web.api.LocaleCompletion;
+import org.unicode.cldr.web.api.RowResponseCache;
 
 /**
  * Metrics availble from the /metrics endpoint
  */
 @ApplicationScoped
 public class SurveyMetrics {
+    /**
+     * Latencies on hot paths, recorded by code outside of CDI through {@link #record(Timing, long)}
+     */
+    public enum Timing {
+        VOTE("voteTime", "Time to submit a vote, including waiting for locks"),
+        ROW_PAGE("rowPageTime", "Time to build the rows of a page that was not cached"),
+        LOCALE_LOAD("localeLoadTime", "Time to load the votes of a locale"),
+        DB_CONNECTION_WAIT("dbConnectionWaitTime", "Time to get a database connection"),
+        LOCALE_LOCK_WAIT("localeLockWaitTime", "Time waiting for a locale or path lock");
+
+        private final Metadata metadata;
+
+        Timing(String name, String description) {
+            metadata = Metadata.builder()
+                .withName(name)
+                .withDescription(description)
+                .withType(MetricType.TIMER)
+                .withUnit(MetricUnits.NANOSECONDS)
+                .build();
+        }
+    }
+
+    /**
+     * Record a latency, if metrics are available (they are not in unit tests)
+     *
+     * @param timing what was timed
+     * @param startNanos the start time, from System.nanoTime()
+     */
+    public static void record(Timing timing, long startNanos) {
+        final long nanos = System.nanoTime() - startNanos;
+        if (CookieSession.sm != null && CookieSession.sm.surveyMetrics != null) {
+            CookieSession.sm.surveyMetrics.update(timing, nanos);
+        }
+    }
+
+    @Inject
+    MetricRegistry registry;
+
+    private final Map<Timing, Timer> timers = new ConcurrentHashMap<>();
+
+    public void update(Timing timing, long nanos) {
+        timers.computeIfAbsent(timing, t -> registry.timer(t.metadata)).update(nanos, TimeUnit.NANOSECONDS);
+    }
+
     @Inject
     @Metric(
         name = "exceptions",
@@ -34,6 +89,118 @@ public class SurveyMetrics {
         return CookieSession.getUserCount();
     }
 
+    @Gauge(
+        name = "sessions",
+        description = "Number of sessions, including observers",
+        unit = MetricUnits.NONE)
+    public int getSessions() {
+        return CookieSession.getSessionCount();
+    }
+
+    @Gauge(
+        name = "sessionLookupTime",
+        description = "Mean time to look up a session",
+        unit = MetricUnits.MICROSECONDS)
+    public double getSessionLookupTime() {
+        return CookieSession.getMeanLookupMicros();
+    }
+
+    @Gauge(
+        name = "testBundleHitRatio",
+        description = "Fraction of test result bundle lookups that were cached",
+        unit = MetricUnits.NONE)
+    public double getTestBundleHitRatio() {
+        return TestCache.getBundleHitRatio();
+    }
+
+    @Gauge(
+        name = "testCheckHitRatio",
+        description = "Fraction of path checks whose result was cached",
+        unit = MetricUnits.NONE)
+    public double getTestCheckHitRatio() {
+        return TestCache.getCheckHitRatio();
+    }
+
+    @Gauge(
+        name = "exampleGeneratorHitRatio",
+        description = "Fraction of ExampleGenerator lookups that were cached",
+        unit = MetricUnits.NONE)
+    public double getExampleGeneratorHitRatio() {
+        return TestCache.getExampleGeneratorHitRatio();
+    }
+
+    @Gauge(
+        name = "exampleGenerators",
+        description = "Number of cached ExampleGenerators",
+        unit = MetricUnits.NONE)
+    public long getExampleGenerators() {
+        return TestCache.getExampleGeneratorCount();
+    }
+
+    @Gauge(
+        name = "localeCompletionHitRatio",
+        description = "Fraction of locale completion lookups that were cached",
+        unit = MetricUnits.NONE)
+    public double getLocaleCompletionHitRatio() {
+        return LocaleCompletion.getCacheStats().hitRate();
+    }
+
+    @Gauge(
+        name = "localeCompletions",
+        description = "Number of locales with cached completion",
+        unit = MetricUnits.NONE)
+    public long getLocaleCompletions() {
+        return LocaleCompletion.getCacheSize();
+    }
+
+    @Gauge(
+        name = "rowPageHitRatio",
+        description = "Fraction of page row lookups that found current cached rows",
+        unit = MetricUnits.NONE)
+    public double getRowPageHitRatio() {
+        return RowResponseCache.getHitRatio();
+    }
+
+    @Gauge(
+        name = "rowPages",
+        description = "Number of pages with cached rows",
+        unit = MetricUnits.NONE)
+    public long getRowPages() {
+        return RowResponseCache.size();
+    }
+
+    @Gauge(
+        name = "dbConnectionsInUse",
+        description = "Number of database connections handed out and not yet returned",
+        unit = MetricUnits.NONE)
+    public int getDbConnectionsInUse() {
+        final ConnectionPool pool = dbPool();
+        return (pool == null) ? 0 : pool.getInUse();
+    }
+
+    @Gauge(
+        name = "dbConnectionLeaks",
+        description = "Number of database connections held longer than the leak threshold",
+        unit = MetricUnits.NONE)
+    public long getDbConnectionLeaks() {
+        final ConnectionPool pool = dbPool();
+        return (pool == null) ? 0 : pool.getLeaks();
+    }
+
+    @Gauge(
+        name = "dbStatementHitRatio",
+        description = "Fraction of prepared statements reused from the connection pool's cache",
+        unit = MetricUnits.NONE)
+    public double getDbStatementHitRatio() {
+        final ConnectionPool pool = dbPool();
+        return (pool == null) ? 0.0 : pool.getStatementHitRatio();
+    }
+
+    private static ConnectionPool dbPool() {
+        final DBUtils db = DBUtils.getInstance();
+        return (db == null) ? null : db.getPool();
+    }
+
     public SurveyMetrics() {
 
     }
@@ -0,0 +1,160 @@
+package org.unicode.cldr.web;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.unicode.cldr.util.CLDRLocale;
+import org.unicode.cldr.util.LocaleSet;
+import org.unicode.cldr.util.Organization;
+import org.unicode.cldr.util.SpecialLocales;
+import org.unicode.cldr.util.VoteResolver;
+
+/**
+ * An immutable snapshot of the level, organization, vote count, and voting locales of every user,
+ * so that checking permissions (for each vote while loading a locale, for each row of a page)
+ * takes no locks.
+ *
+ * UserRegistry makes a new snapshot, with the next version number, whenever users change, and swaps it in.
+ * A reader holding an older snapshot sees a consistent, if slightly out of date, view.
+ * The voting locales of each user are a bit set over the known locales; other locales
+ * are checked the slow way, as UserRegistry.User does.
+ */
+public final class UserPermissions {
+    /**
+     * The permissions of one user
+     */
+    public final class Entry {
+        private final int id;
+        private final int userlevel;
+        private final String locales;
+        private final VoteResolver.Level level;
+        private final Organization organization;
+        private final int votes;
+        private final LocaleSet authorizedLocales;
+        private final boolean allLocales;
+        private final BitSet localeBits;
+
+        private Entry(UserRegistry.User u, LocaleSet authorizedLocales) {
+            this.id = u.id;
+            this.userlevel = u.userlevel;
+            this.locales = u.locales;
+            this.level = u.getLevel();
+            this.organization = u.getOrganization();
+            this.votes = level.getVotes(organization);
+            this.authorizedLocales = authorizedLocales;
+            this.allLocales = (userlevel <= UserRegistry.TC) || authorizedLocales.isAllLocales();
+            this.localeBits = new BitSet(localeIndex.size());
+            if (allLocales) {
+                return;
+            }
+            if (userlevel == UserRegistry.MANAGER) {
+                final LocaleSet covered = organization.getCoveredLocales();
+                for (Map.Entry<CLDRLocale, Integer> e : localeIndex.entrySet()) {
+                    if (covered.containsLocaleOrParent(e.getKey())) {
+                        localeBits.set(e.getValue());
+                    }
+                }
+            } else {
+                for (CLDRLocale l : authorizedLocales.getSet()) {
+                    final Integer i = localeIndex.get(l);
+                    if (i != null) {
+                        localeBits.set(i);
+                    }
+                }
+            }
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public VoteResolver.Level getLevel() {
+            return level;
+        }
+
+        public Organization getOrganization() {
+            return organization;
+        }
+
+        /**
+         * @return the number of votes that this user's vote counts for
+         */
+        public int getVotes() {
+            return votes;
+        }
+
+        /**
+         * Does this user have permission to vote in the given locale?
+         * Same as UserRegistry.User.hasLocalePermission
+         *
+         * @param locale
+         * @return true or false
+         */
+        public boolean hasLocalePermission(CLDRLocale locale) {
+            final Integer i = localeIndex.get(locale);
+            if (i == null) {
+                return UserRegistry.hasLocalePermission(userlevel, organization, authorizedLocales, locale);
+            }
+            return allLocales || scratchLocales.get(i) || localeBits.get(i);
+        }
+
+        /**
+         * @param u
+         * @return true if this entry was made from the same level and locales as the given user
+         */
+        boolean matches(UserRegistry.User u) {
+            return u.id == id && u.userlevel == userlevel
+                && (u.locales == null ? locales == null : u.locales.equals(locales));
+        }
+    }
+
+    private final long version;
+    private final Map<CLDRLocale, Integer> localeIndex;
+    private final BitSet scratchLocales;
+    private final Entry[] byId;
+
+    /**
+     * @param version the version of this snapshot
+     * @param users the users, with the authorized locales of each
+     * @param knownLocales the locales to precompute permissions for
+     */
+    UserPermissions(long version, Map<UserRegistry.User, LocaleSet> users, Collection<CLDRLocale> knownLocales) {
+        this.version = version;
+        this.localeIndex = new HashMap<>(knownLocales.size() * 2);
+        this.scratchLocales = new BitSet(knownLocales.size());
+        for (CLDRLocale l : knownLocales) {
+            final int i = localeIndex.size();
+            localeIndex.put(l, i);
+            if (SpecialLocales.getType(l) == SpecialLocales.Type.scratch) {
+                scratchLocales.set(i);
+            }
+        }
+        int maxId = -1;
+        for (UserRegistry.User u : users.keySet()) {
+            maxId = Math.max(maxId, u.id);
+        }
+        this.byId = new Entry[maxId + 1];
+        for (Map.Entry<UserRegistry.User, LocaleSet> e : users.entrySet()) {
+            if (e.getKey().id >= 0) {
+                byId[e.getKey().id] = new Entry(e.getKey(), e.getValue());
+            }
+        }
+    }
+
+    /**
+     * @return the version of this snapshot; a later snapshot has a higher version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @param id the user id
+     * @return the permissions of the user, or null if there is no such user
+     */
+    public Entry get(int id) {
+        return (id < 0 || id >= byId.length) ? null : byId[id];
+    }
+}
@@ -12,6 +12,8 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import javax.json.bind.annotation.JsonbProperty;
 
@@ -353,7 +355,7 @@ public class UserRegistry {
         }
 
         @Schema( name = "userLevelName", description = "VoteResolver.Level user level" )
-        public synchronized VoteResolver.Level getLevel() {
+        public VoteResolver.Level getLevel() {
             // CAUTION: this name, like "VETTER", is uppercase when serialized for json response, while
             // in some other http responses, lowercase levels like "vetter" are used -- we should be consistent
             return VoteResolver.Level.fromSTLevel(this.userlevel);
@@ -369,14 +371,15 @@ public class UserRegistry {
             return getPassword();
         }
 
-        public synchronized Organization getOrganization() {
-            if (vr_org == null) {
-                vr_org = UserRegistry.computeVROrganization(this.org);
+        public Organization getOrganization() {
+            Organization o = vr_org;
+            if (o == null) {
+                vr_org = o = UserRegistry.computeVROrganization(this.org);
             }
-            return vr_org;
+            return o;
         }
 
-        private Organization vr_org = null;
+        private volatile Organization vr_org = null;
 
         private String voterOrg = null;
 
@@ -522,23 +525,7 @@ public class UserRegistry {
          * @return true or false
          */
         private boolean hasLocalePermission(CLDRLocale locale) {
-            /*
-             * the 'und' locale and sublocales can always be modified
-             */
-            if (SpecialLocales.getType(locale) == SpecialLocales.Type.scratch) {
-                return true;
-            }
-            /*
-             * Per CLDR-14597, TC and ADMIN can vote in any locale;
-             * MANAGER can vote if their organization covers the locale
-             */
-            if (userlevel <= UserRegistry.TC) {
-                return true;
-            }
-            if (userlevel == UserRegistry.MANAGER) {
-                return getOrganization().getCoveredLocales().containsLocaleOrParent(locale);
-            }
-            return getAuthorizedLocaleSet().contains(locale);
+            return UserRegistry.hasLocalePermission(userlevel, getOrganization(), getAuthorizedLocaleSet(), locale);
         }
 
         /**
@@ -560,9 +547,42 @@ public class UserRegistry {
         ctx.println("<a href='" + ctx.base() + "?email=" + email + "&amp;pw=" + password + "'>Login for " + email + "</a>");
     }
 
-    private static final Map<String, Organization> orgToVrOrg = new HashMap<>();
+    /**
+     * Does a user with the given level, organization, and authorized locales have permission to modify the given locale?
+     *
+     * @param userlevel
+     * @param organization
+     * @param authorizedLocales the user's locales, as from User.getAuthorizedLocaleSet
+     * @param locale the CLDRLocale
+     * @return true or false
+     */
+    static boolean hasLocalePermission(int userlevel, Organization organization, LocaleSet authorizedLocales, CLDRLocale locale) {
+        /*
+         * the 'und' locale and sublocales can always be modified
+         */
+        if (SpecialLocales.getType(locale) == SpecialLocales.Type.scratch) {
+            return true;
+        }
+        /*
+         * Per CLDR-14597, TC and ADMIN can vote in any locale;
+         * MANAGER can vote if their organization covers the locale
+         */
+        if (userlevel <= UserRegistry.TC) {
+            return true;
+        }
+        if (userlevel == UserRegistry.MANAGER) {
+            return organization.getCoveredLocales().containsLocaleOrParent(locale);
+        }
+        return authorizedLocales.contains(locale);
+    }
+
+    private static final Map<String, Organization> orgToVrOrg = new ConcurrentHashMap<>();
 
-    public static synchronized Organization computeVROrganization(String org) {
+    public static Organization computeVROrganization(String org) {
+        final Organization known = (org == null) ? null : orgToVrOrg.get(org);
+        if (known != null) {
+            return known;
+        }
         Organization o = Organization.fromString(org);
         if (o == null) {
             o = orgToVrOrg.get(org);
@@ -706,8 +726,11 @@ public class UserRegistry {
      * quick lookup.
      */
     public final static int CHUNKSIZE = 128;
-    int arraySize = 0;
-    UserRegistry.User[] infoArray = new UserRegistry.User[arraySize];
+    /**
+     * Read without locking; replaced (when it grows) and filled while holding infoLock
+     */
+    private volatile AtomicReferenceArray<UserRegistry.User> infoArray = new AtomicReferenceArray<>(0);
+    private final Object infoLock = new Object();
 
     /**
      * Mark user as modified
@@ -715,11 +738,10 @@ public class UserRegistry {
      * @param id
      */
     public void userModified(int id) {
-        synchronized (infoArray) {
-            try {
-                infoArray[id] = null;
-            } catch (IndexOutOfBoundsException ioob) {
-                // nothing to do
+        synchronized (infoLock) {
+            final AtomicReferenceArray<UserRegistry.User> a = infoArray;
+            if (id >= 0 && id < a.length()) {
+                a.set(id, null);
             }
         }
         userModified(); // do this if any users are modified
@@ -730,9 +752,9 @@ public class UserRegistry {
      *
      * @see #getVoterToInfo()
      */
-    void userModified() {
+    synchronized void userModified() {
         voterInfo = null;
-        getVoterToInfo(); // reset maps
+        loadVoterToInfo(); // reset maps
     }
 
     /**
@@ -745,13 +767,15 @@ public class UserRegistry {
         if (id < 0) {
             return null;
         }
-        synchronized (infoArray) {
-            User ret;
-            try {
-                ret = infoArray[id];
-            } catch (IndexOutOfBoundsException ioob) {
-                ret = null; // not found
+        final AtomicReferenceArray<UserRegistry.User> cached = infoArray;
+        if (id < cached.length()) {
+            final User u = cached.get(id);
+            if (u != null) {
+                return u; // fast path, without locking
             }
+        }
+        synchronized (infoLock) {
+            User ret = (id < infoArray.length()) ? infoArray.get(id) : null;
 
             if (ret == null) { // synchronized(conn) {
                 ResultSet rs = null;
@@ -779,12 +803,15 @@ public class UserRegistry {
                     u.password = rs.getString(8);
                     ret = u; // let it finish..
 
-                    if (id >= arraySize) {
+                    if (id >= infoArray.length()) {
                         int newchunk = (((id + 1) / CHUNKSIZE) + 1) * CHUNKSIZE;
-                        infoArray = new UserRegistry.User[newchunk];
-                        arraySize = newchunk;
+                        final AtomicReferenceArray<UserRegistry.User> grown = new AtomicReferenceArray<>(newchunk);
+                        for (int i = 0; i < infoArray.length(); i++) {
+                            grown.set(i, infoArray.get(i));
+                        }
+                        infoArray = grown;
                     }
-                    infoArray[id] = u;
+                    infoArray.set(id, u);
                     // good so far..
                     if (rs.next()) {
                         // dup returned!
@@ -1787,7 +1814,20 @@ public class UserRegistry {
             // locale or a pure alias.
         }
 
-        return u.hasLocalePermission(locale) ? null : ModifyDenial.DENY_LOCALE_LIST;
+        return hasLocalePermission(u, locale) ? null : ModifyDenial.DENY_LOCALE_LIST;
+    }
+
+    /**
+     * Check the user's locale permission in the current permission snapshot, without locking,
+     * falling back to the User if it is not in the snapshot or has changed since
+     */
+    private static boolean hasLocalePermission(User u, CLDRLocale locale) {
+        final UserPermissions p = (sm == null || sm.reg == null) ? null : sm.reg.permissions;
+        final UserPermissions.Entry e = (p == null) ? null : p.get(u.id);
+        if (e != null && e.matches(u)) {
+            return e.hasLocalePermission(locale);
+        }
+        return u.hasLocalePermission(locale);
     }
 
     public static ModifyDenial userCanModifyLocaleWhy(User u, CLDRLocale locale) {
@@ -1825,20 +1865,44 @@ public class UserRegistry {
         return getVoterToInfo().get(userid);
     }
 
-    public synchronized VoterInfoList getVoterInfoList() {
+    public VoterInfoList getVoterInfoList() {
         getVoterToInfo(); // to make sure voterInfoList is up to date
         return voterInfoList;
     }
 
+    /**
+     * Get the current snapshot of user permissions. It is replaced, not changed, when users change.
+     *
+     * @return the snapshot
+     * @see #userModified()
+     */
+    public UserPermissions getPermissions() {
+        UserPermissions p = permissions;
+        if (p == null) {
+            getVoterToInfo();
+            p = permissions;
+        }
+        return p;
+    }
+
     // Interface for VoteResolver interface
     /**
      * Fetch the user map in VoterInfo format.
      *
      * @see #userModified()
      */
-    public synchronized Map<Integer, VoterInfo> getVoterToInfo() {
+    public Map<Integer, VoterInfo> getVoterToInfo() {
+        final Map<Integer, VoterInfo> current = voterInfo;
+        if (current != null) {
+            return current; // fast path, without locking
+        }
+        return loadVoterToInfo();
+    }
+
+    private synchronized Map<Integer, VoterInfo> loadVoterToInfo() {
         if (voterInfo == null) {
             Map<Integer, VoterInfo> map = new TreeMap<>();
+            Map<User, LocaleSet> users = new HashMap<>();
 
             ResultSet rs = null;
             PreparedStatement ps;
@@ -1869,8 +1933,9 @@ public class UserRegistry {
                     VoterInfo v = u.createVoterInfo();
 
                     map.put(u.id, v);
+                    users.put(u, u.getAuthorizedLocaleSet());
                 }
-                voterInfo = map;
+                permissions = new UserPermissions(++permissionsVersion, users, SurveyMain.getLocalesSet());
                 VoterInfoList vil = voterInfoList;
                 if(voterInfoList == null) {
                     vil = new VoterInfoList();
@@ -1879,6 +1944,7 @@ public class UserRegistry {
                 if (voterInfoList != vil) {
                     voterInfoList = vil;
                 }
+                voterInfo = map; // last, since getVoterToInfo reads it without locking
             } catch (SQLException se) {
                 logger.log(java.util.logging.Level.SEVERE,
                     "UserRegistry: SQL error trying to  update VoterInfo - " + DBUtils.unchainSqlException(se), se);
@@ -1896,8 +1962,14 @@ public class UserRegistry {
     /**
      * VoterInfo map
      */
-    private Map<Integer, VoterInfo> voterInfo = null;
-    VoterInfoList voterInfoList = null;
+    private volatile Map<Integer, VoterInfo> voterInfo = null;
+    volatile VoterInfoList voterInfoList = null;
+
+    /**
+     * Permissions of all users; replaced along with voterInfo
+     */
+    private volatile UserPermissions permissions = null;
+    private long permissionsVersion = 0;
 
     /**
      * The list of organizations
@@ -150,11 +150,20 @@ public class VettingViewerQueue {
 
             @Override
             public void nudge() {
+                nudge(1);
+            }
+
+            /**
+             * Synchronized, since the summary may be computed by several threads;
+             * VettingViewer calls this once per chunk of paths, not once per path.
+             */
+            @Override
+            public synchronized void nudge(int count) {
                 if (!myThread.isAlive()) {
                     throw new RuntimeException("Not Running- stop now.");
                 }
                 long now = System.currentTimeMillis();
-                n++;
+                n += count;
                 /*
                  * TODO: explain/encapsulate these magic numbers! 5? 10? 1200? 500?
                  * Reference: https://unicode-org.atlassian.net/browse/CLDR-15369
@@ -186,10 +195,15 @@ public class VettingViewerQueue {
                 // if the calling thread is gone, stop processing
                 return stop || !(thread.isAlive());
             }
+
+            @Override
+            public void localeDone(String localeId, CharSequence row) {
+                partialRows.append(row);
+            }
         }
 
         private Thread myThread = null;
-        private boolean stop = false;
+        private volatile boolean stop = false; // read by summary worker threads
 
         private final QueueEntry entry;
         private final SurveyMain sm;
@@ -207,6 +221,11 @@ public class VettingViewerQueue {
 
         private final StringBuffer aBuffer = new StringBuffer();
 
+        /**
+         * Rows for the locales done so far, in the order they were completed, for showing while processing
+         */
+        private final StringBuffer partialRows = new StringBuffer();
+
         /**
          * Construct a Runnable object specifically for Priority Items Summary
          *
@@ -421,6 +440,10 @@ public class VettingViewerQueue {
                     waiting = "";
                 }
                 setPercent(t.getPercent());
+                final String rows = t.partialRows.toString();
+                if (!rows.isEmpty()) {
+                    results.output.append("<table class='tvs-table'>\n").append(rows).append("</table>");
+                }
                 return SUM_MESSAGE_PROGRESS + ": " + waiting + t.status;
             } else {
                 setPercent(0);
@@ -0,0 +1,482 @@
+package org.unicode.cldr.web;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+import org.unicode.cldr.util.CLDRLocale;
+import org.unicode.cldr.util.LocaleIDParser;
+import org.unicode.cldr.util.LocaleNames;
+
+import com.ibm.icu.dev.util.ElapsedTimer;
+
+/**
+ * Background generation of vxml (and pxml) for all locales, as started by
+ * OutputFileManager.outputAndVerifyAllFiles or the /api/vxml REST API.
+ *
+ * Only one job runs at a time. Locales are written by a small, fixed number of threads, so that only
+ * that many locales' vetted data are in memory at once; the data for a locale is not kept after its files
+ * are written. A job may be cancelled, in which case locales already started are finished.
+ *
+ * With changedOnly, a locale is copied from the last successful output, instead of being generated
+ * again, if nothing its vote resolution reads has changed since: the votes and locked paths of the
+ * locale and of each of its parents (compared by count and checksum, so deleted votes count too),
+ * and the users' levels, organizations and locales. The last output is recorded in a manifest next
+ * to the vetdata directories. Run a full output after the baseline data changes. If the fingerprints
+ * cannot be read (they need MySQL), every locale is generated and the manifest is left as it was.
+ */
+public final class VxmlGenerator {
+    private static final Logger logger = SurveyLog.forClass(VxmlGenerator.class);
+
+    private static final String MANIFEST_NAME = "vxml-manifest.properties";
+    private static final String MANIFEST_DIR = "dir";
+
+    /**
+     * Number of locales written at once. Each needs its locale's data and vetted file in memory.
+     */
+    private static final int THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
+    private static final OutputFileManager.Kind[] KINDS = { OutputFileManager.Kind.vxml, OutputFileManager.Kind.pxml };
+
+    public enum Status {
+        RUNNING, SUCCEEDED, FAILED, CANCELLED
+    }
+
+    /**
+     * What a job is to do
+     */
+    public static final class Options {
+        public boolean outputFiles = false;
+        public boolean removeEmpty = false;
+        public boolean verifyConsistent = false;
+        /**
+         * Only generate the locales whose votes (or parents' votes, or users) changed since the last output
+         */
+        public boolean changedOnly = false;
+
+        public boolean isValid() {
+            return outputFiles || removeEmpty || verifyConsistent;
+        }
+    }
+
+    /**
+     * One run of the generator
+     */
+    public static final class Job {
+        private final String id = SurveySnapshot.newId();
+        private final Options options;
+        private final long startTime = System.currentTimeMillis();
+        private volatile long endTime = 0;
+        private volatile Status status = Status.RUNNING;
+        private volatile String message = "Starting";
+        private volatile File dir = null;
+        private volatile int total = 0;
+        private final AtomicInteger written = new AtomicInteger();
+        private final AtomicInteger copied = new AtomicInteger();
+        private final Set<CLDRLocale> inProgress = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean cancelled = new AtomicBoolean(false);
+        private volatile String output = "";
+
+        private Job(Options options) {
+            this.options = options;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        /**
+         * @return the output directory, or null if it was not created yet
+         */
+        public File getDir() {
+            return dir;
+        }
+
+        /**
+         * @return the number of locales to output
+         */
+        public int getTotal() {
+            return total;
+        }
+
+        /**
+         * @return the number of locales generated
+         */
+        public int getWritten() {
+            return written.get();
+        }
+
+        /**
+         * @return the number of locales copied from the last output, since their votes did not change
+         */
+        public int getCopied() {
+            return copied.get();
+        }
+
+        public int getPercent() {
+            return (total == 0) ? 0 : (100 * (written.get() + copied.get()) / total);
+        }
+
+        /**
+         * @return the locales being written now
+         */
+        public List<String> getInProgress() {
+            final List<String> l = new ArrayList<>();
+            inProgress.forEach(loc -> l.add(loc.getBaseName()));
+            Collections.sort(l);
+            return l;
+        }
+
+        public long getStartTime() {
+            return startTime;
+        }
+
+        /**
+         * @return the end time, or 0 if still running
+         */
+        public long getEndTime() {
+            return endTime;
+        }
+
+        /**
+         * @return the HTML output of removing empty files and verifying
+         */
+        public String getOutput() {
+            return output;
+        }
+
+        public boolean isDone() {
+            return status != Status.RUNNING;
+        }
+
+        /**
+         * Ask the job to stop. Locales already being written are finished.
+         */
+        public void cancel() {
+            cancelled.set(true);
+        }
+
+        public String getStatusHtml() {
+            return "Job " + id + ": " + status + " - " + message + " (" + getPercent() + "%, " + written + " written, "
+                + copied + " copied of " + total + ")" + ((dir == null) ? "" : " in " + dir);
+        }
+
+        private void finish(Status s, String msg) {
+            message = msg;
+            endTime = System.currentTimeMillis();
+            status = s;
+            logger.info("vxml job " + id + " " + s + ": " + msg);
+        }
+    }
+
+    private static final AtomicReference<Job> current = new AtomicReference<>();
+
+    private VxmlGenerator() {
+    }
+
+    /**
+     * Start a job, unless one is running
+     *
+     * @param options
+     * @return the new job, or the running one
+     */
+    public static Job start(Options options) {
+        if (!options.isValid()) {
+            throw new IllegalArgumentException("Nothing to do");
+        }
+        final Job job = new Job(options);
+        while (true) {
+            final Job old = current.get();
+            if (old != null && !old.isDone()) {
+                return old;
+            }
+            if (current.compareAndSet(old, job)) {
+                break;
+            }
+        }
+        SurveyThreadManager.getExecutorService().submit(() -> run(job));
+        return job;
+    }
+
+    /**
+     * @return the running job, or the last one, or null if none was run
+     */
+    public static Job getCurrent() {
+        return current.get();
+    }
+
+    private static void run(Job job) {
+        final ElapsedTimer et = new ElapsedTimer("vxml job " + job.id);
+        try {
+            final SurveyMain sm = CookieSession.sm;
+            final OutputFileManager ofm = sm.getOutputFileManager();
+            final File vetdataDir = OutputFileManager.createNewManualVetdataDir(sm.getVetdir());
+            if (vetdataDir == null) {
+                job.finish(Status.FAILED, "Directory creation for vetting data failed.");
+                return;
+            }
+            job.dir = vetdataDir;
+            if (job.options.outputFiles && !outputAll(job, ofm, manifestFile(sm.getVetdir()))) {
+                return;
+            }
+            if (!ofm.copyDtd(vetdataDir)) {
+                job.finish(Status.FAILED, "Copying DTD failed.");
+                return;
+            }
+            final File vxmlDir = new File(vetdataDir, OutputFileManager.Kind.vxml.name());
+            final StringWriter out = new StringWriter();
+            if (job.options.removeEmpty) {
+                job.message = "Removing empty files";
+                ofm.removeEmptyFiles(out, vxmlDir);
+            }
+            if (job.options.verifyConsistent) {
+                job.message = "Verifying";
+                ofm.verifyAllFiles(out, vxmlDir);
+            }
+            job.output = out.toString();
+            job.finish(Status.SUCCEEDED, "Finished in " + et);
+        } catch (Throwable t) {
+            SurveyLog.logException(logger, t, "vxml job " + job.id);
+            job.finish(Status.FAILED, t.toString());
+        }
+    }
+
+    /**
+     * Write the files of all locales, in parallel
+     *
+     * @return true if all were written; false if the job was cancelled or failed
+     */
+    private static boolean outputAll(Job job, OutputFileManager ofm, File manifestFile) throws Exception {
+        final Set<CLDRLocale> locales = new TreeSet<>(SurveyMain.getLocalesSet());
+        /*
+         * skip "en" and "root", since they should never be changed by the Survey Tool
+         */
+        locales.remove(CLDRLocale.getInstance("en"));
+        locales.remove(CLDRLocale.getInstance(LocaleNames.ROOT));
+        job.total = locales.size();
+
+        final Map<String, String> fingerprints = tryGetFingerprints(locales);
+        final Properties previous = (fingerprints != null && job.options.changedOnly) ? readManifest(manifestFile) : new Properties();
+        final String previousDirName = previous.getProperty(MANIFEST_DIR);
+        final File previousDir = (previousDirName != null) ? new File(previousDirName) : null;
+
+        job.message = "Writing " + locales.size() + " locales";
+        final ExecutorService pool = Executors.newFixedThreadPool(THREADS, SurveyThreadManager.getThreadFactory());
+        final List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (CLDRLocale loc : locales) {
+                final boolean unchanged = previousDir != null
+                    && fingerprints.get(loc.getBaseName()).equals(previous.getProperty(loc.getBaseName()));
+                futures.add(pool.submit(() -> {
+                    if (job.cancelled.get()) {
+                        return null;
+                    }
+                    if (unchanged && copyPrevious(previousDir, job.dir, loc)) {
+                        job.copied.incrementAndGet();
+                        return null;
+                    }
+                    job.inProgress.add(loc);
+                    try {
+                        for (OutputFileManager.Kind kind : KINDS) {
+                            if (ofm.writeManualOutputFile(job.dir, loc, kind) == null) {
+                                throw new IOException("File creation failed: " + loc + " " + kind);
+                            }
+                        }
+                    } finally {
+                        job.inProgress.remove(loc);
+                    }
+                    job.written.incrementAndGet();
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get(); // rethrows the first failure
+            }
+        } catch (Exception e) {
+            job.cancel();
+            SurveyLog.logException(logger, e, "vxml job " + job.id);
+            job.finish(Status.FAILED, "File output failed: " + e);
+            return false;
+        } finally {
+            pool.shutdownNow();
+        }
+        if (job.cancelled.get()) {
+            job.finish(Status.CANCELLED, "Cancelled");
+            return false;
+        }
+        if (fingerprints == null) {
+            return true; // nothing to record for a later changedOnly job
+        }
+
+        final Properties manifest = new Properties();
+        manifest.setProperty(MANIFEST_DIR, job.dir.getAbsolutePath());
+        for (CLDRLocale loc : locales) {
+            manifest.setProperty(loc.getBaseName(), fingerprints.get(loc.getBaseName()));
+        }
+        writeManifest(manifestFile, manifest);
+        return true;
+    }
+
+    /**
+     * Copy a locale's files from a previous output
+     *
+     * @return true if copied; false if the previous output does not have the locale
+     */
+    private static boolean copyPrevious(File fromDir, File toDir, CLDRLocale loc) throws IOException {
+        final String fileName = loc.getBaseName() + ".xml";
+        final List<String> found = new ArrayList<>();
+        for (OutputFileManager.Kind kind : KINDS) {
+            boolean haveMain = false;
+            for (String c : new String[] { "common", "seed" }) {
+                for (String d : new String[] { "main", "annotations" }) {
+                    final String rel = kind.name() + "/" + c + "/" + d + "/" + fileName;
+                    if (new File(fromDir, rel).exists()) {
+                        found.add(rel);
+                        haveMain |= d.equals("main");
+                    }
+                }
+            }
+            if (!haveMain) {
+                return false;
+            }
+        }
+        for (String rel : found) {
+            final File to = new File(toDir, rel);
+            to.getParentFile().mkdirs();
+            Files.copy(new File(fromDir, rel).toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return true;
+    }
+
+    /**
+     * @return the manifest of the last output, which is kept beside the vetdata directories
+     */
+    private static File manifestFile(File vetdataDir) {
+        return new File(vetdataDir.getParentFile(), MANIFEST_NAME);
+    }
+
+    private static Properties readManifest(File f) throws IOException {
+        final Properties p = new Properties();
+        if (f.exists()) {
+            try (InputStream in = new FileInputStream(f)) {
+                p.load(in);
+            }
+        }
+        return p;
+    }
+
+    private static void writeManifest(File f, Properties p) throws IOException {
+        final File tmp = new File(f.getPath() + ".tmp");
+        try (OutputStream out = new FileOutputStream(tmp)) {
+            p.store(out, "Last vxml output: locale=fingerprint of its votes, its parents' votes, and the users");
+        }
+        Files.move(tmp.toPath(), f.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Get the fingerprints, if they can be read
+     *
+     * @return the fingerprint of each locale, or null if not available, in which case all locales are generated
+     */
+    private static Map<String, String> tryGetFingerprints(Set<CLDRLocale> locales) {
+        if (!DBUtils.db_Mysql) {
+            return null; // the checksum queries are MySQL only
+        }
+        try {
+            return getFingerprints(locales);
+        } catch (SQLException e) {
+            SurveyLog.logException(logger, e, "Reading vxml fingerprints; generating all locales");
+            return null;
+        }
+    }
+
+    /**
+     * Get, for each locale, a fingerprint of what its vote resolution depends on: the users, and the votes
+     * and locked paths of the locale and of each of its parents. Rows are compared by count and by the sum
+     * of their checksums, so that changed and deleted rows change the fingerprint, as well as new ones.
+     *
+     * @param locales the locales to write
+     * @return the fingerprint of each locale, by base name
+     */
+    private static Map<String, String> getFingerprints(Set<CLDRLocale> locales) throws SQLException {
+        final Map<String, String> votes = new HashMap<>();
+        final Map<String, String> locked = new HashMap<>();
+        final String users;
+        Connection conn = null;
+        try {
+            conn = DBUtils.getInstance().getAConnection();
+            readChecksums(conn, "SELECT locale, COUNT(*), SUM(CRC32(CONCAT_WS('|', xpath, submitter, IFNULL(value,''), last_mod, IFNULL("
+                + STFactory.VOTE_OVERRIDE + ",''), IFNULL(" + STFactory.VOTE_TYPE + ",'')))) FROM " + DBUtils.Table.VOTE_VALUE
+                + " GROUP BY locale", votes);
+            readChecksums(conn, "SELECT locale, COUNT(*), SUM(CRC32(CONCAT_WS('|', xpath, IFNULL(value,''), last_mod))) FROM "
+                + DBUtils.Table.LOCKED_XPATHS + " GROUP BY locale", locked);
+            final Map<String, String> u = new HashMap<>();
+            readChecksums(conn, "SELECT 'users', COUNT(*), SUM(CRC32(CONCAT_WS('|', id, userlevel, IFNULL(org,''), IFNULL(locales,''))))"
+                + " FROM " + UserRegistry.CLDR_USERS, u);
+            users = u.getOrDefault("users", "0");
+        } finally {
+            DBUtils.close(conn);
+        }
+        final Map<String, String> m = new HashMap<>();
+        for (CLDRLocale loc : locales) {
+            final StringBuilder sb = new StringBuilder("users:").append(users);
+            for (String l = loc.getBaseName(); l != null; l = LocaleIDParser.getParent(l, false)) {
+                sb.append(';').append(l).append(':').append(votes.getOrDefault(l, "0"))
+                    .append(',').append(locked.getOrDefault(l, "0"));
+            }
+            m.put(loc.getBaseName(), sb.toString());
+        }
+        return m;
+    }
+
+    /**
+     * Run a query returning key, count, checksum; put "count/checksum" for each key into m
+     */
+    private static void readChecksums(Connection conn, String sql, Map<String, String> m) throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = DBUtils.prepareForwardReadOnly(conn, sql);
+            rs = ps.executeQuery();
+            while (rs.next()) {
+                m.put(rs.getString(1), rs.getLong(2) + "/" + rs.getLong(3));
+            }
+        } finally {
+            DBUtils.close(rs, ps);
+        }
+    }
+}
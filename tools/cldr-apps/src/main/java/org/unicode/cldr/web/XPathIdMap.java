@@ -0,0 +1,229 @@
+package org.unicode.cldr.web;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The in-memory part of XPathTable: an append-only map between xpath ids (xpids), xpaths, and StringIDs.
+ *
+ * Lookups do not lock, and do not box or allocate. Writers are serialized on this object.
+ * The xpid to xpath direction is a dense array indexed by xpid; the other two directions
+ * are open-addressed hash tables with primitive keys or values.
+ * A table is grown by building a new one and publishing it, so a reader always sees a consistent table,
+ * though it may miss an entry that is being added.
+ */
+public final class XPathIdMap {
+    private static final int INITIAL_CAPACITY = 4096;
+
+    /**
+     * xpid to xpath
+     */
+    private volatile AtomicReferenceArray<String> byId = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+
+    /**
+     * xpath to xpid
+     */
+    private volatile PathTable byPath = new PathTable(INITIAL_CAPACITY * 2);
+
+    /**
+     * StringID to xpath
+     */
+    private volatile StringIdTable byStringId = new StringIdTable(INITIAL_CAPACITY * 2);
+
+    private volatile int size = 0;
+
+    /**
+     * Spread the bits of a hash code, as HashMap does
+     */
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Open-addressed table from xpath to xpid. An entry is visible once its key is set,
+     * which happens after its value is written.
+     */
+    private static final class PathTable {
+        final AtomicReferenceArray<String> keys;
+        final int[] ids;
+        final int mask;
+        int used = 0;
+
+        PathTable(int capacity) {
+            keys = new AtomicReferenceArray<>(capacity);
+            ids = new int[capacity];
+            mask = capacity - 1;
+        }
+
+        int get(String xpath) {
+            for (int i = spread(xpath.hashCode()) & mask;; i = (i + 1) & mask) {
+                final String k = keys.get(i);
+                if (k == null) {
+                    return -1;
+                } else if (k.equals(xpath)) {
+                    return ids[i];
+                }
+            }
+        }
+
+        void put(String xpath, int id) {
+            int i = spread(xpath.hashCode()) & mask;
+            for (String k; (k = keys.get(i)) != null; i = (i + 1) & mask) {
+                if (k.equals(xpath)) {
+                    ids[i] = id;
+                    return;
+                }
+            }
+            ids[i] = id;
+            keys.set(i, xpath);
+            used++;
+        }
+
+        boolean isFull() {
+            return used * 2 > mask;
+        }
+
+        PathTable grow() {
+            final PathTable t = new PathTable((mask + 1) * 2);
+            for (int i = 0; i <= mask; i++) {
+                final String k = keys.get(i);
+                if (k != null) {
+                    t.put(k, ids[i]);
+                }
+            }
+            return t;
+        }
+    }
+
+    /**
+     * Open-addressed table from StringID to xpath. An entry is visible once its value is set,
+     * which happens after its key is written.
+     */
+    private static final class StringIdTable {
+        final long[] keys;
+        final AtomicReferenceArray<String> paths;
+        final int mask;
+        int used = 0;
+
+        StringIdTable(int capacity) {
+            keys = new long[capacity];
+            paths = new AtomicReferenceArray<>(capacity);
+            mask = capacity - 1;
+        }
+
+        String get(long sid) {
+            for (int i = spread(Long.hashCode(sid)) & mask;; i = (i + 1) & mask) {
+                final String p = paths.get(i);
+                if (p == null) {
+                    return null;
+                } else if (keys[i] == sid) {
+                    return p;
+                }
+            }
+        }
+
+        void put(long sid, String xpath) {
+            int i = spread(Long.hashCode(sid)) & mask;
+            for (; paths.get(i) != null; i = (i + 1) & mask) {
+                if (keys[i] == sid) {
+                    paths.set(i, xpath);
+                    return;
+                }
+            }
+            keys[i] = sid;
+            paths.set(i, xpath);
+            used++;
+        }
+
+        boolean isFull() {
+            return used * 2 > mask;
+        }
+
+        StringIdTable grow() {
+            final StringIdTable t = new StringIdTable((mask + 1) * 2);
+            for (int i = 0; i <= mask; i++) {
+                final String p = paths.get(i);
+                if (p != null) {
+                    t.put(keys[i], p);
+                }
+            }
+            return t;
+        }
+    }
+
+    /**
+     * @param id the xpid
+     * @return the xpath, or null if there is none
+     */
+    public String getById(int id) {
+        final AtomicReferenceArray<String> a = byId;
+        if (id < 0 || id >= a.length()) {
+            return null;
+        }
+        return a.get(id);
+    }
+
+    /**
+     * @param xpath
+     * @return the xpid, or -1 if there is none
+     */
+    public int getByXpath(String xpath) {
+        return byPath.get(xpath);
+    }
+
+    /**
+     * @param sid the StringID of the xpath
+     * @return the xpath, or null if there is none
+     */
+    public String getByStringId(long sid) {
+        return byStringId.get(sid);
+    }
+
+    /**
+     * Add a mapping
+     *
+     * @param id the xpid
+     * @param xpath
+     * @param sid the StringID of the xpath
+     */
+    public synchronized void put(int id, String xpath, long sid) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Bad xpath id " + id + " for " + xpath);
+        }
+        AtomicReferenceArray<String> a = byId;
+        if (id >= a.length()) {
+            final AtomicReferenceArray<String> b = new AtomicReferenceArray<>(Math.max(a.length() * 2, id + 1));
+            for (int i = 0; i < a.length(); i++) {
+                b.set(i, a.get(i));
+            }
+            byId = a = b;
+        }
+        if (a.get(id) == null) {
+            size++;
+        }
+        a.set(id, xpath);
+
+        PathTable p = byPath;
+        if (p.isFull()) {
+            byPath = p = p.grow();
+        }
+        p.put(xpath, id);
+
+        StringIdTable s = byStringId;
+        if (s.isFull()) {
+            byStringId = s = s.grow();
+        }
+        s.put(sid, xpath);
+    }
+
+    /**
+     * @return the number of xpids
+     */
+    public int size() {
+        return size;
+    }
+
+    public String stats() {
+        return "XPathIdMap size:" + size + ", ids:" + byId.length() + ", paths:" + (byPath.mask + 1)
+            + ", stringids:" + (byStringId.mask + 1);
+    }
+}
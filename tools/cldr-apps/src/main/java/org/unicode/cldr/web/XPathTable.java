@@ -16,7 +16,6 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Hashtable;
 import java.util.Map;
 import java.util.Set;
 import java.util.logging.Logger;
@@ -35,8 +34,9 @@ import com.ibm.icu.impl.Utility;
 
 /**
  * This class maps between full and partial xpaths, and the small integers (xpids) which
- * are actually stored in the database. It keeps an in-memory cache which is
- * populated as ids are requested.
+ * are actually stored in the database. It keeps an in-memory cache (see XPathIdMap) which is
+ * loaded with all of the xpaths in the database at startup, and added to as new xpaths are requested.
+ * Lookups in the cache do not lock.
  *
  *
  * Definitions:
@@ -54,7 +54,7 @@ public class XPathTable {
     private static final Logger logger = SurveyLog.forClass(XPathTable.class);
     public static final String CLDR_XPATHS = "cldr_xpaths";
 
-    private PrettyPath ppath = new PrettyPath();
+    private final ThreadLocal<PrettyPath> ppath = ThreadLocal.withInitial(PrettyPath::new);
 
     private static final boolean DEBUG = false;
 
@@ -81,13 +81,14 @@ public class XPathTable {
 
 
     private void loadXPaths(Connection conn) throws SQLException {
-        if (stringToId.size() != 0) { // Only load the entire stringToId map
+        if (ids.size() != 0) { // Only load the entire map
             // once.
             return;
         }
         ElapsedTimer et = new ElapsedTimer("XPathTable:  xpaths");
         int ixpaths = 0;
         PreparedStatement queryStmt = DBUtils.prepareForwardReadOnly(conn, "SELECT id,xpath FROM " + CLDR_XPATHS);
+        queryStmt.setFetchSize(4096);
         // First, try to query it back from the DB.
         ResultSet rs = queryStmt.executeQuery();
         while (rs.next()) {
@@ -139,8 +140,7 @@ public class XPathTable {
         }
     }
 
-    public Hashtable<String, Integer> stringToId = new Hashtable<>(4096); // public for statistics only
-    public Hashtable<Long, String> sidToString = new Hashtable<>(4096); // public for statistics only
+    private final XPathIdMap ids = new XPathIdMap();
 
     public String statistics() {
         return "DB: " + stat_dbAdd + "add/" + stat_dbFetch + "fetch/"
@@ -153,37 +153,26 @@ public class XPathTable {
     public XPathTable() {
     }
 
-    /**
-     * SpecialTable implementation
-     */
-    IntHash<String> xptHash = new IntHash<>();
-
-    String idToString_put(int id, String str) {
-        return xptHash.put(id, str);
-    }
-
-    String idToString_get(int id) {
-        return xptHash.get(id);
-    }
-
     String idStats() {
-        return xptHash.stats();
+        return ids.stats();
     }
 
-    /** END specialtable implementation */
-
     /**
      * Loads all xpath-id mappings from the database. If there are any xpaths in
      * the specified XMLSource which are not already in the database, they will
      * be created here.
      */
-    public synchronized void loadXPaths(XMLSource source) {
+    public void loadXPaths(XMLSource source) {
         // Get list of xpaths that aren't already loaded.
         Set<String> unloadedXpaths = new HashSet<>();
         for (String xpath : source) {
-            unloadedXpaths.add(xpath);
+            if (ids.getByXpath(xpath) == -1) {
+                unloadedXpaths.add(xpath);
+            }
+        }
+        if (unloadedXpaths.isEmpty()) {
+            return; // the usual case, since all xpaths are loaded at startup
         }
-        unloadedXpaths.removeAll(stringToId.keySet());
 
         Connection conn = null;
         PreparedStatement queryStmt = null;
@@ -218,6 +207,7 @@ public class XPathTable {
      * @throws SQLException
      */
     private synchronized void addXpaths(Set<String> xpaths, Connection conn) throws SQLException {
+        xpaths.removeIf(xpath -> ids.getByXpath(xpath) != -1); // double check
         if (xpaths.size() == 0)
             return;
 
@@ -254,9 +244,10 @@ public class XPathTable {
      * @return the xpath's id (as an Integer)
      */
     private synchronized Integer addXpath(String xpath, boolean addIfNotFound, Connection inConn) {
-        Integer nid = stringToId.get(xpath); // double check
-        if (nid != null) {
-            return nid;
+        Integer nid;
+        final int id0 = ids.getByXpath(xpath); // double check
+        if (id0 != -1) {
+            return id0;
         }
 
         Connection conn = null;
@@ -324,7 +315,7 @@ public class XPathTable {
         if (id == -1) {
             return null;
         }
-        String s = idToString_get(id);
+        String s = ids.getById(id);
         if (s != null) {
             return s;
         }
@@ -339,8 +330,7 @@ public class XPathTable {
      * @param xpath a string like //ldml/dates/timeZoneNames/zone[@type="America/Guadeloupe"]/short/daylight
      */
     public final void setById(int id, String xpath) {
-        stringToId.put(idToString_put(id, xpath), id);
-        sidToString.put(getStringID(xpath), xpath);
+        ids.put(id, xpath, getStringID(xpath));
     }
 
     /**
@@ -350,9 +340,9 @@ public class XPathTable {
      * @return the id, like 692804, for the specified path
      */
     public final int getByXpath(String xpath) {
-        Integer nid = stringToId.get(xpath);
-        if (nid != null) {
-            return nid.intValue();
+        final int nid = ids.getByXpath(xpath);
+        if (nid != -1) {
+            return nid;
         } else {
             return addXpath(xpath, true, null).intValue();
         }
@@ -365,9 +355,9 @@ public class XPathTable {
      * @return id, or -1 if not found
      */
     public final int peekByXpath(String xpath) {
-        Integer nid = stringToId.get(xpath);
-        if (nid != null) {
-            return nid.intValue();
+        final int nid = ids.getByXpath(xpath);
+        if (nid != -1) {
+            return nid;
         } else {
             return addXpath(xpath, false, null).intValue();
         }
@@ -381,9 +371,9 @@ public class XPathTable {
      * @return the id for the specified path
      */
     public final int getByXpath(String xpath, Connection conn) {
-        Integer nid = stringToId.get(xpath);
-        if (nid != null) {
-            return nid.intValue();
+        final int nid = ids.getByXpath(xpath);
+        if (nid != -1) {
+            return nid;
         } else {
             return addXpath(xpath, true, conn).intValue();
         }
@@ -396,9 +386,9 @@ public class XPathTable {
      * @return id, or -1 if not found
      */
     public final int peekByXpath(String xpath, Connection conn) {
-        Integer nid = stringToId.get(xpath);
-        if (nid != null) {
-            return nid.intValue();
+        final int nid = ids.getByXpath(xpath);
+        if (nid != -1) {
+            return nid;
         } else {
             return addXpath(xpath, false, conn).intValue();
         }
@@ -606,7 +596,7 @@ public class XPathTable {
         }
     }
 
-    // re export PrettyPath API but synchronized
+    // re export PrettyPath API, with a PrettyPath per thread
     /**
      * Gets sortable form of the pretty path, and caches the mapping for faster
      * later mapping.
@@ -621,9 +611,7 @@ public class XPathTable {
         if (path == null) {
             return null;
         }
-        synchronized (ppath) {
-            return ppath.getPrettyPath(path);
-        }
+        return ppath.get().getPrettyPath(path);
     }
 
     /**
@@ -648,7 +636,7 @@ public class XPathTable {
      * @return Number of xpaths in the table
      */
     public int count() {
-        return stringToId.size();
+        return ids.size();
     }
 
     /**
@@ -709,19 +697,13 @@ public class XPathTable {
 
     public String getByStringID(String id) {
         if (id == null) return null;
-        Long l = Long.parseLong(id, 16);
-        String s = sidToString.get(l);
+        final long l = Long.parseLong(id, 16);
+        String s = ids.getByStringId(l);
         if (s != null)
             return s;
-        // slow way
-        for (String x : stringToId.keySet()) {
-            if (getStringID(x) == l) {
-                sidToString.put(l, x);
-                return x;
-            }
-        }
+        // Every xpath in the table is mapped by its StringID in setById, so there is no slower way to look
         if (SurveyMain.isUnofficial()) {
-            logger.warning("xpt: Couldn't find stringid " + id + " - sid has " + sidToString.size());
+            logger.warning("xpt: Couldn't find stringid " + id + " - " + idStats());
         }
         // it may be
         return null;
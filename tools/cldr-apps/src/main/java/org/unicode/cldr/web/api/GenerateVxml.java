@@ -0,0 +1,213 @@
+package org.unicode.cldr.web.api;
+
+import java.util.List;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.unicode.cldr.web.CookieSession;
+import org.unicode.cldr.web.UserRegistry;
+import org.unicode.cldr.web.VxmlGenerator;
+
+@Path("/vxml")
+@Tag(name = "vxml", description = "APIs for generating vetted XML")
+public class GenerateVxml {
+
+    @Schema(description = "Options for generating vxml")
+    public static final class VxmlRequest {
+        @Schema(description = "Write the vxml and pxml files")
+        public boolean output = false;
+
+        @Schema(description = "Remove empty annotations files")
+        public boolean remove = false;
+
+        @Schema(description = "Verify the consistency of the files")
+        public boolean verify = false;
+
+        @Schema(description = "Only generate the locales whose votes (or parents' votes, or users) changed since the last output, copying the others")
+        public boolean changedOnly = false;
+    }
+
+    @Schema(description = "The progress of a vxml job")
+    public static final class VxmlResponse {
+        @Schema(description = "Job id")
+        public String id;
+
+        @Schema(description = "Job status")
+        public VxmlGenerator.Status status;
+
+        @Schema(description = "Current status message")
+        public String message;
+
+        @Schema(description = "Output directory")
+        public String dir;
+
+        @Schema(description = "Percentage of locales done")
+        public int percent;
+
+        @Schema(description = "Number of locales to output")
+        public int total;
+
+        @Schema(description = "Number of locales generated")
+        public int written;
+
+        @Schema(description = "Number of unchanged locales copied from the last output")
+        public int copied;
+
+        @Schema(description = "Locales being generated now")
+        public List<String> inProgress;
+
+        @Schema(description = "Start time, in millis")
+        public long startTime;
+
+        @Schema(description = "End time, in millis, or 0 if running")
+        public long endTime;
+
+        @Schema(description = "HTML output of removing empty files and verifying")
+        public String output;
+
+        VxmlResponse(VxmlGenerator.Job job) {
+            id = job.getId();
+            status = job.getStatus();
+            message = job.getMessage();
+            dir = (job.getDir() == null) ? null : job.getDir().getPath();
+            percent = job.getPercent();
+            total = job.getTotal();
+            written = job.getWritten();
+            copied = job.getCopied();
+            inProgress = job.getInProgress();
+            startTime = job.getStartTime();
+            endTime = job.getEndTime();
+            output = job.getOutput();
+        }
+    }
+
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(
+        summary = "Get vxml job status",
+        description = "Get the progress of the running or last vxml job")
+    @APIResponses(
+        value = {
+            @APIResponse(
+                responseCode = "200",
+                description = "Job status",
+                content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = VxmlResponse.class))),
+            @APIResponse(
+                responseCode = "401",
+                description = "Authorization required, send a valid session id"),
+            @APIResponse(
+                responseCode = "403",
+                description = "Forbidden, admin only"),
+            @APIResponse(
+                responseCode = "404",
+                description = "No job has been run"),
+        })
+    public Response getStatus(@HeaderParam(Auth.SESSION_HEADER) String session) {
+        final Response denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        final VxmlGenerator.Job job = VxmlGenerator.getCurrent();
+        if (job == null) {
+            return Response.status(Status.NOT_FOUND).build();
+        }
+        return Response.ok(new VxmlResponse(job)).build();
+    }
+
+    @POST
+    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Operation(
+        summary = "Start a vxml job",
+        description = "Start generating vxml for all locales in the background, unless a job is already running."
+            + " Either way, return the status of the running job.")
+    @APIResponses(
+        value = {
+            @APIResponse(
+                responseCode = "200",
+                description = "Job status",
+                content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = VxmlResponse.class))),
+            @APIResponse(
+                responseCode = "400",
+                description = "Nothing to do: specify at least one of output, remove, or verify"),
+            @APIResponse(
+                responseCode = "401",
+                description = "Authorization required, send a valid session id"),
+            @APIResponse(
+                responseCode = "403",
+                description = "Forbidden, admin only"),
+        })
+    public Response start(VxmlRequest request, @HeaderParam(Auth.SESSION_HEADER) String session) {
+        final Response denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        final VxmlGenerator.Options options = new VxmlGenerator.Options();
+        options.outputFiles = request.output;
+        options.removeEmpty = request.remove;
+        options.verifyConsistent = request.verify;
+        options.changedOnly = request.changedOnly;
+        if (!options.isValid()) {
+            return Response.status(Status.BAD_REQUEST).build();
+        }
+        return Response.ok(new VxmlResponse(VxmlGenerator.start(options))).build();
+    }
+
+    @DELETE
+    @Operation(
+        summary = "Cancel the vxml job",
+        description = "Ask the running vxml job to stop. Locales being generated are finished.")
+    @APIResponses(
+        value = {
+            @APIResponse(
+                responseCode = "204",
+                description = "Job was asked to stop"),
+            @APIResponse(
+                responseCode = "404",
+                description = "No job is running"),
+        })
+    public Response cancel(@HeaderParam(Auth.SESSION_HEADER) String session) {
+        final Response denied = checkAdmin(session);
+        if (denied != null) {
+            return denied;
+        }
+        final VxmlGenerator.Job job = VxmlGenerator.getCurrent();
+        if (job == null || job.isDone()) {
+            return Response.status(Status.NOT_FOUND).build();
+        }
+        job.cancel();
+        return Response.status(Status.NO_CONTENT).build();
+    }
+
+    /**
+     * @return a response if the session may not use this API, else null
+     */
+    private static Response checkAdmin(String session) {
+        final CookieSession mySession = Auth.getSession(session);
+        if (mySession == null || mySession.user == null) {
+            return Auth.noSessionResponse();
+        }
+        if (!UserRegistry.userIsAdmin(mySession.user)) {
+            return Response.status(Status.FORBIDDEN).build();
+        }
+        mySession.userDidAction();
+        return null;
+    }
+}
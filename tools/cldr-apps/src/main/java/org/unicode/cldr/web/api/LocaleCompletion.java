@@ -2,6 +2,7 @@ package org.unicode.cldr.web.api;
 
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
 import java.time.Duration;
 import java.util.concurrent.ExecutionException;
@@ -23,7 +24,6 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import org.unicode.cldr.util.*;
 import org.unicode.cldr.util.XMLSource.Listener;
 import org.unicode.cldr.web.CookieSession;
-import org.unicode.cldr.web.STFactory;
 import org.unicode.cldr.web.SurveyMain;
 
 /**
@@ -87,34 +87,27 @@ public class LocaleCompletion {
      * @throws ExecutionException
      */
     public static LocaleCompletionResponse getLocaleCompletion(CLDRLocale cldrLocale) throws ExecutionException {
-        return LocaleCompletionHelper.INSTANCE.cache.get(cldrLocale);
-    }
-
-    /**
-     * This function computes the actual locale completion given a Locale
-     * @param cldrLocale the locale
-     * @return the response
-     */
-    static LocaleCompletionResponse handleGetLocaleCompletion(CLDRLocale cldrLocale) throws ExecutionException {
-        final STFactory stFactory = CookieSession.sm.getSTFactory();
-        return handleGetLocaleCompletion(cldrLocale, stFactory);
+        return LocaleCompletionHelper.INSTANCE.cache.get(cldrLocale).getResponse();
     }
 
     static final class LocaleCompletionHelper implements Listener {
 
         PathHeader.Factory phf;
-        LoadingCache<CLDRLocale, LocaleCompletionResponse> cache;
+        /**
+         * Incrementally updated completion counts, per locale
+         */
+        LoadingCache<CLDRLocale, LocaleCompletionTracker> cache;
         LoadingCache<CLDRLocale, Integer> basecache;
 
         LocaleCompletionHelper() {
             phf = PathHeader.getFactory(CLDRConfig.getInstance().getEnglish());
             cache = CacheBuilder.newBuilder().maximumSize(500)
-            .concurrencyLevel(5) // allow 5 threads to compute completion, uncontested
-            .expireAfterWrite(Duration.ofMinutes(20)) // expire 20 min after last change
+            .recordStats()
+            .expireAfterAccess(Duration.ofHours(2)) // drop trackers for locales no one is looking at
             .build(new CacheLoader<>() {
                 @Override
-                public LocaleCompletionResponse load(CLDRLocale key) throws ExecutionException {
-                    return handleGetLocaleCompletion(key);
+                public LocaleCompletionTracker load(CLDRLocale key) {
+                    return new LocaleCompletionTracker(key);
                 }
             });
             basecache = CacheBuilder.newBuilder().maximumSize(500)
@@ -132,25 +125,26 @@ public class LocaleCompletion {
 
         @Override
         public void valueChanged(String xpath, XMLSource source) {
-            // invalidate the named entry
-            cache.invalidate(CLDRLocale.getInstance(source.getLocaleID()));
+            // mark the path dirty, if we are tracking this locale
+            final LocaleCompletionTracker tracker = cache.getIfPresent(CLDRLocale.getInstance(source.getLocaleID()));
+            if (tracker != null) {
+                tracker.pathChanged(xpath);
+            }
         }
     }
 
     /**
-     * This function computes the actual locale completion given a Locale and STFactory
-     *
-     * @param cldrLocale the locale
-     * @param stFactory the STFactory
-     * @return the response
+     * @return statistics of the cache of completion trackers, for monitoring
+     */
+    public static CacheStats getCacheStats() {
+        return LocaleCompletionHelper.INSTANCE.cache.stats();
+    }
+
+    /**
+     * @return the number of locales with a completion tracker
      */
-    static LocaleCompletionResponse handleGetLocaleCompletion(final CLDRLocale cldrLocale, final STFactory stFactory) throws ExecutionException {
-        // we need an XML Source to receive notification.
-        // This causes LocaleCompletionHelper.INSTANCE.valueChanged(...) to be called
-        // whenever a vote happens.
-        final XMLSource mySource = stFactory.makeSource(cldrLocale.toString(), false);
-        mySource.addListener(LocaleCompletion.LocaleCompletionHelper.INSTANCE);
-        return new LocaleCompletionCounter(cldrLocale, stFactory).getResponse();
+    public static long getCacheSize() {
+        return LocaleCompletionHelper.INSTANCE.cache.size();
     }
 
     public static int getBaselineCount(CLDRLocale cldrLocale) throws ExecutionException {
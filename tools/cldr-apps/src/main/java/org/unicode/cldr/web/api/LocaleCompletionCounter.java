@@ -2,6 +2,7 @@ package org.unicode.cldr.web.api;
 
 import com.ibm.icu.dev.util.ElapsedTimer;
 import java.util.EnumSet;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.logging.Logger;
 import org.unicode.cldr.util.*;
@@ -55,6 +56,30 @@ public class LocaleCompletionCounter {
         return lcr;
     }
 
+    /**
+     * Scan the whole locale, recording the problems of each path
+     *
+     * @param pathProblems map to fill in from path to problems
+     * @return the completion data
+     */
+    LocaleCompletionData getData(Map<String, EnumSet<NotificationCategory>> pathProblems) {
+        final ElapsedTimer et = new ElapsedTimer("Finishing full scan for " + description());
+        final LocaleCompletionData lcd = vv.generateLocaleCompletion(args, pathProblems);
+        logger.info(et.toString());
+        return lcd;
+    }
+
+    /**
+     * Get a checker for recomputing the problems of single paths
+     */
+    VettingViewer<Organization>.PathProblemChecker getPathProblemChecker() {
+        return vv.getPathProblemChecker(args);
+    }
+
+    Level getLevel() {
+        return level;
+    }
+
     private String description() {
         return String.format("LocaleCompletion for %s/%s %s", localeId, level, isBaseline ? "(Baseline)" : "");
     }
@@ -0,0 +1,179 @@
+package org.unicode.cldr.web.api;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Logger;
+
+import org.unicode.cldr.util.CLDRLocale;
+import org.unicode.cldr.util.LocaleCompletionData;
+import org.unicode.cldr.util.NotificationCategory;
+import org.unicode.cldr.util.Organization;
+import org.unicode.cldr.util.VettingViewer;
+import org.unicode.cldr.util.XMLSource;
+import org.unicode.cldr.web.CookieSession;
+import org.unicode.cldr.web.STFactory;
+import org.unicode.cldr.web.SurveyLog;
+
+/**
+ * Keeps the locale completion counts for one locale up to date incrementally.
+ *
+ * Paths reported as changed (by XMLSource.Listener events) are only marked dirty;
+ * the next request recomputes the problems of just those paths and applies the
+ * difference to the counts. A full scan is done on first use and then periodically,
+ * to pick up indirect changes (such as inheritance) that are not reported per path.
+ */
+final class LocaleCompletionTracker {
+    private static final Logger logger = SurveyLog.forClass(LocaleCompletionTracker.class);
+
+    /**
+     * How often to reconcile the incremental counts with a full scan
+     */
+    static final long RECONCILE_MILLIS = Duration.ofMinutes(20).toMillis();
+
+    /**
+     * Beyond this many dirty paths, forget them and do a full scan on the next request instead
+     */
+    static final int MAX_DIRTY_PATHS = 2000;
+
+    private final CLDRLocale cldrLocale;
+
+    /**
+     * Paths that have changed since the counts were last updated
+     */
+    private final Set<String> dirtyPaths = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Set when there were too many dirty paths to keep; the next request does a full scan
+     */
+    private volatile boolean overflowed = false;
+
+    // The following are guarded by this
+
+    private final Map<String, EnumSet<NotificationCategory>> pathProblems = new HashMap<>();
+    private LocaleCompletionCounter counter = null;
+    private VettingViewer<Organization>.PathProblemChecker checker = null;
+    private long reconciledAt = 0;
+    private int error, missing, provisional;
+    private LocaleCompletion.LocaleCompletionResponse response = null;
+
+    /**
+     * The source we are listening to. STFactory may replace the source for a locale
+     * (if it was evicted), in which case we need to listen to the new one.
+     */
+    private WeakReference<XMLSource> listeningTo = new WeakReference<>(null);
+
+    LocaleCompletionTracker(CLDRLocale cldrLocale) {
+        this.cldrLocale = cldrLocale;
+    }
+
+    /**
+     * Note that the given path has changed. Called on the voting thread, so this must be cheap.
+     */
+    void pathChanged(String xpath) {
+        if (overflowed) {
+            return;
+        }
+        dirtyPaths.add(xpath);
+        if (dirtyPaths.size() > MAX_DIRTY_PATHS) {
+            // no one has asked for a while (or a bulk upload happened): a full scan will be needed anyway
+            dirtyPaths.clear();
+            overflowed = true; // after clearing, so that a scan starting meanwhile is followed by another
+        }
+    }
+
+    /**
+     * Get the current response, updating it first if needed.
+     * If nothing has changed since the last call, this returns the same response object.
+     */
+    synchronized LocaleCompletion.LocaleCompletionResponse getResponse() throws ExecutionException {
+        if (checker == null || overflowed || System.currentTimeMillis() - reconciledAt > RECONCILE_MILLIS) {
+            reconcile();
+        } else if (!dirtyPaths.isEmpty()) {
+            applyDeltas();
+        }
+        return response;
+    }
+
+    /**
+     * Recompute everything from a full scan of the locale
+     */
+    private void reconcile() throws ExecutionException {
+        final STFactory stFactory = CookieSession.sm.getSTFactory();
+        // we need an XML Source to receive notification.
+        // This causes LocaleCompletion.LocaleCompletionHelper.INSTANCE.valueChanged(...) to be called
+        // whenever a vote happens.
+        final XMLSource mySource = stFactory.makeSource(cldrLocale.getBaseName(), false);
+        if (listeningTo.get() != mySource) {
+            mySource.addListener(LocaleCompletion.LocaleCompletionHelper.INSTANCE);
+            listeningTo = new WeakReference<>(mySource);
+        }
+        overflowed = false;
+        dirtyPaths.clear(); // anything changing from now on will be seen as dirty
+        counter = null;
+        checker = null; // let the old checker and its counts go before making the new one
+        pathProblems.clear();
+        counter = new LocaleCompletionCounter(cldrLocale, stFactory);
+        final LocaleCompletionData lcd = counter.getData(pathProblems);
+        checker = counter.getPathProblemChecker();
+        error = lcd.errorCount();
+        missing = lcd.missingCount();
+        provisional = lcd.provisionalCount();
+        if (response != null && !countsMatch(response)) {
+            logger.fine(() -> "Reconciled " + cldrLocale + ": incremental counts had drifted");
+        }
+        reconciledAt = System.currentTimeMillis();
+        updateResponse();
+    }
+
+    /**
+     * Recompute just the dirty paths, adjusting the counts by the difference
+     */
+    private void applyDeltas() throws ExecutionException {
+        for (Iterator<String> it = dirtyPaths.iterator(); it.hasNext();) {
+            final String path = it.next();
+            it.remove();
+            final EnumSet<NotificationCategory> newProblems = checker.getProblems(path);
+            final EnumSet<NotificationCategory> oldProblems = newProblems.isEmpty()
+                ? pathProblems.remove(path)
+                : pathProblems.put(path, newProblems);
+            if (oldProblems != null) {
+                count(oldProblems, -1);
+            }
+            count(newProblems, 1);
+        }
+        updateResponse();
+    }
+
+    private void count(EnumSet<NotificationCategory> problems, int delta) {
+        if (problems.contains(NotificationCategory.error)) {
+            error += delta;
+        }
+        if (problems.contains(NotificationCategory.missingCoverage)) {
+            missing += delta;
+        }
+        if (problems.contains(NotificationCategory.notApproved)) {
+            provisional += delta;
+        }
+    }
+
+    private boolean countsMatch(LocaleCompletion.LocaleCompletionResponse r) {
+        return r.getError() == error && r.getMissing() == missing && r.getProvisional() == provisional;
+    }
+
+    private void updateResponse() throws ExecutionException {
+        if (response != null && countsMatch(response)) {
+            return; // unchanged
+        }
+        final LocaleCompletion.LocaleCompletionResponse r = new LocaleCompletion.LocaleCompletionResponse(counter.getLevel(),
+            new LocaleCompletionData(error, missing, provisional));
+        r.setBaselineCount(LocaleCompletion.getBaselineCount(cldrLocale));
+        response = r;
+    }
+}
@@ -0,0 +1,181 @@
+package org.unicode.cldr.web.api;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+import org.unicode.cldr.test.CheckCLDR;
+import org.unicode.cldr.util.CLDRLocale;
+import org.unicode.cldr.util.PathHeader.PageId;
+import org.unicode.cldr.util.VoteResolver;
+import org.unicode.cldr.web.BallotBoxSnapshot;
+import org.unicode.cldr.web.CookieSession;
+import org.unicode.cldr.web.DataPage;
+import org.unicode.cldr.web.ForumIndex;
+import org.unicode.cldr.web.STFactory;
+import org.unicode.cldr.web.SurveyLog;
+import org.unicode.cldr.web.UserRegistry.User;
+import org.unicode.cldr.web.api.VoteAPI.RowResponse;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Cache of the rendered rows of a page, so that many vetters loading the same page
+ * do not each recompute every row.
+ *
+ * Entries are keyed by locale, page, coverage options and user level (which affects the status action).
+ * An entry is current as long as no vote has changed a path on that page, in the locale or
+ * any of its parents, since the entry was built; see STFactory.getPageChangeStamp.
+ * Changes that reach across pages (such as examples that depend on values elsewhere)
+ * are bounded by the expiry time.
+ *
+ * The per-user fields of each row (hasVoted, voteVhash, flags), and the forum status of each row
+ * (which posts do not stamp), are filled in for each request.
+ */
+public final class RowResponseCache {
+    private static final Logger logger = SurveyLog.forClass(RowResponseCache.class);
+
+    private static final int MAX_PAGES = 500;
+    private static final int EXPIRE_MINUTES = 2;
+
+    static final class Key {
+        private final CLDRLocale locale;
+        private final PageId pageId;
+        private final CheckCLDR.Options options;
+        private final VoteResolver.Level level;
+
+        Key(CLDRLocale locale, PageId pageId, CheckCLDR.Options options, User user) {
+            this.locale = locale;
+            this.pageId = pageId;
+            this.options = options;
+            this.level = (user == null) ? null : user.getLevel();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) return true;
+            if (!(other instanceof Key)) return false;
+            final Key k = (Key) other;
+            return locale.equals(k.locale) && pageId == k.pageId
+                && options.equals(k.options) && level == k.level;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(locale, pageId, options, level);
+        }
+
+        @Override
+        public String toString() {
+            return locale + "/" + pageId + "/" + options + "/" + level;
+        }
+    }
+
+    static final class Entry {
+        /**
+         * Stamp value of the votes the rows were rendered from
+         */
+        final long builtAt;
+        final Map<String, RowResponse.Row> rows;
+        final RowResponse.DisplaySets displaySets;
+
+        Entry(long builtAt, Map<String, RowResponse.Row> rows, RowResponse.DisplaySets displaySets) {
+            this.builtAt = builtAt;
+            this.rows = rows;
+            this.displaySets = displaySets;
+        }
+    }
+
+    private static final Cache<Key, Entry> cache = CacheBuilder.newBuilder()
+        .maximumSize(MAX_PAGES)
+        .expireAfterWrite(EXPIRE_MINUTES, TimeUnit.MINUTES)
+        .build();
+
+    /**
+     * Lookups that found a current entry, and those that did not, for monitoring
+     */
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    /**
+     * @return the fraction of lookups that found a current entry
+     */
+    public static double getHitRatio() {
+        final long h = hits.sum();
+        final long total = h + misses.sum();
+        return (total == 0) ? 0.0 : (double) h / total;
+    }
+
+    /**
+     * @return the number of cached pages
+     */
+    public static long size() {
+        return cache.size();
+    }
+
+    /**
+     * Get a current entry for this key
+     *
+     * @param key
+     * @param stf
+     * @return the entry, or null if there is none or it is out of date
+     */
+    static Entry get(Key key, STFactory stf) {
+        final Entry e = cache.getIfPresent(key);
+        if (e == null) {
+            misses.increment();
+            return null;
+        }
+        for (CLDRLocale loc = key.locale; loc != null; loc = loc.getParent()) {
+            if (stf.getPageChangeStamp(loc, key.pageId) > e.builtAt) {
+                logger.fine(() -> "Stale: " + key);
+                cache.invalidate(key);
+                misses.increment();
+                return null;
+            }
+        }
+        hits.increment();
+        return e;
+    }
+
+    static void put(Key key, Entry e) {
+        cache.put(key, e);
+    }
+
+    /**
+     * Copy the cached rows, filling in the fields that depend on the requesting user
+     *
+     * @param e the cached entry
+     * @param votes the current votes for the locale
+     * @param user the requesting user, or null
+     * @param stf
+     * @return rows suitable for this user's response
+     */
+    static Map<String, RowResponse.Row> personalize(Entry e, BallotBoxSnapshot<User> votes, User user, STFactory stf) {
+        final Map<String, RowResponse.Row> rows = new HashMap<>(e.rows.size() * 2);
+        final CLDRLocale locale = votes.getLocale();
+        for (Map.Entry<String, RowResponse.Row> re : e.rows.entrySet()) {
+            final RowResponse.Row row = re.getValue().copy();
+            row.hasVoted = false;
+            row.voteVhash = null; // abstention
+            if (user != null && votes.userDidVote(user, row.xpath)) {
+                row.hasVoted = true;
+                final String vhash = DataPage.getValueHash(votes.getVoteValue(user, row.xpath));
+                if (row.items != null && row.items.containsKey(vhash)) {
+                    row.voteVhash = vhash;
+                }
+            }
+            row.flagged = row.rowFlagged = stf.getFlag(locale, row.xpathId);
+            // forum posts do not change the page stamp
+            final ForumIndex.PathStats forumStats = CookieSession.sm.fora.getPathStats(locale, row.xpathId);
+            row.forumPosts = forumStats.getPostCount();
+            row.forumOpen = forumStats.hasOpenThread();
+            rows.put(re.getKey(), row);
+        }
+        return rows;
+    }
+}
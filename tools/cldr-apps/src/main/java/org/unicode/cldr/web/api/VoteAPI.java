@@ -132,7 +132,7 @@ public class VoteAPI {
 
     public static final class RowResponse {
 
-        public static final class Row {
+        public static final class Row implements Cloneable {
 
             public static final class Candidate {
                 public String displayValue;
@@ -171,6 +171,13 @@ public class VoteAPI {
             public String displayName;
             public Map<String, String> extraAttributes;
             public boolean flagged;
+
+            @Schema(description = "number of forum posts for this path")
+            public int forumPosts;
+
+            @Schema(description = "whether any forum thread for this path is open")
+            public boolean forumOpen;
+
             public boolean hasVoted;
             public String helpHtml;
             public String inheritedLocale;
@@ -198,6 +205,18 @@ public class VoteAPI {
 
             @Schema(description = "prose description of voting outcome")
             public String voteTranscript;
+
+            /**
+             * Shallow copy, so that the per-user fields can be set without
+             * disturbing a cached Row. Nested objects are shared.
+             */
+            public Row copy() {
+                try {
+                    return (Row) super.clone();
+                } catch (CloneNotSupportedException e) {
+                    throw new InternalError(e);
+                }
+            }
         }
 
         public static final class Page {
@@ -136,8 +136,6 @@ public class VoteAPIHelper {
                 // Should not get here.
                 return new STError(ErrorCode.E_INTERNAL, "handleGetRows: need xpstrid or page, but not both").build();
             }
-            final DataPage pageData = DataPage.make(pageId, mySession, locale, xp, matcher);
-            pageData.setUserForVotelist(mySession.user);
             r.page = new RowResponse.Page();
 
             // don't return default content
@@ -149,10 +147,12 @@ public class VoteAPIHelper {
                 r.canModify = UserRegistry.userCanModifyLocale(mySession.user, locale);
                 r.localeDisplayName = locale.getDisplayName();
                 r.page.nocontent = false;
-                Collection<DataRow> dataRows = pageData.getAll();
-                r.page.rows = makePageRows(dataRows);
-                if (args.page != null) {
-                    r.displaySets = makeDisplaySets(dataRows);
+                if (pageId != null) {
+                    getPageRows(r, pageId, mySession, locale);
+                } else {
+                    final DataPage pageData = DataPage.make(pageId, mySession, locale, xp, matcher);
+                    pageData.setUserForVotelist(mySession.user);
+                    r.page.rows = makePageRows(pageData.getAll());
                 }
             }
             if (args.getDashboard) {
@@ -169,6 +169,31 @@ public class VoteAPIHelper {
         }
     }
 
+    /**
+     * Fill in the rows and display sets for a whole page, from RowResponseCache if possible
+     */
+    private static void getPageRows(RowResponse r, PageId pageId, CookieSession mySession, CLDRLocale locale) {
+        final STFactory stf = CookieSession.sm.getSTFactory();
+        final RowResponseCache.Key key = new RowResponseCache.Key(locale, pageId,
+            DataPage.getOptions(mySession, locale), mySession.user);
+        RowResponseCache.Entry e = RowResponseCache.get(key, stf);
+        if (e == null) {
+            final long start = System.nanoTime();
+            final DataPage pageData = DataPage.make(pageId, mySession, locale, null, null);
+            pageData.setUserForVotelist(mySession.user);
+            final long builtAt = pageData.getStamp().current();
+            final Collection<DataRow> dataRows = pageData.getAll();
+            e = new RowResponseCache.Entry(builtAt, makePageRows(dataRows), makeDisplaySets(dataRows));
+            RowResponseCache.put(key, e);
+            SurveyMetrics.record(SurveyMetrics.Timing.ROW_PAGE, start);
+            // freshly made for this user, no need to personalize
+            r.page.rows = e.rows;
+        } else {
+            r.page.rows = RowResponseCache.personalize(e, stf.ballotBoxSnapshotForLocale(locale), mySession.user, stf);
+        }
+        r.displaySets = e.displaySets;
+    }
+
     private static void debugSerialization(RowResponse r, ArgsForGet args) {
         try {
             JsonbProvider.provider().create().build().toJson(r, new PrintWriter(System.out));
@@ -208,6 +233,9 @@ public class VoteAPIHelper {
         row.displayName = r.getDisplayName();
         row.extraAttributes = r.getNonDistinguishingAttributes();
         row.flagged = r.isFlagged();
+        final ForumIndex.PathStats forumStats = r.getForumStats();
+        row.forumPosts = forumStats.getPostCount();
+        row.forumOpen = forumStats.hasOpenThread();
         row.hasVoted = r.userHasVoted();
         row.helpHtml = r.getHelpHTML();
         row.inheritedLocale = r.getInheritedLocaleName();
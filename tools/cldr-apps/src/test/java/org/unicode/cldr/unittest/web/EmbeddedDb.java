@@ -0,0 +1,52 @@
+package org.unicode.cldr.unittest.web;
+
+import java.io.File;
+import java.util.logging.Logger;
+
+import org.unicode.cldr.web.SurveyLog;
+
+import ch.vorburger.exec.ManagedProcessException;
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+
+/**
+ * An embedded MariaDB server for the tests and benchmarks, so that they can run without a MySQL server.
+ * It speaks the same SQL as MySQL, which is all that DBUtils supports.
+ *
+ * Enable with -Dorg.unicode.cldr.unittest.web.embeddeddb=true (instead of .jdbcurl).
+ * The server runs on a free port, with its data under the test directory, and stops when the JVM exits.
+ */
+final class EmbeddedDb {
+    private static final Logger logger = SurveyLog.forClass(EmbeddedDb.class);
+    private static final String DB_NAME = "cldrdb_test";
+
+    private static String url = null;
+
+    private EmbeddedDb() {
+    }
+
+    /**
+     * Start the server, if it is not running
+     *
+     * @return the JDBC URL of the test database
+     */
+    static synchronized String start() {
+        if (url == null) {
+            try {
+                final DBConfigurationBuilder config = DBConfigurationBuilder.newBuilder();
+                config.setPort(0); // any free port
+                config.setDataDir(new File(TestAll.getEmptyDir("embeddeddb"), "data").getAbsolutePath());
+                config.addArg("--character-set-server=utf8mb4");
+                config.addArg("--collation-server=utf8mb4_bin");
+                final DB db = DB.newEmbeddedDB(config.build());
+                db.start();
+                db.createDB(DB_NAME);
+                url = config.getURL(DB_NAME) + "?user=root&useUnicode=true&characterEncoding=UTF-8";
+                logger.info("Started embedded database: " + url);
+            } catch (ManagedProcessException e) {
+                throw new RuntimeException("Could not start the embedded database", e);
+            }
+        }
+        return url;
+    }
+}
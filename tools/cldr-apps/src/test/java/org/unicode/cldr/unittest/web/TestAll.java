@@ -37,13 +37,18 @@ public class TestAll extends TestGroup {
     private static final Logger logger = SurveyLog.forClass(TestAll.class);
 
     private static final String CLDR_TEST_JDBC = TestAll.class.getPackage().getName() + ".jdbcurl";
+    /**
+     * Set to true to run the DB tests against an embedded database, instead of CLDR_TEST_JDBC
+     */
+    private static final String CLDR_TEST_EMBEDDED_DB = TestAll.class.getPackage().getName() + ".embeddeddb";
     private static boolean sane = false;
     private static final boolean DEBUG = CldrUtility.getProperty("DEBUG", false);
 
     /**
      * True if the Test DB is setup properly.
      */
-    public static final boolean HAVE_TEST_DB = !(CldrUtility.getProperty(CLDR_TEST_JDBC, "").isEmpty());
+    public static final boolean HAVE_TEST_DB = !(CldrUtility.getProperty(CLDR_TEST_JDBC, "").isEmpty())
+        || CldrUtility.getProperty(CLDR_TEST_EMBEDDED_DB, false);
 
     /**
      * Verify some setup things
@@ -114,6 +119,9 @@ public class TestAll extends TestGroup {
             // use class.getName so we are in sync with name changes and
             // removals (if not additions)
             TestIntHash.class.getName(),
+            TestConnectionPool.class.getName(),
+            TestXPathIdMap.class.getName(),
+            TestLocaleChangeBus.class.getName(),
             TestXPathTable.class.getName(),
             TestMisc.class.getName(),
             TestSTFactory.class.getName(),
@@ -282,12 +290,16 @@ public class TestAll extends TestGroup {
     }
 
     static void makeDataSource() {
-        final String jdbcUrl = CldrUtility.getProperty(CLDR_TEST_JDBC, "");
+        String jdbcUrl = CldrUtility.getProperty(CLDR_TEST_JDBC, "");
+        if (jdbcUrl.isEmpty() && CldrUtility.getProperty(CLDR_TEST_EMBEDDED_DB, false)) {
+            jdbcUrl = EmbeddedDb.start();
+        }
         System.err.println(CLDR_TEST_JDBC +"="+jdbcUrl);
         if (!jdbcUrl.isEmpty()) {
             DBUtils.makeInstanceFrom(null, jdbcUrl);
         } else {
-            throw new RuntimeException("Error: set the -DCLDR_TEST_JDBC property to a valid MySQL URL.");
+            throw new RuntimeException("Error: set the -DCLDR_TEST_JDBC property to a valid MySQL URL, or -D"
+                + CLDR_TEST_EMBEDDED_DB + "=true.");
         }
     }
 
@@ -347,7 +359,8 @@ public class TestAll extends TestGroup {
 
     public static final boolean skipIfNoDb() {
         if (!HAVE_TEST_DB) {
-            System.err.println("DB tests skipped because -D"+CLDR_TEST_JDBC+" was not set to a MySQL URL.");
+            System.err.println("DB tests skipped because -D"+CLDR_TEST_JDBC+" was not set to a MySQL URL, nor -D"
+                + CLDR_TEST_EMBEDDED_DB + "=true.");
             return true;
         }
         return false;
@@ -0,0 +1,187 @@
+package org.unicode.cldr.unittest.web;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.unicode.cldr.web.ConnectionPool;
+
+import com.ibm.icu.dev.test.TestFmwk;
+
+public class TestConnectionPool extends TestFmwk {
+
+    public static void main(String[] args) {
+        new TestConnectionPool().run(args);
+    }
+
+    /**
+     * Stands in for a JDBC connection, counting what is done to it
+     */
+    private static final class FakeConnection {
+        boolean autoCommit = true;
+        boolean closed = false;
+        int rollbacks = 0;
+        int prepares = 0;
+        final List<FakeStatement> statements = new ArrayList<>();
+        final Connection connection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] { Connection.class }, (proxy, m, args) -> {
+                switch (m.getName()) {
+                case "getAutoCommit":
+                    return autoCommit;
+                case "setAutoCommit":
+                    autoCommit = (Boolean) args[0];
+                    return null;
+                case "rollback":
+                    rollbacks++;
+                    return null;
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "isValid":
+                    return !closed;
+                case "prepareStatement":
+                    prepares++;
+                    final FakeStatement s = new FakeStatement();
+                    statements.add(s);
+                    return s.statement;
+                default:
+                    return defaultValue(m.getReturnType());
+                }
+            });
+    }
+
+    private static final class FakeStatement {
+        boolean closed = false;
+        final PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] { PreparedStatement.class }, (proxy, m, args) -> {
+                switch (m.getName()) {
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                default:
+                    return defaultValue(m.getReturnType());
+                }
+            });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+
+    private final List<FakeConnection> opened = new ArrayList<>();
+
+    private ConnectionPool newPool(int maxInUse, int maxIdle, int statementCacheSize) {
+        opened.clear();
+        return new ConnectionPool(() -> {
+            final FakeConnection c = new FakeConnection();
+            opened.add(c);
+            return c.connection;
+        }, maxInUse, 100, maxIdle, statementCacheSize, 0);
+    }
+
+    public void TestReuse() throws SQLException {
+        final ConnectionPool pool = newPool(0, 2, 0);
+        Connection c = pool.getConnection();
+        c.setAutoCommit(false);
+        c.close();
+        assertTrue("closed to the caller", c.isClosed());
+        assertEquals("uncommitted work rolled back", 1, opened.get(0).rollbacks);
+        assertTrue("autocommit restored", opened.get(0).autoCommit);
+        assertFalse("kept", opened.get(0).closed);
+        c.close(); // twice is harmless
+
+        c = pool.getConnection();
+        assertEquals("reused", 1, pool.getCreated());
+        assertEquals("in use", 1, pool.getInUse());
+        c.close();
+        assertEquals("idle", 1, pool.getIdle());
+
+        pool.close();
+        assertTrue("closed with the pool", opened.get(0).closed);
+    }
+
+    public void TestNoIdle() throws SQLException {
+        final ConnectionPool pool = newPool(0, 0, 64);
+        pool.getConnection().close();
+        pool.getConnection().close();
+        assertEquals("not reused", 2, pool.getCreated());
+        assertTrue("closed", opened.get(0).closed && opened.get(1).closed);
+    }
+
+    public void TestStatementCache() throws SQLException {
+        final ConnectionPool pool = newPool(0, 1, 2);
+        Connection c = pool.getConnection();
+        PreparedStatement ps = c.prepareStatement("SELECT 1");
+        final PreparedStatement second = c.prepareStatement("SELECT 1"); // first one still in use
+        ps.close();
+        second.close();
+        c.close();
+        assertEquals("two prepared", 2, opened.get(0).prepares);
+        assertTrue("uncached statement closed", opened.get(0).statements.get(1).closed);
+        assertFalse("cached statement kept", opened.get(0).statements.get(0).closed);
+
+        c = pool.getConnection();
+        ps = c.prepareStatement("SELECT 1");
+        assertEquals("reused from the cache", 2, opened.get(0).prepares);
+        assertTrue("statement knows its connection", ps.getConnection() == c);
+        c.close(); // without closing ps
+        assertTrue("returned with the connection", ps.isClosed());
+
+        c = pool.getConnection();
+        c.prepareStatement("SELECT 2").close();
+        c.prepareStatement("SELECT 3").close(); // evicts SELECT 1
+        c.close();
+        assertTrue("evicted statement closed", opened.get(0).statements.get(0).closed);
+        assertTrue("hit ratio", pool.getStatementHitRatio() > 0);
+    }
+
+    public void TestUncachedStatements() throws SQLException {
+        final ConnectionPool pool = newPool(0, 1, 0);
+        final Connection c = pool.getConnection();
+        final PreparedStatement open = c.prepareStatement("SELECT 0");
+        for (int i = 1; i <= 100; i++) {
+            c.prepareStatement("SELECT " + i).close(); // dropped when the list is pruned
+        }
+        c.close();
+        assertTrue("unclosed statement closed on return", opened.get(0).statements.get(0).closed);
+        assertTrue("caller's statement passed through", open == opened.get(0).statements.get(0).statement);
+    }
+
+    public void TestWait() throws SQLException {
+        final ConnectionPool pool = newPool(1, 1, 0);
+        final Connection c = pool.getConnection();
+        try {
+            pool.getConnection();
+            errln("Expected a timeout");
+        } catch (SQLException expected) {
+            logln("Got: " + expected);
+        }
+        assertEquals("waited", 1, pool.getWaited());
+        c.close();
+        pool.getConnection().close();
+    }
+
+    public void TestLeak() throws SQLException, InterruptedException {
+        final ConnectionPool pool = new ConnectionPool(() -> new FakeConnection().connection, 0, 100, 1, 0, 1);
+        final Connection c = pool.getConnection();
+        Thread.sleep(10);
+        pool.checkLeaks();
+        pool.checkLeaks(); // reported once
+        assertEquals("leak", 1, pool.getLeaks());
+        c.close();
+    }
+}
@@ -0,0 +1,111 @@
+package org.unicode.cldr.unittest.web;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.unicode.cldr.util.CLDRLocale;
+import org.unicode.cldr.util.SimpleXMLSource;
+import org.unicode.cldr.util.XMLSource;
+import org.unicode.cldr.web.LocaleChangeBus;
+
+import com.ibm.icu.dev.test.TestFmwk;
+
+public class TestLocaleChangeBus extends TestFmwk {
+
+    public static void main(String[] args) {
+        new TestLocaleChangeBus().run(args);
+    }
+
+    private static final CLDRLocale LOCALE = CLDRLocale.getInstance("fr");
+
+    /**
+     * Runs tasks only when asked
+     */
+    private static final class ManualExecutor implements Executor {
+        final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable r) {
+            tasks.add(r);
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.remove(0).run();
+            }
+        }
+    }
+
+    /**
+     * Records the paths it is notified of. XMLSource holds listeners weakly,
+     * so the tests keep a reference to it until they check it.
+     */
+    private static final class RecordingListener implements XMLSource.Listener {
+        final List<String> paths = new ArrayList<>();
+
+        @Override
+        public void valueChanged(String xpath, XMLSource source) {
+            paths.add(xpath);
+        }
+    }
+
+    public void TestOrderAndCoalesce() {
+        final ManualExecutor executor = new ManualExecutor();
+        final LocaleChangeBus bus = new LocaleChangeBus(executor);
+        final XMLSource source = new SimpleXMLSource(LOCALE.getBaseName());
+        final RecordingListener listener = new RecordingListener();
+        source.addListener(listener);
+        final List<String> notified = listener.paths;
+        final List<List<String>> batches = new ArrayList<>();
+        bus.subscribe((locale, xpaths, seq) -> batches.add(new ArrayList<>(xpaths)));
+
+        bus.publish(LOCALE, source, "//a");
+        bus.publish(LOCALE, source, "//b");
+        final long seq = bus.publish(LOCALE, source, "//a");
+        assertEquals("published", 3, seq);
+        assertEquals("one delivery scheduled", 1, executor.tasks.size());
+        assertEquals("nothing delivered yet", 0, notified.size());
+        assertEquals("delivered seq", 0, bus.getDeliveredSeq(LOCALE));
+
+        executor.runAll();
+        assertEquals("listeners, in order, each path once", Arrays.asList("//a", "//b"), notified);
+        assertEquals("one batch", Arrays.asList(Arrays.asList("//a", "//b")), batches);
+        assertEquals("listener", 2, listener.paths.size());
+        assertEquals("delivered seq", 3, bus.getDeliveredSeq(LOCALE));
+    }
+
+    public void TestFlush() {
+        final ManualExecutor executor = new ManualExecutor();
+        final LocaleChangeBus bus = new LocaleChangeBus(executor);
+        final XMLSource source = new SimpleXMLSource(LOCALE.getBaseName());
+        final RecordingListener listener = new RecordingListener();
+        source.addListener(listener);
+        final List<String> notified = listener.paths;
+
+        bus.flush(LOCALE); // nothing published
+        bus.publish(LOCALE, source, Arrays.asList("//a", "//b"));
+        bus.flush(LOCALE);
+        assertEquals("delivered by flush", Arrays.asList("//a", "//b"), notified);
+        assertEquals("delivered seq", bus.getPublishedSeq(LOCALE), bus.getDeliveredSeq(LOCALE));
+
+        executor.runAll(); // the scheduled delivery finds nothing to do
+        assertEquals("not delivered twice", 2, listener.paths.size());
+    }
+
+    public void TestBackPressure() {
+        final ManualExecutor executor = new ManualExecutor();
+        final LocaleChangeBus bus = new LocaleChangeBus(executor);
+        final XMLSource source = new SimpleXMLSource(LOCALE.getBaseName());
+        final RecordingListener listener = new RecordingListener();
+        source.addListener(listener);
+        final List<String> many = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            many.add("//p[@n=\"" + i + "\"]");
+        }
+        bus.publish(LOCALE, source, many);
+        assertEquals("delivered by the publisher", 5000, listener.paths.size());
+        assertEquals("no delivery scheduled", 0, executor.tasks.size());
+    }
+}
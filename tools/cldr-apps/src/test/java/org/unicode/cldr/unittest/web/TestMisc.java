@@ -1,13 +1,20 @@
 package org.unicode.cldr.unittest.web;
 
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Set;
 
 /**
  * Copyright (C) 2012
  */
 
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
 import org.unicode.cldr.util.*;
 import org.unicode.cldr.web.STFactory;
+import org.unicode.cldr.web.SurveyJSONWrapper;
 import org.unicode.cldr.web.SurveyMain;
 import org.unicode.cldr.web.WebContext;
 
@@ -141,4 +148,22 @@ public class TestMisc extends TestFmwk {
             errln("❌ For input " + input + " expected " + result + " but got " + result);
         }
     }
+
+    public void TestJSONWrite() throws JSONException {
+        final JSONObject o = new JSONObject().put("a", new JSONArray()
+            .put("q\"</\n\u2028")
+            .put(1)
+            .put(true)
+            .put(Collections.singletonMap("k", Arrays.asList(2.5, "z"))));
+        final String expected = "{\"a\":[\"q\\\"<\\/\\n\\u2028\",1,true,{\"k\":[2.5,\"z\"]}]}";
+        assertEquals("toString", expected, o.toString());
+        assertEquals("write", expected, o.write(new StringWriter()).toString());
+        assertEquals("quote", "\"q\\\"<\\/\\n\\u2028\"", JSONObject.quote("q\"</\n\u2028"));
+
+        final SurveyJSONWrapper r = new SurveyJSONWrapper();
+        r.put("o", o);
+        final StringWriter w = new StringWriter();
+        r.write(w);
+        assertEquals("wrapper", "{\"o\":" + expected + "}", w.toString());
+    }
 }
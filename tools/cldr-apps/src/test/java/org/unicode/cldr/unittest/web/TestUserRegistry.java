@@ -3,6 +3,7 @@ package org.unicode.cldr.unittest.web;
 import org.unicode.cldr.util.CLDRLocale;
 import org.unicode.cldr.util.Organization;
 import org.unicode.cldr.web.CookieSession;
+import org.unicode.cldr.web.UserPermissions;
 import org.unicode.cldr.web.UserRegistry;
 import org.unicode.cldr.web.UserRegistry.User;
 
@@ -136,4 +137,34 @@ public class TestUserRegistry extends TestFmwk {
             errln("Guest can vote in one of their locales regardless of whether it is their org locale");
         }
     }
+
+    /**
+     * Test the snapshot of user permissions
+     */
+    public void TestUserPermissions() {
+        if (TestAll.skipIfNoDb()) {
+            return;
+        }
+        UserRegistry reg = CookieSession.sm.reg;
+        final UserPermissions before = reg.getPermissions();
+        final CLDRLocale und = CLDRLocale.getInstance("und");
+        for (int id : reg.getVoterToInfo().keySet()) {
+            final User u = reg.getInfo(id);
+            final UserPermissions.Entry e = before.get(id);
+            if (u == null || e == null) {
+                errln("Missing user #" + id + ": " + u + ", " + e);
+                continue;
+            }
+            assertEquals("level of #" + id, u.getLevel(), e.getLevel());
+            assertEquals("org of #" + id, u.getOrganization(), e.getOrganization());
+            assertEquals("votes of #" + id, u.getVoteCount(), e.getVotes());
+            assertTrue("#" + id + " can vote in the sandbox", e.hasLocalePermission(und));
+        }
+        assertTrue("no such user", before.get(Integer.MAX_VALUE) == null);
+
+        reg.userModified(UserRegistry.ADMIN_ID);
+        final UserPermissions after = reg.getPermissions();
+        assertTrue("snapshot replaced", before != after);
+        assertTrue("newer version", after.getVersion() > before.getVersion());
+    }
 }
@@ -0,0 +1,69 @@
+package org.unicode.cldr.unittest.web;
+
+import org.unicode.cldr.web.XPathIdMap;
+
+import com.ibm.icu.dev.test.TestFmwk;
+
+public class TestXPathIdMap extends TestFmwk {
+
+    public static void main(String[] args) {
+        new TestXPathIdMap().run(args);
+    }
+
+    public static final int TEST_COUNT = 20000;
+
+    private static String pathFor(int n) {
+        return "//ldml/test[@type=\"" + n + "\"]";
+    }
+
+    public void TestGetPut() {
+        XPathIdMap map = new XPathIdMap();
+        for (int i = 0; i < TEST_COUNT; i++) {
+            int id = (i * 13) + 1; // sparse ids, to make the array grow
+            map.put(id, pathFor(id), id * 7919L);
+        }
+        assertEquals("size", TEST_COUNT, map.size());
+        for (int i = 0; i < TEST_COUNT; i++) {
+            int id = (i * 13) + 1;
+            final String path = pathFor(id);
+            if (!path.equals(map.getById(id))) {
+                errln("getById(" + id + ") returned " + map.getById(id));
+            }
+            if (map.getByXpath(path) != id) {
+                errln("getByXpath(" + path + ") returned " + map.getByXpath(path));
+            }
+            if (!path.equals(map.getByStringId(id * 7919L))) {
+                errln("getByStringId(" + (id * 7919L) + ") returned " + map.getByStringId(id * 7919L));
+            }
+        }
+        assertEquals("missing id", null, map.getById(2));
+        assertEquals("id out of range", null, map.getById(Integer.MAX_VALUE));
+        assertEquals("missing xpath", -1, map.getByXpath("//ldml/missing"));
+        assertEquals("missing StringID", null, map.getByStringId(3L));
+    }
+
+    public void TestConcurrentReads() throws InterruptedException {
+        final XPathIdMap map = new XPathIdMap();
+        final Thread writer = new Thread(() -> {
+            for (int id = 0; id < TEST_COUNT; id++) {
+                map.put(id, pathFor(id), id);
+            }
+        });
+        writer.start();
+        // Anything a reader sees must be complete
+        while (writer.isAlive()) {
+            for (int id = 0; id < TEST_COUNT; id += 97) {
+                final String path = map.getById(id);
+                if (path != null && !path.equals(pathFor(id))) {
+                    errln("getById(" + id + ") returned " + path);
+                }
+                final int got = map.getByXpath(pathFor(id));
+                if (got != -1 && got != id) {
+                    errln("getByXpath(" + pathFor(id) + ") returned " + got);
+                }
+            }
+        }
+        writer.join();
+        assertEquals("size", TEST_COUNT, map.size());
+    }
+}
@@ -0,0 +1,360 @@
+package org.unicode.cldr.draft;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.unicode.cldr.draft.XLikelySubtags.LSR;
+import org.unicode.cldr.draft.XLocaleDistance.DistanceNode;
+import org.unicode.cldr.draft.XLocaleDistance.DistanceOption;
+import org.unicode.cldr.draft.XLocaleDistance.DistanceTable;
+import org.unicode.cldr.draft.XLocaleDistance.IdMakerFull;
+import org.unicode.cldr.draft.XLocaleDistance.RegionMapper;
+import org.unicode.cldr.draft.XLocaleDistance.StringDistanceTable;
+
+import com.google.common.collect.ImmutableMap;
+import com.ibm.icu.util.ULocale;
+
+/**
+ * Immutable, compiled form of an XLocaleDistance, for use where locale matching is on a hot path.
+ * <br>Languages, scripts and region partitions each get their own space of small int ids, with ANY as 0.
+ * Each distance table is a dense desired × supported block in flat arrays, with the ANY fallbacks
+ * resolved when compiling, and equal tables are shared.
+ * Locales are compiled once into {@link Subtags}; after that, {@link #distance} and {@link #getBestMatch}
+ * do not allocate.
+ * <br>Get an instance with {@link XLocaleDistance#compile()}.
+ */
+public final class CompiledLocaleDistance {
+    private static final int LANGUAGE = 0;
+    private static final int SCRIPT = 1;
+    private static final int REGION = 2;
+
+    private static final int NO_TABLE = -1;
+    private static final int[] NO_PARTITIONS = {};
+
+    private static final LSR UND = new LSR("und", "", "");
+    private static final ULocale UND_LOCALE = new ULocale("und");
+
+    /**
+     * A locale, maximized and mapped to ids. Create with {@link CompiledLocaleDistance#getSubtags}.
+     */
+    public static final class Subtags {
+        private final LSR lsr;
+        private final int language;
+        private final int script;
+        /**
+         * The partitions to compare for the region: the region's own partition,
+         * or, for a macroregion, all the partitions it intersects
+         */
+        private final int[] partitions;
+        private final boolean isMacro;
+
+        private Subtags(LSR lsr, int language, int script, int[] partitions, boolean isMacro) {
+            this.lsr = lsr;
+            this.language = language;
+            this.script = script;
+            this.partitions = partitions;
+            this.isMacro = isMacro;
+        }
+
+        public LSR getLSR() {
+            return lsr;
+        }
+
+        @Override
+        public String toString() {
+            return lsr.toString();
+        }
+    }
+
+    private final ImmutableMap<String, Integer> languageIds;
+    private final ImmutableMap<String, Integer> scriptIds;
+    private final ImmutableMap<String, Integer> partitionIds;
+    private final int[] sizes = new int[3];
+
+    private final RegionMapper regionMapper;
+
+    // one entry per cell; the language table is the block at 0
+
+    private final int[] distances;
+    private final int[] subtables; // start of the block for the next level, or NO_TABLE
+    private final boolean[] explicit; // false if the cell was filled in from an ANY row or column
+
+    CompiledLocaleDistance(StringDistanceTable languageDesired2Supported, RegionMapper regionMapper) {
+        this.regionMapper = regionMapper;
+        @SuppressWarnings("unchecked")
+        IdMakerFull<String>[] ids = new IdMakerFull[] {
+            new IdMakerFull<>("language", XLocaleDistance.ANY),
+            new IdMakerFull<>("script", XLocaleDistance.ANY),
+            new IdMakerFull<>("partition", XLocaleDistance.ANY) };
+        loadIds(languageDesired2Supported, LANGUAGE, ids);
+        for (int level = LANGUAGE; level <= REGION; ++level) {
+            sizes[level] = ids[level].size();
+        }
+        languageIds = toMap(ids[LANGUAGE]);
+        scriptIds = toMap(ids[SCRIPT]);
+        partitionIds = toMap(ids[REGION]);
+
+        Compiler compiler = new Compiler(ids);
+        compiler.compile(languageDesired2Supported, LANGUAGE);
+        distances = Arrays.copyOf(compiler.distances, compiler.size);
+        subtables = Arrays.copyOf(compiler.subtables, compiler.size);
+        explicit = Arrays.copyOf(compiler.explicit, compiler.size);
+    }
+
+    private static void loadIds(StringDistanceTable table, int level, IdMakerFull<String>[] ids) {
+        for (Entry<String, Map<String, DistanceNode>> e1 : table.subtables.entrySet()) {
+            ids[level].add(e1.getKey());
+            for (Entry<String, DistanceNode> e2 : e1.getValue().entrySet()) {
+                ids[level].add(e2.getKey());
+                DistanceTable sub = e2.getValue().getDistanceTable();
+                if (level < REGION && sub != null && !sub.isEmpty()) {
+                    loadIds((StringDistanceTable) sub, level + 1, ids);
+                }
+            }
+        }
+    }
+
+    private static ImmutableMap<String, Integer> toMap(IdMakerFull<String> id) {
+        ImmutableMap.Builder<String, Integer> result = ImmutableMap.builder();
+        for (int i = 0; i < id.size(); ++i) {
+            result.put(id.fromId(i), i);
+        }
+        return result.build();
+    }
+
+    /**
+     * Flattens the nested tables into blocks, sharing the blocks of equal tables.
+     */
+    private class Compiler {
+        private final IdMakerFull<String>[] ids;
+        private final Map<StringDistanceTable, Integer> blocks = new HashMap<>();
+        int[] distances = new int[1024];
+        int[] subtables = new int[1024];
+        boolean[] explicit = new boolean[1024];
+        int size = 0;
+
+        Compiler(IdMakerFull<String>[] ids) {
+            this.ids = ids;
+        }
+
+        int compile(StringDistanceTable table, int level) {
+            Integer old = blocks.get(table);
+            if (old != null) {
+                return old;
+            }
+            final int n = sizes[level];
+            final int start = allocate(n * n);
+            blocks.put(table, start);
+            for (Entry<String, Map<String, DistanceNode>> e1 : table.subtables.entrySet()) {
+                final int desired = ids[level].toId(e1.getKey());
+                for (Entry<String, DistanceNode> e2 : e1.getValue().entrySet()) {
+                    final int cell = start + desired * n + ids[level].toId(e2.getKey());
+                    final DistanceNode node = e2.getValue();
+                    final DistanceTable sub = node.getDistanceTable();
+                    // compile the subtable first, since that may grow the arrays
+                    final int subtable = level < REGION && sub != null && !sub.isEmpty()
+                        ? compile((StringDistanceTable) sub, level + 1)
+                        : NO_TABLE;
+                    distances[cell] = node.distance;
+                    subtables[cell] = subtable;
+                    explicit[cell] = true;
+                }
+            }
+            if (!explicit[start]) {
+                throw new IllegalArgumentException("Table has no ANY, ANY: " + table);
+            }
+            // fill in the rest the way StringDistanceTable.getDistance falls back:
+            // <desired, supported>, <desired, ANY>, <ANY, supported>, <ANY, ANY>
+            for (int desired = 0; desired < n; ++desired) {
+                for (int supported = 0; supported < n; ++supported) {
+                    final int cell = start + desired * n + supported;
+                    if (explicit[cell]) {
+                        continue;
+                    }
+                    int from = start + desired * n;
+                    if (!explicit[from]) {
+                        from = start + supported;
+                        if (!explicit[from]) {
+                            from = start;
+                        }
+                    }
+                    distances[cell] = distances[from];
+                    subtables[cell] = subtables[from];
+                }
+            }
+            return start;
+        }
+
+        private int allocate(int count) {
+            final int start = size;
+            size += count;
+            if (size > distances.length) {
+                final int newLength = Math.max(size, distances.length * 2);
+                distances = Arrays.copyOf(distances, newLength);
+                subtables = Arrays.copyOf(subtables, newLength);
+                explicit = Arrays.copyOf(explicit, newLength);
+            }
+            Arrays.fill(subtables, start, size, NO_TABLE);
+            return start;
+        }
+    }
+
+    /**
+     * Compile a locale, which must already be maximized (see LSR.fromMaximalized).
+     * Subtags that do not occur in the data map to ANY.
+     */
+    public Subtags getSubtags(LSR lsr) {
+        final String partition = regionMapper.toId(lsr.region);
+        if (!partition.isEmpty()) {
+            return new Subtags(lsr, id(languageIds, lsr.language), id(scriptIds, lsr.script),
+                new int[] { id(partitionIds, partition) }, false);
+        }
+        // as in XLocaleDistance.distanceRaw, a region without a partition is treated as a macroregion
+        final Collection<String> macroPartitions = regionMapper.macroToPartitions.get(lsr.region);
+        if (macroPartitions == null) {
+            // not a macroregion either (such as ZZ, or an unknown region): distanceRaw looks up
+            // the empty partition, which falls back to ANY
+            return new Subtags(lsr, id(languageIds, lsr.language), id(scriptIds, lsr.script),
+                new int[] { 0 }, false);
+        }
+        int[] partitions = NO_PARTITIONS;
+        if (!macroPartitions.isEmpty()) {
+            partitions = new int[macroPartitions.size()];
+            int i = 0;
+            for (String p : macroPartitions) {
+                partitions[i++] = id(partitionIds, p);
+            }
+        }
+        return new Subtags(lsr, id(languageIds, lsr.language), id(scriptIds, lsr.script), partitions, true);
+    }
+
+    /**
+     * Convenience method: maximize and compile a locale.
+     */
+    public Subtags getSubtags(ULocale locale) {
+        return getSubtags(locale.equals(UND_LOCALE) ? UND : LSR.fromMaximalized(locale));
+    }
+
+    private static int id(Map<String, Integer> ids, String subtag) {
+        final Integer result = ids.get(subtag);
+        return result == null ? 0 : result;
+    }
+
+    /**
+     * Returns distance, from 0 to ABOVE_THRESHOLD. Same results as XLocaleDistance.distanceRaw.
+     */
+    public int distance(Subtags desired, Subtags supported, int threshold, DistanceOption distanceOption) {
+        final boolean scriptFirst = distanceOption == DistanceOption.SCRIPT_FIRST;
+
+        int n = sizes[LANGUAGE];
+        final int languageCell = desired.language * n + supported.language;
+        int distance = distance(languageCell, desired.language, supported.language,
+            desired.lsr.language, supported.lsr.language);
+        if (scriptFirst) {
+            distance >>= 2;
+        }
+        if (distance < 0) {
+            distance = 0;
+        } else if (distance >= threshold) {
+            return XLocaleDistance.ABOVE_THRESHOLD;
+        }
+
+        n = sizes[SCRIPT];
+        final int scriptCell = subtable(languageCell) + desired.script * n + supported.script;
+        int scriptDistance = distance(scriptCell, desired.script, supported.script,
+            desired.lsr.script, supported.lsr.script);
+        if (scriptFirst) {
+            scriptDistance >>= 1;
+        }
+        distance += scriptDistance;
+        if (distance >= threshold) {
+            return XLocaleDistance.ABOVE_THRESHOLD;
+        }
+
+        if (desired.lsr.region.equals(supported.lsr.region)) {
+            return distance;
+        }
+
+        // as in distanceRaw, if either is a macroregion we take the maximum over the partitions
+        n = sizes[REGION];
+        final int regionTable = subtable(scriptCell);
+        int subdistance = 0;
+        if (desired.isMacro || supported.isMacro) {
+            for (int desiredPartition : desired.partitions) {
+                for (int supportedPartition : supported.partitions) {
+                    final int temp = distances[regionTable + desiredPartition * n + supportedPartition];
+                    if (subdistance < temp) {
+                        subdistance = temp;
+                    }
+                }
+            }
+        } else {
+            subdistance = distances[regionTable + desired.partitions[0] * n + supported.partitions[0]];
+        }
+        distance += subdistance;
+        return distance >= threshold ? XLocaleDistance.ABOVE_THRESHOLD : distance;
+    }
+
+    /**
+     * The distance in a cell, where equal subtags that only matched through ANY count as 0.
+     */
+    private int distance(int cell, int desiredId, int supportedId, String desired, String supported) {
+        if (desiredId == supportedId
+            && (desiredId == 0 ? desired.equals(supported) : !explicit[cell])) {
+            return 0;
+        }
+        return distances[cell];
+    }
+
+    private int subtable(int cell) {
+        final int result = subtables[cell];
+        if (result == NO_TABLE) {
+            throw new IllegalStateException("bad structure: no subtable");
+        }
+        return result;
+    }
+
+    /**
+     * Get the best match between desired and supported locales, the same way as XLocaleMatcher:
+     * each desired locale after the first is demoted by demotionPerAdditionalDesiredLocale,
+     * and among equal distances the earliest supported locale wins.
+     *
+     * @param desired the user's locales, best first
+     * @param supported the application's locales, in priority order
+     * @param thresholdDistance distances at or above this are not a match
+     * @param demotionPerAdditionalDesiredLocale
+     * @param distanceOption
+     * @return the index in supported of the best match, or -1 if nothing is below the threshold
+     */
+    public int getBestMatch(List<Subtags> desired, List<Subtags> supported, int thresholdDistance,
+        int demotionPerAdditionalDesiredLocale, DistanceOption distanceOption) {
+        int bestDistance = Integer.MAX_VALUE;
+        int bestSupported = -1;
+        int delta = 0;
+        mainLoop: for (int i = 0; i < desired.size() && delta < bestDistance; ++i) {
+            final Subtags desiredSubtags = desired.get(i);
+            for (int j = 0; j < supported.size(); ++j) {
+                final int distance = delta + distance(desiredSubtags, supported.get(j), thresholdDistance, distanceOption);
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    bestSupported = j;
+                    if (distance == 0) {
+                        break mainLoop;
+                    }
+                }
+            }
+            delta += demotionPerAdditionalDesiredLocale;
+        }
+        return bestDistance >= thresholdDistance ? -1 : bestSupported;
+    }
+
+    @Override
+    public String toString() {
+        return "languages: " + sizes[LANGUAGE] + ", scripts: " + sizes[SCRIPT] + ", partitions: " + sizes[REGION]
+            + ", cells: " + distances.length;
+    }
+}
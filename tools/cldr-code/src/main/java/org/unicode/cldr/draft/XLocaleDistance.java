@@ -1250,6 +1250,25 @@ public class XLocaleDistance {
         }
     }
 
+    private volatile CompiledLocaleDistance compiled = null;
+
+    /**
+     * Get the compiled form of this distance, which is faster for repeated matching.
+     * It is built on first use.
+     */
+    public CompiledLocaleDistance compile() {
+        CompiledLocaleDistance result = compiled;
+        if (result == null) {
+            synchronized (this) {
+                result = compiled;
+                if (result == null) {
+                    compiled = result = new CompiledLocaleDistance((StringDistanceTable) languageDesired2Supported, regionMapper);
+                }
+            }
+        }
+        return result;
+    }
+
     @Deprecated
     public StringDistanceTable internalGetDistanceTable() {
         return (StringDistanceTable) languageDesired2Supported;
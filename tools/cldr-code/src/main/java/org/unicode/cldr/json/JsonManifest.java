@@ -0,0 +1,279 @@
+package org.unicode.cldr.json;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+
+/**
+ * Manifest of the JSON files written by Ldml2JsonConverter for one run type, for incremental conversion.
+ * <br>Each output file is recorded with the source file it came from, its value count, and a hash of its input:
+ * the converter configuration plus the paths and values of the items in its section.
+ * An output file whose hash is unchanged since the last run, and which is still there, is not written again.
+ * <br>Each source file is also recorded with a hash of everything it is converted from: the configuration, the
+ * source file and the files it is resolved with, and the shared inputs (such as supplemental data and DTDs).
+ * A source whose hash is unchanged, and whose output files are all still there, is not even read.
+ * <br>Every file that is written or removed is listed in a change list next to the manifest, for packaging.
+ * <br>Changes to the converter itself are not detected; run without incremental after updating it.
+ */
+final class JsonManifest {
+    private static final String MANIFEST_PREFIX = "ldml2json-manifest-";
+    private static final String CHANGES_PREFIX = "ldml2json-changes-";
+    private static final String SOURCE_LINE = "@source";
+
+    private static final class Entry {
+        final String source;
+        final int valueCount;
+        final String hash;
+
+        Entry(String source, int valueCount, String hash) {
+            this.source = source;
+            this.valueCount = valueCount;
+            this.hash = hash;
+        }
+    }
+
+    private final File outputDir;
+    private final File manifestFile;
+    private final File changesFile;
+    private final String configHash;
+    private final String sharedHash;
+
+    /**
+     * Entries from the last run, by output path (relative to the output directory)
+     */
+    private final Map<String, Entry> previous = new TreeMap<>();
+
+    /**
+     * Entries for this run
+     */
+    private final Map<String, Entry> current = new ConcurrentHashMap<>();
+
+    /**
+     * Input hashes by source (such as main/fr), from the last run and for this run
+     */
+    private final Map<String, String> previousSources = new TreeMap<>();
+    private final Map<String, String> currentSources = new ConcurrentHashMap<>();
+    private final Set<String> processedSources = ConcurrentHashMap.newKeySet();
+    private final Set<String> written = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Read the manifest for this run type, if there is one
+     *
+     * @param outputDir the converter's output directory
+     * @param runType
+     * @param config all of the settings that affect the output, in a stable order
+     * @param sharedInputs files or directories read in converting every source, such as the supplemental data
+     * @throws IOException
+     */
+    JsonManifest(String outputDir, String runType, String config, List<File> sharedInputs) throws IOException {
+        this.outputDir = new File(outputDir);
+        manifestFile = new File(outputDir, MANIFEST_PREFIX + runType + ".txt");
+        changesFile = new File(outputDir, CHANGES_PREFIX + runType + ".txt");
+        configHash = Hashing.sha256().hashString(config, StandardCharsets.UTF_8).toString();
+        Hasher hasher = Hashing.sha256().newHasher();
+        for (File f : sharedInputs) {
+            putFiles(hasher, f);
+        }
+        sharedHash = hasher.hash().toString();
+        if (manifestFile.exists()) {
+            for (String line : Files.readLines(manifestFile, StandardCharsets.UTF_8)) {
+                String[] parts = line.split("\t");
+                if (parts.length == 3 && parts[0].equals(SOURCE_LINE)) {
+                    previousSources.put(parts[1], parts[2]);
+                } else if (parts.length == 4) {
+                    previous.put(parts[0], new Entry(parts[1], Integer.parseInt(parts[2]), parts[3]));
+                }
+            }
+        }
+    }
+
+    /**
+     * Add a file, or all of the files under a directory, to a hash, by name and content
+     */
+    private static void putFiles(Hasher hasher, File f) throws IOException {
+        if (f.isDirectory()) {
+            final File[] children = f.listFiles();
+            if (children != null) {
+                for (File child : new TreeSet<>(Arrays.asList(children))) {
+                    putFiles(hasher, child);
+                }
+            }
+        } else {
+            hasher.putString(f.getPath(), StandardCharsets.UTF_8).putByte((byte) 0);
+            if (f.exists()) {
+                hasher.putBytes(Files.toByteArray(f));
+            }
+            hasher.putByte((byte) 1);
+        }
+    }
+
+    /**
+     * Hash the input of one source file, before it is read
+     *
+     * @param inputs the source file, and the files it is resolved with (missing ones are hashed as missing)
+     * @return the hash
+     * @throws IOException
+     */
+    String hashSource(List<File> inputs) throws IOException {
+        Hasher hasher = Hashing.sha256().newHasher()
+            .putString(configHash, StandardCharsets.UTF_8)
+            .putString(sharedHash, StandardCharsets.UTF_8);
+        for (File f : inputs) {
+            putFiles(hasher, f);
+        }
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Check whether a source can be skipped without reading it: its input hash is unchanged since the last run,
+     * and all of the files it produced then are still there. Its files must then be kept with keepUnchanged.
+     *
+     * @param source such as main/fr
+     * @param hash from hashSource
+     * @return true if the source need not be read
+     */
+    boolean isSourceUnchanged(String source, String hash) {
+        if (!hash.equals(previousSources.get(source))) {
+            return false;
+        }
+        for (Map.Entry<String, Entry> e : previous.entrySet()) {
+            if (e.getValue().source.equals(source) && !new File(outputDir, e.getKey()).exists()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Record the input hash of a source converted (or skipped) in this run
+     *
+     * @param source such as main/fr
+     * @param hash from hashSource
+     */
+    void putSource(String source, String hash) {
+        currentSources.put(source, hash);
+    }
+
+    /**
+     * Keep an output file of an unchanged source as it is
+     *
+     * @param outPath the output file, relative to the output directory
+     * @param source such as main/fr
+     * @return the value count recorded when the file was written, or -1 if the source produced no such file
+     */
+    int keepUnchanged(String outPath, String source) {
+        final Entry e = previous.get(outPath);
+        if (e == null || !e.source.equals(source)) {
+            return -1;
+        }
+        current.put(outPath, e);
+        return e.valueCount;
+    }
+
+    /**
+     * Hash the input of one output file
+     *
+     * @param items the items of the section, before they are output
+     * @return the hash
+     */
+    String hash(List<CldrItem> items) {
+        Hasher hasher = Hashing.sha256().newHasher()
+            .putString(configHash, StandardCharsets.UTF_8);
+        for (CldrItem item : items) {
+            hasher.putString(item.getPath(), StandardCharsets.UTF_8).putByte((byte) 0)
+                .putString(item.getFullPath(), StandardCharsets.UTF_8).putByte((byte) 0)
+                .putString(item.getUntransformedPath(), StandardCharsets.UTF_8).putByte((byte) 0)
+                .putString(item.getValue(), StandardCharsets.UTF_8).putByte((byte) 1);
+        }
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Note that a source file was converted in this run, so that any of its old output files
+     * that were not produced again are removed.
+     *
+     * @param source such as main/fr
+     */
+    void processed(String source) {
+        processedSources.add(source);
+    }
+
+    /**
+     * Check whether an output file can be left as it is
+     *
+     * @param outPath the output file, relative to the output directory
+     * @param hash the hash of its input
+     * @return the value count recorded when the file was written, or -1 if it needs to be written
+     */
+    int getUnchangedCount(String outPath, String hash) {
+        final Entry e = previous.get(outPath);
+        if (e == null || !e.hash.equals(hash) || !new File(outputDir, outPath).exists()) {
+            return -1;
+        }
+        return e.valueCount;
+    }
+
+    /**
+     * Record an output file for this run
+     *
+     * @param outPath the output file, relative to the output directory
+     * @param source such as main/fr
+     * @param valueCount
+     * @param hash the hash of its input
+     * @param wasWritten true if the file was written in this run
+     */
+    void put(String outPath, String source, int valueCount, String hash, boolean wasWritten) {
+        current.put(outPath, new Entry(source, valueCount, hash));
+        if (wasWritten) {
+            written.add(outPath);
+        }
+    }
+
+    /**
+     * Remove the old output files of the processed sources that were not produced in this run,
+     * then write the manifest and the change list.
+     * Entries for sources that were not processed (such as those not matching -m) are kept.
+     *
+     * @return the number of files written or removed
+     * @throws IOException
+     */
+    int save() throws IOException {
+        final Map<String, Entry> all = new TreeMap<>(current);
+        final Set<String> removed = new TreeSet<>();
+        for (Map.Entry<String, Entry> e : previous.entrySet()) {
+            if (current.containsKey(e.getKey())) {
+                continue;
+            }
+            if (processedSources.contains(e.getValue().source)) {
+                removed.add(e.getKey());
+                new File(outputDir, e.getKey()).delete();
+            } else {
+                all.put(e.getKey(), e.getValue());
+            }
+        }
+        final Map<String, String> allSources = new TreeMap<>(previousSources);
+        allSources.keySet().removeAll(processedSources);
+        allSources.putAll(currentSources);
+        try (PrintWriter pw = new PrintWriter(manifestFile, StandardCharsets.UTF_8)) {
+            allSources.forEach((source, hash) -> pw.println(SOURCE_LINE + "\t" + source + "\t" + hash));
+            all.forEach((outPath, e) -> pw.println(outPath + "\t" + e.source + "\t" + e.valueCount + "\t" + e.hash));
+        }
+        try (PrintWriter pw = new PrintWriter(changesFile, StandardCharsets.UTF_8)) {
+            new TreeSet<>(written).forEach(outPath -> pw.println("+ " + outPath));
+            removed.forEach(outPath -> pw.println("- " + outPath));
+        }
+        return written.size() + removed.size();
+    }
+}
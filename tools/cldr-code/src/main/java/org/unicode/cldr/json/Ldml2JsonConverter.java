@@ -147,7 +147,9 @@ public class Ldml2JsonConverter {
                     "Whether to copy the identity info into all sections containing data")
                 .add("konfig", 'k', ".*", null, "LDML to JSON configuration file")
                 .add("pkgversion",  'V', ".*", getDefaultVersion(), "Version to be used in writing package files")
-                .add("Modern", 'M', "(true|false)", "true", "Whether to include the -modern tier");
+                .add("Modern", 'M', "(true|false)", "true", "Whether to include the -modern tier")
+                .add("incremental", 'I', "(true|false)", "false",
+                    "Whether to only write output files whose input changed since the last incremental run, per the manifest in the destination directory");
 
     public static void main(String[] args) throws Exception {
         options.parse(args, true);
@@ -188,7 +190,8 @@ public class Ldml2JsonConverter {
             options.get("pkgversion").getValue(),
             Boolean.parseBoolean(options.get("bcp47").getValue()),
             Boolean.parseBoolean(options.get("bcp47-no-subtags").getValue()),
-            Boolean.parseBoolean(options.get("Modern").getValue())
+            Boolean.parseBoolean(options.get("Modern").getValue()),
+            Boolean.parseBoolean(options.get("incremental").getValue())
         );
 
         DraftStatus status = DraftStatus.valueOf(options.get("draftstatus").getValue());
@@ -211,6 +214,10 @@ public class Ldml2JsonConverter {
     private boolean writePackages;
     // Type of run for this converter: main, supplemental, or segments
     final private RunType type;
+    // Whether to skip output files whose input is unchanged since the last run
+    final private boolean incremental;
+    // The manifest of output files, during an incremental run
+    private JsonManifest manifest = null;
 
     static class JSONSection implements Comparable<JSONSection> {
         public String section;
@@ -234,8 +241,9 @@ public class Ldml2JsonConverter {
 
     public Ldml2JsonConverter(String cldrDir, String outputDir, String runType, boolean fullNumbers, boolean resolve, String coverage, String match,
         boolean writePackages, String configFile, String pkgVersion,
-        boolean strictBcp47, boolean skipBcp47LocalesWithSubtags, boolean writeModernPackage) {
+        boolean strictBcp47, boolean skipBcp47LocalesWithSubtags, boolean writeModernPackage, boolean incremental) {
         this.writeModernPackage = writeModernPackage;
+        this.incremental = incremental;
         this.strictBcp47 = strictBcp47;
         this.skipBcp47LocalesWithSubtags = strictBcp47 && skipBcp47LocalesWithSubtags;
         this.cldrCommonDir = cldrDir;
@@ -501,10 +509,9 @@ public class Ldml2JsonConverter {
     /**
      * Convert CLDR's XML data to JSON format.
      *
-     * @param file
-     *            CLDRFile object.
-     * @param outFilename
-     *            The file name used to save JSON data.
+     * @param sectionItems
+     *            The items of the file by section, or null to keep the files from the last
+     *            incremental run, when the source is unchanged.
      * @throws IOException
      * @throws ParseException
      * @return total items written in all files. (if 0, file had no effect)
@@ -609,6 +616,16 @@ public class Ldml2JsonConverter {
                 }
 
                 for (String outputDir : outputDirs) {
+                    String outPath = new File(outputDir.substring(this.outputDir.length()), outFilename).getPath();
+                    if (sectionItems == null) {
+                        // the source is unchanged since the last incremental run: keep its files
+                        final int unchangedCount = manifest.keepUnchanged(outPath, dirName + "/" + filename);
+                        if (unchangedCount >= 0) {
+                            outputProgress.add(Pair.of(js.section + ' ' + outPath + " (unchanged)", unchangedCount));
+                            totalItemsInFile += unchangedCount;
+                        }
+                        continue;
+                    }
                     List<CldrItem> theItems = sectionItems.get(js);
                     if (theItems == null || theItems.size() == 0) {
                         logger.fine(() -> ">" + progressPrefix(readCount, totalCount) +
@@ -617,6 +634,17 @@ public class Ldml2JsonConverter {
                     }
                     logger.fine(() -> ("?" + progressPrefix(readCount, totalCount, filename, js.section) +
                          " - " + theItems.size() + " item(s)" + "\r"));
+                    String inputHash = null;
+                    if (manifest != null) {
+                        inputHash = manifest.hash(theItems);
+                        final int unchangedCount = manifest.getUnchangedCount(outPath, inputHash);
+                        if (unchangedCount >= 0) {
+                            manifest.put(outPath, dirName + "/" + filename, unchangedCount, inputHash, false);
+                            outputProgress.add(Pair.of(js.section + ' ' + outPath + " (unchanged)", unchangedCount));
+                            totalItemsInFile += unchangedCount;
+                            continue;
+                        }
+                    }
                     // Create the output dir if it doesn't exist
                     File dir = new File(outputDir.toString());
                     if (!dir.exists()) {
@@ -721,7 +749,9 @@ public class Ldml2JsonConverter {
                         outf.println(gson.toJson(out));
                     }
 
-                    String outPath = new File(outputDir.substring(this.outputDir.length()), outFilename).getPath();
+                    if (manifest != null) {
+                        manifest.put(outPath, dirName + "/" + filename, valueCount, inputHash, true);
+                    }
                     outputProgress.add(Pair.of(js.section+' '+outPath, valueCount));
                     logger.fine(">" + progressPrefix(readCount, totalCount, filename, js.section) + String.format("…%s (%d values)",
                         outPath, valueCount));
@@ -1695,6 +1725,8 @@ public class Ldml2JsonConverter {
         final int total = files.size();
         AtomicInteger readCount = new AtomicInteger(0);
         Map<String, Throwable> errs = new TreeMap<>();
+        manifest = incremental ? new JsonManifest(outputDir, type.name(), getManifestConfig(dirName, minimalDraftStatus),
+            Arrays.asList(new File(cldrCommonDir + "supplemental"), new File(cldrCommonDir + "dtd"))) : null;
 
         // This takes a long time (minutes, in 2020), so run it in parallel forkJoinPool threads.
         // The result of this pipeline is an array of toString()-able filenames of XML files which
@@ -1705,12 +1737,8 @@ public class Ldml2JsonConverter {
             .unordered()
             .map(filename -> {
                 String pathPrefix;
-                CLDRFile file = cldrFactory.make(filename, resolve && type == RunType.main, minimalDraftStatus);
-                // Print 'reading' after the make, to stagger the output a little bit.
-                // Otherwise, the printout happens before any work happens, and is easily out of order.
-                readCount.incrementAndGet();
-                logger.fine(() -> "<" + progressPrefix(readCount, total, dirName, filename) + "\r");
-
+                final boolean resolveFile = resolve && type == RunType.main;
+                final String source = dirName + "/" + filename;
                 if (type == RunType.main) {
                     pathPrefix = "/cldr/" + dirName + "/" + unicodeLocaleToString(filename) + "/";
                 } else {
@@ -1718,8 +1746,25 @@ public class Ldml2JsonConverter {
                 }
                 int totalForThisFile = 0;
                 try {
-                    totalForThisFile = convertCldrItems(readCount, total, dirName, filename, pathPrefix,
-                        mapPathsToSections(readCount, total, file, pathPrefix, sdi));
+                    // In an incremental run, check the inputs before reading and resolving the file
+                    final String sourceHash = (manifest == null) ? null
+                        : manifest.hashSource(getSourceFiles(dirName, filename, resolveFile));
+                    if (sourceHash != null && manifest.isSourceUnchanged(source, sourceHash)) {
+                        readCount.incrementAndGet();
+                        totalForThisFile = convertCldrItems(readCount, total, dirName, filename, pathPrefix, null);
+                    } else {
+                        CLDRFile file = cldrFactory.make(filename, resolveFile, minimalDraftStatus);
+                        // Print 'reading' after the make, to stagger the output a little bit.
+                        // Otherwise, the printout happens before any work happens, and is easily out of order.
+                        readCount.incrementAndGet();
+                        logger.fine(() -> "<" + progressPrefix(readCount, total, dirName, filename) + "\r");
+                        totalForThisFile = convertCldrItems(readCount, total, dirName, filename, pathPrefix,
+                            mapPathsToSections(readCount, total, file, pathPrefix, sdi));
+                    }
+                    if (manifest != null) {
+                        manifest.putSource(source, sourceHash);
+                        manifest.processed(source);
+                    }
                 } catch (IOException | ParseException t) {
                     t.printStackTrace();
                     System.err.println("!" + progressPrefix(readCount, total) + filename + " - err - " + t);
@@ -1765,6 +1810,11 @@ public class Ldml2JsonConverter {
             }
         }
 
+        if (manifest != null) {
+            System.out.println("Incremental: " + manifest.save() + " file(s) written or removed, listed in "
+                + outputDir + "/ldml2json-changes-" + type + ".txt");
+        }
+
         if (writePackages) {
             for (String currentPackage : packages) {
                 writePackagingFiles(outputDir, currentPackage);
@@ -1783,6 +1833,45 @@ public class Ldml2JsonConverter {
         }
     }
 
+    /**
+     * The files a source file is converted from, for the incremental manifest: the file itself,
+     * and, if it is resolved, the files of its parent locales up to root.
+     */
+    private List<File> getSourceFiles(String dirName, String filename, boolean resolveFile) {
+        List<File> result = new ArrayList<>();
+        for (String loc = filename; loc != null; loc = resolveFile ? LocaleIDParser.getParent(loc, false) : null) {
+            result.add(new File(cldrCommonDir + dirName + "/" + loc + ".xml"));
+        }
+        return result;
+    }
+
+    /**
+     * All of the settings that affect the output of processDirectory, for the incremental manifest.
+     * The locales to match are not included, since they only select which files are converted.
+     */
+    private String getManifestConfig(String dirName, DraftStatus minimalDraftStatus) {
+        StringBuilder sb = new StringBuilder()
+            .append("dir=").append(dirName)
+            .append(";type=").append(type)
+            .append(";draft=").append(minimalDraftStatus)
+            .append(";fullNumbers=").append(fullNumbers)
+            .append(";resolve=").append(resolve)
+            .append(";coverage=").append(coverageValue)
+            .append(";packages=").append(writePackages)
+            .append(";pkgVersion=").append(pkgVersion)
+            .append(";bcp47=").append(strictBcp47)
+            .append(";noSubtags=").append(skipBcp47LocalesWithSubtags)
+            .append(";modern=").append(writeModernPackage)
+            .append(";other=").append(options.get("other").getValue())
+            .append(";identity=").append(options.get("identity").getValue())
+            .append('\n');
+        for (JSONSection js : sections) {
+            sb.append(js.section).append('\t').append(js.pattern.pattern()).append('\t').append(js.packageName).append('\n');
+        }
+        sb.append(new TreeMap<>(dependencies)).append('\n');
+        return sb.toString();
+    }
+
     /**
      * Replacement pattern for escaping.
      */
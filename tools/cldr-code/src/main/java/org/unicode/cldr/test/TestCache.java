@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.unicode.cldr.test.CheckCLDR.CheckStatus;
 import org.unicode.cldr.test.CheckCLDR.Options;
@@ -61,9 +62,11 @@ public class TestCache implements XMLSource.Listener {
              Pair<String, String> key = new Pair<>(path, value);
              List<CheckStatus> cachedResult = pathCache.get(key);
              if (cachedResult != null) {
+                 checkHits.increment();
                  result.addAll(cachedResult);
              }
              else {
+                 checkMisses.increment();
                  cc.check(path, file.getFullXPath(path), value, options, result);
                  pathCache.put(key, ImmutableList.copyOf(result));
              }
@@ -80,6 +83,50 @@ public class TestCache implements XMLSource.Listener {
 
     private static final boolean DEBUG = false;
 
+    /**
+     * Cache statistics, across all instances, for monitoring
+     */
+    private static final LongAdder bundleHits = new LongAdder();
+    private static final LongAdder bundleMisses = new LongAdder();
+    private static final LongAdder checkHits = new LongAdder();
+    private static final LongAdder checkMisses = new LongAdder();
+    private static final LongAdder exampleGeneratorHits = new LongAdder();
+    private static final LongAdder exampleGeneratorMisses = new LongAdder();
+
+    private static double hitRatio(LongAdder hits, LongAdder misses) {
+        final long h = hits.sum();
+        final long total = h + misses.sum();
+        return (total == 0) ? 0.0 : (double) h / total;
+    }
+
+    /**
+     * @return the fraction of getBundle calls that found a cached bundle
+     */
+    public static double getBundleHitRatio() {
+        return hitRatio(bundleHits, bundleMisses);
+    }
+
+    /**
+     * @return the fraction of TestResultBundle.check calls that found a cached result
+     */
+    public static double getCheckHitRatio() {
+        return hitRatio(checkHits, checkMisses);
+    }
+
+    /**
+     * @return the fraction of getExampleGenerator calls that found a cached ExampleGenerator
+     */
+    public static double getExampleGeneratorHitRatio() {
+        return hitRatio(exampleGeneratorHits, exampleGeneratorMisses);
+    }
+
+    /**
+     * @return the number of cached ExampleGenerators
+     */
+    public static long getExampleGeneratorCount() {
+        return exampleGeneratorCache.size();
+    }
+
     /*
      * TODO: document whether CLDR_TESTCACHE_SIZE is set on production server, and if so to what, and why;
      * evaluate why the fallback 12 for CLDR_TESTCACHE_SIZE is appropriate or too small. Consider not
@@ -104,10 +151,13 @@ public class TestCache implements XMLSource.Listener {
              System.err.println("Bundle " + b + " for " + options + " in " + this.toString());
          }
          if (b == null) {
+             bundleMisses.increment();
              // ElapsedTimer et = new ElapsedTimer("New test bundle " + locale + " opt " + options);
              b = new TestResultBundle(options);
              // System.err.println(et.toString());
              testResultCache.put(options, b);
+         } else {
+             bundleHits.increment();
          }
          return b;
     }
@@ -274,7 +324,10 @@ public class TestCache implements XMLSource.Listener {
          */
         String locString = locale.toString();
         ExampleGenerator eg = exampleGeneratorCache.getIfPresent(locString);
-        if (eg == null) {
+        if (eg != null) {
+            exampleGeneratorHits.increment();
+        } else {
+            exampleGeneratorMisses.increment();
             synchronized(exampleGeneratorCache) {
                 eg = exampleGeneratorCache.getIfPresent(locString);
                 if (eg == null) {
@@ -5,6 +5,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
@@ -12,8 +13,9 @@ import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
-import java.util.regex.Matcher;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import org.unicode.cldr.tool.Option.Options;
@@ -39,13 +41,16 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedSet;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.google.common.io.Files;
 import com.ibm.icu.util.Output;
 
 public class GenerateProductionData {
     private static boolean DEBUG = false;
     private static boolean VERBOSE = false;
-    private static Matcher FILE_MATCH = null;
+    private static Pattern FILE_MATCH = null;
 
     private static String SOURCE_COMMON_DIR = null;
     private static String DEST_COMMON_DIR = null;
@@ -57,6 +62,9 @@ public class GenerateProductionData {
     private static boolean INCLUDE_COMPREHENSIVE = false;
     private static boolean CONSTRAINED_RESTORATION = false;
 
+    private static boolean PARALLEL = false;
+    private static InputHashes INPUT_HASHES = null; // null unless incremental
+
     private static final Set<String> NON_XML = ImmutableSet.of("dtd", "properties", "testData", "uca");
     private static final Set<String> COPY_ANYWAY = ImmutableSet.of("casing", "collation"); // don't want to "clean up", makes format difficult to use
     private static final SupplementalDataInfo SDI = CLDRConfig.getInstance().getSupplementalDataInfo();
@@ -101,6 +109,14 @@ public class GenerateProductionData {
         fileMatch(new Params()
             .setHelp("regex to match patterns")
             .setMatch(".*")),
+        parallel(new Params()
+            .setHelp("process the files in each directory in parallel")
+            .setDefault("true")
+            .setMatch("true|false")),
+        incremental(new Params()
+            .setHelp("skip files whose inputs are unchanged since the last incremental run")
+            .setDefault("false")
+            .setMatch("true|false")),
         ;
 
         // BOILERPLATE TO COPY
@@ -134,7 +150,7 @@ public class GenerateProductionData {
         DEBUG = MyOptions.Debug.option.doesOccur();
         String fileMatch = MyOptions.fileMatch.option.getValue();
         if (fileMatch != null) {
-            FILE_MATCH = Pattern.compile(fileMatch).matcher("");
+            FILE_MATCH = Pattern.compile(fileMatch);
         }
 
         // controls for minimization
@@ -147,6 +163,11 @@ public class GenerateProductionData {
         INCLUDE_COMPREHENSIVE = "true".equalsIgnoreCase(MyOptions.includeComprehensive.option.getValue());
         CONSTRAINED_RESTORATION = "true".equalsIgnoreCase(MyOptions.constrainedRestoration.option.getValue());
 
+        PARALLEL = "true".equalsIgnoreCase(MyOptions.parallel.option.getValue());
+        if ("true".equalsIgnoreCase(MyOptions.incremental.option.getValue())) {
+            INPUT_HASHES = new InputHashes(new File(new File(DEST_COMMON_DIR).getParentFile(), "production-input-hashes.txt"));
+        }
+
         // get directories
 
         Arrays.asList(DtdType.values())
@@ -165,6 +186,9 @@ public class GenerateProductionData {
                 copyFilesAndReturnIsEmpty(sourceDir, destinationDir, null, isLdmlDtdType, stats);
             }
         });
+        if (INPUT_HASHES != null) {
+            INPUT_HASHES.save();
+        }
     }
 
     private static class Stats {
@@ -172,14 +196,23 @@ public class GenerateProductionData {
         long removed;
         long retained;
         long remaining;
+        long skipped;
         Stats clear() {
-            files = removed = retained = remaining = 0;
+            files = removed = retained = remaining = skipped = 0;
             return this;
         }
+        synchronized void add(Stats other) {
+            files += other.files;
+            removed += other.removed;
+            retained += other.retained;
+            remaining += other.remaining;
+            skipped += other.skipped;
+        }
         @Override
         public String toString() {
             return
                 "files=" + files
+                + (skipped == 0 ? "" : "; skipped=" + skipped)
                 + (removed + retained + remaining == 0 ? ""
                     : "; removed=" + removed
                     + "; retained=" + retained
@@ -207,14 +240,18 @@ public class GenerateProductionData {
         if (sourceFile.isDirectory()) {
 
             System.out.println(sourceFile + " => " + destinationFile);
-            if (!destinationFile.mkdirs()) {
-                // if created, remove old contents
-                 Arrays.stream(destinationFile.listFiles()).forEach(File::delete);
-            }
 
             Set<String> sorted = new TreeSet<>();
             sorted.addAll(Arrays.asList(sourceFile.list()));
 
+            if (!destinationFile.mkdirs()) {
+                // if created, remove old contents
+                // (but when incremental, only those that are no longer in the source, since unchanged files are skipped)
+                Arrays.stream(destinationFile.listFiles())
+                    .filter(f -> INPUT_HASHES == null || !sorted.contains(f.getName()))
+                    .forEach(File::delete);
+            }
+
             if (COPY_ANYWAY.contains(sourceFile.getName())) { // special cases
                 isLdmlDtdType = false;
             }
@@ -228,12 +265,12 @@ public class GenerateProductionData {
             boolean isRbnfDir = factory != null && sourceFile.getName().contentEquals("rbnf");
             boolean isAnnotationsDir = factory != null && sourceFile.getName().startsWith("annotations");
 
-            Set<String> emptyLocales = new HashSet<>();
+            Set<String> emptyLocales = ConcurrentHashMap.newKeySet();
             final Stats stats2 = new Stats();
             final Factory theFactory = factory;
             final boolean isLdmlDtdType2 = isLdmlDtdType;
-            sorted
-                //.parallelStream()
+            // Each file is a separate unit of work, with its own Stats
+            (PARALLEL ? sorted.parallelStream() : sorted.stream())
                 .forEach(file -> {
                     File sourceFile2 = new File(sourceFile, file);
                     File destinationFile2 = new File(destinationFile, file);
@@ -250,7 +287,9 @@ public class GenerateProductionData {
                     }
 
                     // when the currFactory is null, we just copy files as-is
-                    boolean isEmpty = copyFilesAndReturnIsEmpty(sourceFile2, destinationFile2, currFactory, isLdmlDtdType2, stats2);
+                    final Stats fileStats = new Stats();
+                    boolean isEmpty = copyFilesAndReturnIsEmpty(sourceFile2, destinationFile2, currFactory, isLdmlDtdType2, fileStats);
+                    stats2.add(fileStats);
                     if (isEmpty) { // only happens for ldml
                         emptyLocales.add(file.substring(0,file.length()-4)); // remove .xml for localeId
                     }
@@ -273,7 +312,15 @@ public class GenerateProductionData {
             }
             String localeId = file.substring(0, file.length()-4);
             if (FILE_MATCH != null) {
-                if (!FILE_MATCH.reset(localeId).matches()) {
+                if (!FILE_MATCH.matcher(localeId).matches()) {
+                    return false;
+                }
+            }
+            String inputHash = null;
+            if (INPUT_HASHES != null) {
+                inputHash = INPUT_HASHES.getInputHash(sourceFile, localeId);
+                if (INPUT_HASHES.isUnchanged(sourceFile, inputHash, destinationFile)) {
+                    ++stats.skipped;
                     return false;
                 }
             }
@@ -457,13 +504,16 @@ public class GenerateProductionData {
             } catch (FileNotFoundException e) {
                 throw new UncheckedIOException("Can't copy " + sourceFile + " to " + destinationFile + " — ", e);
             }
+            if (INPUT_HASHES != null) {
+                INPUT_HASHES.put(sourceFile, inputHash, !gotOne);
+            }
             return !gotOne;
         } else {
             if (FILE_MATCH != null) {
                 String file = sourceFile.getName();
                 int dotPos = file.lastIndexOf('.');
                 String baseName = dotPos >= 0 ? file.substring(0, file.length()-dotPos) : file;
-                if (!FILE_MATCH.reset(baseName).matches()) {
+                if (!FILE_MATCH.matcher(baseName).matches()) {
                     return false;
                 }
             }
@@ -474,6 +524,111 @@ public class GenerateProductionData {
         }
     }
 
+    /**
+     * Hashes of the inputs to each minimized file, for incremental generation.
+     * <br>The inputs of a file are its source, the files in the same directory that it inherits from
+     * (so root, and any parent locales), the supplemental data and DTDs, and the minimization options.
+     * A file is skipped if its input hash is the same as in the last run and its output is still there.
+     * Files that came out empty are always regenerated, since whether they are kept depends on other locales.
+     * <br>Changes to this tool itself are not detected; run without incremental after updating it.
+     */
+    private static class InputHashes {
+        private final File hashFile;
+        private final Map<String, String> hashes = new ConcurrentHashMap<>();
+        private final Map<File, HashCode> fileHashes = new ConcurrentHashMap<>();
+        private final HashCode commonHash;
+
+        InputHashes(File hashFile) {
+            this.hashFile = hashFile;
+            if (hashFile.exists()) {
+                try {
+                    for (String line : Files.readLines(hashFile, StandardCharsets.UTF_8)) {
+                        String[] parts = line.split("\t");
+                        if (parts.length == 2) {
+                            hashes.put(parts[0], parts[1]);
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            Hasher hasher = Hashing.sha256().newHasher()
+                .putString("logicalGroups=" + ADD_LOGICAL_GROUPS
+                    + ";time=" + ADD_DATETIME
+                    + ";sideways=" + ADD_SIDEWAYS
+                    + ";root=" + ADD_ROOT
+                    + ";comprehensive=" + INCLUDE_COMPREHENSIVE
+                    + ";constrained=" + CONSTRAINED_RESTORATION, StandardCharsets.UTF_8);
+            for (String dir : Arrays.asList("supplemental", "dtd")) {
+                File[] files = new File(SOURCE_COMMON_DIR, dir).listFiles();
+                if (files == null) {
+                    continue;
+                }
+                Arrays.sort(files);
+                for (File f : files) {
+                    if (f.isFile()) {
+                        hasher.putString(f.getName(), StandardCharsets.UTF_8).putBytes(hash(f).asBytes());
+                    }
+                }
+            }
+            commonHash = hasher.hash();
+        }
+
+        private HashCode hash(File file) {
+            return fileHashes.computeIfAbsent(file, f -> {
+                try {
+                    return Files.asByteSource(f).hash(Hashing.sha256());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+
+        private static String key(File sourceFile) {
+            return sourceFile.getParentFile().getName() + "/" + sourceFile.getName();
+        }
+
+        String getInputHash(File sourceFile, String localeId) {
+            Set<String> ancestors = new TreeSet<>();
+            for (String parent = LocaleIDParser.getParent(localeId); parent != null; parent = LocaleIDParser.getParent(parent)) {
+                ancestors.add(parent);
+            }
+            for (String parent = LocaleIDParser.getParent(localeId, true); parent != null; parent = LocaleIDParser.getParent(parent, true)) {
+                ancestors.add(parent);
+            }
+            Hasher hasher = Hashing.sha256().newHasher()
+                .putBytes(commonHash.asBytes())
+                .putBytes(hash(sourceFile).asBytes());
+            for (String ancestor : ancestors) {
+                File ancestorFile = new File(sourceFile.getParentFile(), ancestor + ".xml");
+                if (ancestorFile.exists()) {
+                    hasher.putString(ancestor, StandardCharsets.UTF_8).putBytes(hash(ancestorFile).asBytes());
+                }
+            }
+            return hasher.hash().toString();
+        }
+
+        boolean isUnchanged(File sourceFile, String inputHash, File destinationFile) {
+            return inputHash.equals(hashes.get(key(sourceFile))) && destinationFile.exists();
+        }
+
+        void put(File sourceFile, String inputHash, boolean isEmpty) {
+            if (isEmpty) {
+                hashes.remove(key(sourceFile));
+            } else {
+                hashes.put(key(sourceFile), inputHash);
+            }
+        }
+
+        void save() {
+            try (PrintWriter pw = new PrintWriter(hashFile, StandardCharsets.UTF_8)) {
+                new TreeMap<>(hashes).forEach((key, hash) -> pw.println(key + "\t" + hash));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
     private static void showIfNonZero(String localeId, String title, Set<String> toRemove) {
         if (toRemove.size() != 0) {
             System.out.println(localeId + ": "
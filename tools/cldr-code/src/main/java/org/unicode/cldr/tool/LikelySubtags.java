@@ -6,6 +6,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -19,17 +20,36 @@ import org.unicode.cldr.util.SupplementalDataInfo.BasicLanguageData.Type;
 import org.unicode.cldr.util.SupplementalDataInfo.CurrencyDateInfo;
 import org.unicode.cldr.util.SupplementalDataInfo.PopulationData;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableMap;
 import com.ibm.icu.impl.Row;
 import com.ibm.icu.impl.Row.R2;
 
+/**
+ * Maximizes and minimizes language tags. Thread-safe: the data is immutable,
+ * and results are kept in bounded caches, so repeated tags are not reparsed.
+ */
 public class LikelySubtags {
     static final boolean DEBUG = true;
     static final String TAG_SEPARATOR = "_";
+    private static final int CACHE_SIZE = 10_000;
 
-    private boolean favorRegion = false;
+    private volatile boolean favorRegion = false;
     private final Map<String, String> toMaximized;
 
+    /**
+     * Results of maximize, by tag. Empty if the tag can't be maximized.
+     */
+    private final Cache<String, Optional<String>> maximized = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+
+    /**
+     * Results of minimize, by favorRegion, output option and tag.
+     */
+    private final Cache<String, Optional<String>> minimized = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+
     /**
      * Create the likely subtags.
      *
@@ -48,7 +68,7 @@ public class LikelySubtags {
             return SINGLETON;
         }
         private final SupplementalDataInfo supplementalDataInfo = CLDRConfig.getInstance().getSupplementalDataInfo();
-        private final Map<String, String> defaultToMaximized = supplementalDataInfo.getLikelySubtags();
+        private final Map<String, String> defaultToMaximized = ImmutableMap.copyOf(supplementalDataInfo.getLikelySubtags());
         private final Map<String, String> currencyToLikelyTerritory;
 
         private LikelySubtagsData() {
@@ -92,7 +112,7 @@ public class LikelySubtags {
     }
 
     public LikelySubtags setFavorRegion(boolean favorRegion) {
-        this.favorRegion = favorRegion;
+        this.favorRegion = favorRegion; // part of the minimized key, so nothing needs to be flushed
         return this;
     }
 
@@ -100,26 +120,60 @@ public class LikelySubtags {
         return toMaximized;
     }
 
+    /**
+     * Instances for the static methods, by map identity: without and with favorRegion.
+     * Callers pass the same (unchanging) map over and over, such as SupplementalDataInfo.getLikelySubtags(),
+     * so they share the caches.
+     */
+    private static final LoadingCache<Map<String, String>, LikelySubtags[]> FOR_MAP = CacheBuilder.newBuilder()
+        .weakKeys() // compares keys by identity
+        .maximumSize(100)
+        .build(new CacheLoader<Map<String, String>, LikelySubtags[]>() {
+            @Override
+            public LikelySubtags[] load(Map<String, String> toMaximized) {
+                return newPair(toMaximized);
+            }
+        });
+
+    private static final class DefaultPair {
+        private static final LikelySubtags[] INSTANCE = newPair(null);
+    }
+
+    private static LikelySubtags[] newPair(Map<String, String> toMaximized) {
+        final LikelySubtags plain = new LikelySubtags(toMaximized);
+        return new LikelySubtags[] { plain, new LikelySubtags(plain.getToMaximized()).setFavorRegion(true) };
+    }
+
+    private static LikelySubtags forMap(Map<String, String> toMaximized, boolean favorRegion) {
+        final LikelySubtags[] pair = toMaximized == null ? DefaultPair.INSTANCE : FOR_MAP.getUnchecked(toMaximized);
+        return pair[favorRegion ? 1 : 0];
+    }
+
     public static String maximize(String languageTag, Map<String, String> toMaximized) {
-        return new LikelySubtags(toMaximized).maximize(languageTag);
+        return forMap(toMaximized, false).maximize(languageTag);
     }
 
     public static String minimize(String input, Map<String, String> toMaximized, boolean favorRegion) {
-        return new LikelySubtags(toMaximized).setFavorRegion(favorRegion).minimize(input);
+        return forMap(toMaximized, favorRegion).minimize(input);
     }
 
     // TODO Old, crufty code, needs reworking.
-    public synchronized String maximize(String languageTag) {
+    public String maximize(String languageTag) {
         if (languageTag == null) {
             return null;
         }
-        LanguageTagParser ltp = new LanguageTagParser();
-        if (DEBUG && languageTag.equals("es" + TAG_SEPARATOR + "Hans" + TAG_SEPARATOR + "CN")) {
-            System.out.print(""); // debug
+        Optional<String> result = maximized.getIfPresent(languageTag);
+        if (result == null) {
+            LanguageTagParser ltp = new LanguageTagParser();
+            if (DEBUG && languageTag.equals("es" + TAG_SEPARATOR + "Hans" + TAG_SEPARATOR + "CN")) {
+                System.out.print(""); // debug
+            }
+            // clean up the input by removing Zzzz, ZZ, and changing "" into und.
+            ltp.set(languageTag);
+            result = Optional.ofNullable(maximize(ltp));
+            maximized.put(languageTag, result);
         }
-        // clean up the input by removing Zzzz, ZZ, and changing "" into und.
-        ltp.set(languageTag);
-        return maximize(ltp);
+        return result.orElse(null);
     }
 
     /** Maximize to a string (modifying the LanguageTagParser in so doing) */
@@ -231,8 +285,19 @@ public class LikelySubtags {
         return minimize(input, OutputOption.ICU_LCVARIANT);
     }
 
-    public synchronized String minimize(String input, OutputOption oo) {
-        String maximized = maximize(input, toMaximized);
+    public String minimize(String input, OutputOption oo) {
+        final boolean favorRegion = this.favorRegion; // read once, so that the key matches the result
+        final String key = favorRegion + TAG_SEPARATOR + oo + TAG_SEPARATOR + input;
+        Optional<String> result = minimized.getIfPresent(key);
+        if (result == null) {
+            result = Optional.ofNullable(minimizeUncached(input, oo, favorRegion));
+            minimized.put(key, result);
+        }
+        return result.orElse(null);
+    }
+
+    private String minimizeUncached(String input, OutputOption oo, boolean favorRegion) {
+        String maximized = maximize(input);
         if (maximized == null) {
             return null;
         }
@@ -259,7 +324,7 @@ public class LikelySubtags {
             language + TAG_SEPARATOR + (favorRegion ? region : script),
             language + TAG_SEPARATOR + (!favorRegion ? region : script) };
         for (String trial : trials) {
-            String newMaximized = maximize(trial, toMaximized);
+            String newMaximized = maximize(trial);
             if (maximizedCheck.equals(newMaximized)) {
                 if (variants.isEmpty() && extensions.isEmpty() && localeExtensions.isEmpty()) {
                     return trial;
@@ -7,11 +7,19 @@ package org.unicode.cldr.tool.resolver;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.PrintWriter;
+import java.io.UncheckedIOException;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
 
 import org.unicode.cldr.tool.FilterFactory;
 import org.unicode.cldr.tool.Option;
@@ -26,6 +34,8 @@ import org.unicode.cldr.util.SimpleXMLSource;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.TreeMultimap;
 
 /**
  * Class designed for the resolution of CLDR XML Files (e.g., removing aliases
@@ -60,7 +70,9 @@ public class CldrResolver {
                 .add("mindraftstatus", 'm', ".*", "unconfirmed", "The minimum draft status")
                 .add("verbosity", 'v', "\\d", "2", "The verbosity level for comments during generation")
                 .add("usealtvalues", 'a', null, null, "Use alternate values in FilterFactory for the locale data to be resolved.")
-                .add("organization", 'o', ".*", null, "Filter by this organization's coverage level");
+                .add("organization", 'o', ".*", null, "Filter by this organization's coverage level")
+                .add("threads", 't', "\\d+", String.valueOf(Runtime.getRuntime().availableProcessors()),
+                    "The number of locales to resolve at once");
 
     /* Private instance variables */
     private Factory cldrFactory;
@@ -133,7 +145,13 @@ public class CldrResolver {
 
         // Perform the resolution
         String localeRegex = options.get("locale").getValue();
-        resolver.resolve(localeRegex, destDir);
+        int threads = Integer.parseInt(options.get("threads").getValue());
+        try {
+            resolver.resolve(localeRegex, new File(destDir), threads);
+        } catch (UncheckedIOException e) {
+            ResolverUtils.debugPrintln("\n" + e.getMessage(), 1);
+            System.exit(1);
+        }
         ResolverUtils.debugPrintln("Execution complete.", 3);
     }
 
@@ -237,6 +255,38 @@ public class CldrResolver {
                 ancestors.add(resolveLocale(parentLocale));
             } while (!parentLocale.equals(ROOT));
         }
+        if (ancestors.isEmpty()) {
+            return resolveLocaleInternal(file, resolutionType, null, null);
+        }
+        Map<String, String> parentValues = new HashMap<>();
+        CLDRFile parent = ancestors.get(0);
+        for (String distinguishedPath : ResolverUtils.getAllPaths(parent)) {
+            parentValues.put(distinguishedPath, parent.getStringValue(distinguishedPath));
+        }
+        return resolveLocaleInternal(file, resolutionType, distinguishedPath -> {
+            for (CLDRFile ancestor : ancestors) {
+                String parentValue = ancestor.getStringValue(distinguishedPath);
+                if (parentValue != null) {
+                    return parentValue;
+                }
+            }
+            return null;
+        }, parentValues);
+    }
+
+    /**
+     * Resolve one locale
+     *
+     * @param file the resolved locale
+     * @param resolutionType
+     * @param inheritedValue for simple resolution, gets the value an ancestor has for a path (or null),
+     *        from the simple-resolved ancestors; otherwise null
+     * @param parentValues for simple resolution, the simple-resolved values of the parent; otherwise null
+     * @return the resolved data
+     */
+    private CLDRFile resolveLocaleInternal(CLDRFile file, ResolutionType resolutionType,
+        Function<String, String> inheritedValue, Map<String, String> parentValues) {
+        String locale = file.getLocaleID();
 
         // Create empty file to hold (partially or fully) resolved data.
         CLDRFile resolved = new CLDRFile(new SimpleXMLSource(locale));
@@ -268,11 +318,7 @@ public class CldrResolver {
             // locale contains the same path with the same value.
             String baseValue = file.getStringValue(distinguishedPath);
             if (resolutionType == ResolutionType.SIMPLE) {
-                String parentValue = null;
-                for (CLDRFile ancestor : ancestors) {
-                    parentValue = ancestor.getStringValue(distinguishedPath);
-                    if (parentValue != null) break;
-                }
+                String parentValue = inheritedValue == null ? null : inheritedValue.apply(distinguishedPath);
                 ResolverUtils.debugPrintln(
                     "    Parent value : " + ResolverUtils.strRep(parentValue), 5);
                 if (areEqual(parentValue, baseValue)) continue;
@@ -286,15 +332,15 @@ public class CldrResolver {
         }
 
         // Sanity check in simple resolution to make sure that all paths in the parent are also in the child.
-        if (ancestors.size() > 0) {
-            CLDRFile ancestor = ancestors.get(0);
+        if (parentValues != null) {
             ResolverUtils.debugPrintln(
-                "Adding UNDEFINED values based on ancestor: " + ancestor.getLocaleID(), 3);
-            for (String distinguishedPath : ResolverUtils.getAllPaths(ancestor)) {
+                "Adding UNDEFINED values based on parent of: " + locale, 3);
+            for (Map.Entry<String, String> entry : parentValues.entrySet()) {
+                String distinguishedPath = entry.getKey();
                 // Do the comparison with distinguished paths to prevent errors
                 // resulting from duplicate full paths but the same distinguished path
                 if (!basePaths.contains(distinguishedPath) &&
-                    !ancestor.getStringValue(distinguishedPath).equals(CldrUtility.NO_INHERITANCE_MARKER)) {
+                    !entry.getValue().equals(CldrUtility.NO_INHERITANCE_MARKER)) {
                     ResolverUtils.debugPrintln(
                         "Added UNDEFINED value for path: " + distinguishedPath, 4);
                     resolved.add(distinguishedPath, CldrUtility.NO_INHERITANCE_MARKER);
@@ -304,6 +350,136 @@ public class CldrResolver {
         return resolved;
     }
 
+    /**
+     * Resolves all locales that match the given regular expression and outputs
+     * their XML files to the given directory, resolving several locales at once.
+     * <p>
+     * Each file is written as soon as its locale is resolved, and is not kept.
+     * For simple resolution, a locale is resolved once its parent is done (ancestors
+     * that don't match are resolved but not written), using the parent's table of
+     * inherited values rather than the ancestor files; a table is kept only until
+     * the locale's children are done.
+     *
+     * @param localeRegex a regular expression that will be matched against the
+     *        names of locales
+     * @param outputDir the directory to which to output the partially-resolved
+     *        XML files
+     * @param threads the number of locales to resolve at once
+     * @throws IllegalArgumentException if outputDir is not a directory
+     * @throws UncheckedIOException if a file can't be written
+     */
+    public void resolve(String localeRegex, File outputDir, int threads) {
+        if (!outputDir.isDirectory()) {
+            throw new IllegalArgumentException(outputDir.getPath() + " is not a directory");
+        }
+        Set<String> toWrite = getLocaleNames(localeRegex);
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+        try {
+            if (resolutionType != ResolutionType.SIMPLE) {
+                pool.submit(() -> toWrite.parallelStream().forEach(locale -> {
+                    ResolverUtils.debugPrintln("Processing locale " + locale + "...", 2);
+                    printToFile(resolveLocaleInternal(cldrFactory.make(locale, true), resolutionType, null, null),
+                        outputDir);
+                })).get();
+                return;
+            }
+            // Every locale to write, and its ancestors, by parent
+            Multimap<String, String> children = TreeMultimap.create();
+            for (String locale : toWrite) {
+                for (String child = locale; !child.equals(ROOT); child = LocaleIDParser.getSimpleParent(child)) {
+                    children.put(LocaleIDParser.getSimpleParent(child), child);
+                }
+            }
+            pool.invoke(new SimpleResolveTask(ROOT, null, children, toWrite, outputDir));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * The values a locale passes on to its children in simple resolution:
+     * its simple-resolved values, and a link to its parent's, so that a lookup
+     * falls through to the nearest ancestor with a value without copying the
+     * ancestors' tables.
+     */
+    private static final class InheritedValues {
+        final Map<String, String> own;
+        final InheritedValues parent;
+
+        InheritedValues(Map<String, String> own, InheritedValues parent) {
+            this.own = own;
+            this.parent = parent;
+        }
+
+        /**
+         * @return the value of the nearest ancestor (starting with this locale) that has the path, or null
+         */
+        String get(String distinguishedPath) {
+            for (InheritedValues values = this; values != null; values = values.parent) {
+                String value = values.own.get(distinguishedPath);
+                if (value != null) {
+                    return value;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Resolves one locale for simple resolution, then its children.
+     */
+    private class SimpleResolveTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final String locale;
+        private final InheritedValues parent;
+        private final Multimap<String, String> children;
+        private final Set<String> toWrite;
+        private final File outputDir;
+
+        SimpleResolveTask(String locale, InheritedValues parent, Multimap<String, String> children,
+            Set<String> toWrite, File outputDir) {
+            this.locale = locale;
+            this.parent = parent;
+            this.children = children;
+            this.toWrite = toWrite;
+            this.outputDir = outputDir;
+        }
+
+        @Override
+        protected void compute() {
+            ResolverUtils.debugPrintln("Processing locale " + locale + "...", 2);
+            CLDRFile resolved = resolveLocaleInternal(cldrFactory.make(locale, true), ResolutionType.SIMPLE,
+                parent == null ? null : parent::get,
+                parent == null ? null : parent.own);
+            if (toWrite.contains(locale)) {
+                printToFile(resolved, outputDir);
+            }
+            Collection<String> myChildren = children.get(locale);
+            if (myChildren.isEmpty()) {
+                return;
+            }
+            Map<String, String> own = new HashMap<>();
+            for (String distinguishedPath : resolved) {
+                own.put(distinguishedPath, resolved.getStringValue(distinguishedPath));
+            }
+            resolved = null; // only the table is needed from here on
+            InheritedValues values = new InheritedValues(own, parent);
+            List<SimpleResolveTask> tasks = new ArrayList<>();
+            for (String child : myChildren) {
+                tasks.add(new SimpleResolveTask(child, values, children, toWrite, outputDir));
+            }
+            invokeAll(tasks);
+        }
+    }
+
     /**
      * Resolves all locales that match the given regular expression and outputs
      * their XML files to the given directory.
@@ -324,24 +500,19 @@ public class CldrResolver {
      *
      * @param cldrFile the CLDRFile to print to XML
      * @param directory the directory to which to add the file
+     * @throws UncheckedIOException if the file can't be written; this may be on a worker thread,
+     *         so exiting is left to the caller
      */
     private static void printToFile(CLDRFile cldrFile, File directory) {
         ResolverUtils.debugPrint("Printing file...", 2);
-        try {
-            PrintWriter pw = new PrintWriter(new File(directory, cldrFile.getLocaleID() + ".xml"), "UTF-8");
+        try (PrintWriter pw = new PrintWriter(new File(directory, cldrFile.getLocaleID() + ".xml"), "UTF-8")) {
             cldrFile.write(pw);
-            pw.close();
             ResolverUtils.debugPrintln("done.\n", 2);
         } catch (FileNotFoundException e) {
-            ResolverUtils.debugPrintln("\nFile not found: " + e.getMessage(), 1);
-            System.exit(1);
-            return;
+            throw new UncheckedIOException("File not found: " + e.getMessage(), e);
         } catch (UnsupportedEncodingException e) {
             // This should never ever happen.
-            ResolverUtils.debugPrintln("Your system does not support UTF-8 encoding: " + e.getMessage(),
-                1);
-            System.exit(1);
-            return;
+            throw new UncheckedIOException("Your system does not support UTF-8 encoding: " + e.getMessage(), e);
         }
     }
 
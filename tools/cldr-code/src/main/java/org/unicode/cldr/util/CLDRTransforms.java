@@ -4,9 +4,15 @@
 package org.unicode.cldr.util;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -19,10 +25,16 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.unicode.cldr.tool.LikelySubtags;
 import org.unicode.cldr.util.DiscreteComparator.Builder;
 
@@ -95,6 +107,10 @@ public class CLDRTransforms {
         }
         // reorder to preload some
         r.showProgress = showProgress;
+        if (showProgress == null && CldrUtility.getProperty(LAZY_REGISTRATION, false)) {
+            registerCldrTransformsLazily(dir, namesMatchingRegex, keepDashTIds);
+            return;
+        }
         Set<String> ordered = getFileRegistrationOrder(dir);
 
         if (namesMatchingRegex != null) {
@@ -112,6 +128,173 @@ public class CLDRTransforms {
         Transliterator.registerAny(); // do this last!
     }
 
+    /**
+     * Property: if true, registerCldrTransforms without progress output registers lazily;
+     * see registerCldrTransformsLazily. Off by default, so that rule errors are reported at registration.
+     * The Survey Tool turns it on.
+     */
+    public static final String LAZY_REGISTRATION = "CLDR_TRANSFORMS_LAZY";
+
+    /**
+     * If set, a directory where the ICU rules converted from each XML file are kept between runs.
+     */
+    private static final String RULE_CACHE_DIR = CldrUtility.getProperty("CLDR_TRANSFORMS_RULE_CACHE", null);
+
+    /**
+     * Register the CLDR transforms without building them. Only the transform element at the top of each file
+     * is read, for the IDs and aliases. A transform's rules are converted and compiled the first time
+     * it is requested (directly, or from the rules of another transform), and the result replaces the lazy registration.
+     * <p>Because a transform that calls another one is only built when needed, it always gets the CLDR version
+     * of the other, so unlike registerCldrTransforms there is no registration order to follow.
+     *
+     * @param dir
+     *            the directory, or null for the CLDR transforms directory
+     * @param namesMatchingRegex
+     *            if not null, only register files whose names match
+     * @param keepDashTIds
+     *            if false, skip aliases with -t- in them
+     */
+    public static void registerCldrTransformsLazily(String dir, String namesMatchingRegex, boolean keepDashTIds) {
+        CLDRTransforms r = getInstance();
+        if (dir == null) {
+            dir = TRANSFORM_DIR;
+        }
+        Matcher filter = namesMatchingRegex == null ? null : PatternCache.get(namesMatchingRegex).matcher("");
+        for (String cldrFileName : new TreeSet<>(Arrays.asList(new File(dir).list()))) {
+            if (!cldrFileName.endsWith(".xml") || (filter != null && !filter.reset(cldrFileName).matches())) {
+                continue;
+            }
+            r.registerLazily(dir, cldrFileName, keepDashTIds);
+        }
+        Transliterator.registerAny(); // do this last!
+    }
+
+    private void registerLazily(String dir, String cldrFileName, boolean keepDashTIds) {
+        ParsedTransformID directionInfo = getTransformHeader(dir, cldrFileName);
+        LazyRules rules = new LazyRules(dir, cldrFileName);
+
+        String id = directionInfo.getId();
+        addDisplayNameToId(displayNameToId, directionInfo);
+
+        if (directionInfo.getDirection() == Direction.both || directionInfo.getDirection() == Direction.forward) {
+            for (String alias : directionInfo.getAliases()) {
+                if (!keepDashTIds && alias.contains("-t-")) {
+                    continue;
+                }
+                Transliterator.unregister(alias);
+                Transliterator.registerAlias(alias, id);
+            }
+            registerFactory(id, rules, Transliterator.FORWARD);
+        }
+        if (directionInfo.getDirection() == Direction.both || directionInfo.getDirection() == Direction.backward) {
+            for (String alias : directionInfo.getBackwardAliases()) {
+                if (!keepDashTIds && alias.contains("-t-")) {
+                    continue;
+                }
+                Transliterator.unregister(alias);
+                Transliterator.registerAlias(alias, directionInfo.getBackwardId());
+            }
+            registerFactory(ParsedTransformID.reverse(id), rules, Transliterator.REVERSE);
+        }
+    }
+
+    private void registerFactory(String id, LazyRules rules, int direction) {
+        overridden.add(id);
+        Transliterator.unregister(id);
+        Transliterator.registerFactory(id, new Transliterator.Factory() {
+            @Override
+            public Transliterator getInstance(String requestedId) {
+                // Build and register the real transform. ICU doesn't call a factory again
+                // once the ID is registered to an instance, so this normally happens once.
+                synchronized (rules) {
+                    Transliterator t = Transliterator.createFromRules(id, rules.get(), direction);
+                    Transliterator.unregister(id);
+                    Transliterator.registerInstance(t);
+                    return t;
+                }
+            }
+        });
+    }
+
+    /**
+     * The ICU rules for one file, converted when first needed (and shared by the two directions).
+     */
+    private static final class LazyRules {
+        private final String dir;
+        private final String cldrFileName;
+        private String rules = null;
+
+        LazyRules(String dir, String cldrFileName) {
+            this.dir = dir;
+            this.cldrFileName = cldrFileName;
+        }
+
+        synchronized String get() {
+            if (rules == null) {
+                rules = getCachedIcuRules(dir, cldrFileName);
+            }
+            return rules;
+        }
+    }
+
+    /**
+     * Read just the transform element of a transform file
+     */
+    public static ParsedTransformID getTransformHeader(String dir, String cldrFileName) {
+        final ParsedTransformID directionInfo = new ParsedTransformID();
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        try (InputStream in = new FileInputStream(dir + cldrFileName)) {
+            final XMLStreamReader reader = factory.createXMLStreamReader(in);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT
+                        && reader.getLocalName().equals("transform")) {
+                        directionInfo.setAttributes(name -> reader.getAttributeValue(null, name));
+                        return directionInfo;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (XMLStreamException e) {
+            throw new IllegalArgumentException("Can't read " + dir + cldrFileName, e);
+        }
+        throw new IllegalArgumentException("Not an XML transform file: " + cldrFileName);
+    }
+
+    /**
+     * Same as getIcuRulesFromXmlFile, but uses the rule cache directory if there is one.
+     * A cached file is only used if its first line matches the XML file's size and modification time.
+     */
+    static String getCachedIcuRules(String dir, String cldrFileName) {
+        if (RULE_CACHE_DIR == null) {
+            return getIcuRulesFromXmlFile(dir, cldrFileName, new ParsedTransformID());
+        }
+        final File source = new File(dir, cldrFileName);
+        final String stamp = "# " + source.length() + " " + source.lastModified();
+        final Path cached = Paths.get(RULE_CACHE_DIR, cldrFileName.replace(".xml", ".txt"));
+        try {
+            if (Files.isReadable(cached)) {
+                final String text = Files.readString(cached);
+                final int firstLine = text.indexOf('\n');
+                if (firstLine > 0 && text.substring(0, firstLine).equals(stamp)) {
+                    return text.substring(firstLine + 1);
+                }
+            }
+            final String rules = getIcuRulesFromXmlFile(dir, cldrFileName, new ParsedTransformID());
+            Files.createDirectories(cached.getParent());
+            final Path temp = Files.createTempFile(cached.getParent(), cldrFileName, ".tmp");
+            Files.writeString(temp, stamp + "\n" + rules);
+            Files.move(temp, cached, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return rules;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     public static List<String> getAvailableIds() {
         return Arrays.asList(new File(TRANSFORM_DIR).list());
     }
@@ -708,9 +891,44 @@ public class CLDRTransforms {
             visibility = Visibility.valueOf(string);
         }
 
+        /**
+         * Set the fields from the attributes of a transform element. An attribute that is missing
+         * gets its default from the DTD, since the header may be read without the DTD.
+         */
+        void setAttributes(Function<String, String> explicitAttributes) {
+            final Function<String, String> attributes = name -> {
+                final String value = explicitAttributes.apply(name);
+                return value != null ? value : getDtdDefault(name);
+            };
+            setSource(attributes.apply("source"));
+            setTarget(attributes.apply("target"));
+            setVariant(attributes.apply("variant"));
+            setDirection(Direction.valueOf(attributes.apply("direction").toLowerCase(Locale.ENGLISH)));
+
+            String alias = attributes.apply("alias");
+            if (alias != null) {
+                setAliases(alias.trim().split("\\s+"));
+            }
+
+            String backwardAlias = attributes.apply("backwardAlias");
+            if (backwardAlias != null) {
+                setBackwardAliases(backwardAlias.trim().split("\\s+"));
+            }
+
+            setVisibility(attributes.apply("visibility"));
+        }
+
         public Visibility getVisibility() {
             return visibility;
         }
+
+        /**
+         * @return the DTD default of an attribute of the transform element, or null if there is none
+         */
+        private static String getDtdDefault(String attributeName) {
+            DtdData.Attribute attribute = DtdData.getInstance(DtdType.supplementalData).getAttribute("transform", attributeName);
+            return attribute == null ? null : attribute.defaultValue;
+        }
     }
 
     /**
@@ -760,22 +978,7 @@ public class CLDRTransforms {
                 if (attributes == null) {
                     throw new IllegalArgumentException("Not an XML transform file: " + cldrFileName + "\t" + path);
                 }
-                directionInfo.setSource(attributes.get("source"));
-                directionInfo.setTarget(attributes.get("target"));
-                directionInfo.setVariant(attributes.get("variant"));
-                directionInfo.setDirection(Direction.valueOf(attributes.get("direction").toLowerCase(Locale.ENGLISH)));
-
-                String alias = attributes.get("alias");
-                if (alias != null) {
-                    directionInfo.setAliases(alias.trim().split("\\s+"));
-                }
-
-                String backwardAlias = attributes.get("backwardAlias");
-                if (backwardAlias != null) {
-                    directionInfo.setBackwardAliases(backwardAlias.trim().split("\\s+"));
-                }
-
-                directionInfo.setVisibility(attributes.get("visibility"));
+                directionInfo.setAttributes(attributes::get);
                 first = false;
             }
             if (path.indexOf("/comment") >= 0) {
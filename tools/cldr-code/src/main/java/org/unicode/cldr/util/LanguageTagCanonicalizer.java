@@ -4,16 +4,23 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 import org.unicode.cldr.tool.LikelySubtags;
 import org.unicode.cldr.util.LanguageTagParser.OutputOption;
 import org.unicode.cldr.util.StandardCodes.LstrType;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.ibm.icu.impl.Row.R2;
 import com.ibm.icu.text.StringTransform;
 
+/**
+ * Canonicalizes language tags. Thread-safe; results are kept in a bounded cache.
+ */
 public class LanguageTagCanonicalizer implements StringTransform {
 
     private static final SupplementalDataInfo info = SupplementalDataInfo.getInstance();
@@ -21,12 +28,19 @@ public class LanguageTagCanonicalizer implements StringTransform {
     private static final LikelySubtags LIKELY_FAVOR_REGION = new LikelySubtags(info.getLikelySubtags()).setFavorRegion(true);
     private static final Map<String, Map<String, R2<List<String>, String>>> ALIASES = info.getLocaleAliasInfo();
 
-    private final LikelySubtags likely;
+    private static final int CACHE_SIZE = 10_000;
 
-    // instance variables, since they can change. The transform call is synchronized, however.
+    /**
+     * Lists at least this long are canonicalized in parallel by transformAll
+     */
+    private static final int MIN_PARALLEL = 1000;
 
-    private final LanguageTagParser ltp1 = new LanguageTagParser();
-    private final LanguageTagParser ltp2 = new LanguageTagParser();
+    private final LikelySubtags likely;
+
+    /**
+     * Results of transform, by output option and tag. Empty if the result is null.
+     */
+    private final Cache<String, Optional<String>> cache = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
 
     public LanguageTagCanonicalizer() {
         this(LstrType.script);
@@ -51,33 +65,36 @@ public class LanguageTagCanonicalizer implements StringTransform {
      */
     // TODO, handle variants
     @Override
-    public synchronized String transform(String locale) {
+    public String transform(String locale) {
         return transform (locale, OutputOption.ICU_LCVARIANT);
     }
-    public synchronized String transform(String locale, OutputOption oo) {
-        ltp1.set(locale);
 
-        copyFields2(LanguageTagField.language, getReplacement(LanguageTagField.language, LanguageTagField.language.get(ltp1), locale));
-        copyFields2(LanguageTagField.script, getReplacement(LanguageTagField.script, LanguageTagField.script.get(ltp1), locale));
-        copyFields2(LanguageTagField.region, getReplacement(LanguageTagField.region, LanguageTagField.region.get(ltp1), locale));
+    public String transform(String locale, OutputOption oo) {
+        final String key = oo + "/" + locale;
+        Optional<String> result = cache.getIfPresent(key);
+        if (result == null) {
+            result = Optional.ofNullable(transformUncached(locale, oo));
+            cache.put(key, result);
+        }
+        return result.orElse(null);
+    }
 
-        // special code for variants
+    /**
+     * Canonicalize a list of locales (language tags), in parallel if the list is long.
+     *
+     * @param locales
+     * @param oo
+     * @return the canonical forms, in the same order
+     */
+    public List<String> transformAll(List<String> locales, OutputOption oo) {
+        return (locales.size() >= MIN_PARALLEL ? locales.parallelStream() : locales.stream())
+            .map(locale -> transform(locale, oo))
+            .collect(Collectors.toList());
+    }
 
-        List<String> originalVariants = ltp1.getVariants();
-        if (originalVariants.size() != 0) {
-            Set<String> newVariants = new TreeSet<>();
-            for (String item : originalVariants) {
-                String replacement = getReplacement(LanguageTagField.variant, item, locale);
-                if (replacement == null) {
-                    newVariants.add(item);
-                } else {
-                    copyFields2(LanguageTagField.variant, replacement);
-                    List<String> otherVariants = ltp2.getVariants();
-                    newVariants.addAll(otherVariants);
-                }
-            }
-            ltp1.setVariants(newVariants);
-        }
+    private String transformUncached(String locale, OutputOption oo) {
+        final LanguageTagParser ltp1 = new LanguageTagParser().set(locale);
+        transform(ltp1, locale);
         final String result = ltp1.toString(oo);
         if ("und".equals(ltp1.getLanguage())) return result;
         if (likely == null) {
@@ -146,11 +163,13 @@ public class LanguageTagCanonicalizer implements StringTransform {
     /**
      * Copy fields from one language tag into another.
      *
+     * @param ltp1 the tag to copy into
+     * @param ltp2 scratch parser
      * @param otherField
      * @param mainField
      *            - for this field, force a copy. For other fields, only copy if target is empty
      */
-    private void copyFields2(LanguageTagField mainField, String otherField) {
+    private void copyFields2(LanguageTagParser ltp1, LanguageTagParser ltp2, LanguageTagField mainField, String otherField) {
         if (otherField == null) {
             return;
         }
@@ -168,10 +187,20 @@ public class LanguageTagCanonicalizer implements StringTransform {
     }
 
     public void transform(LanguageTagParser ltp1) {
-        String locale = ltp1.toString(OutputOption.BCP47);
-        copyFields2(LanguageTagField.language, getReplacement(LanguageTagField.language, LanguageTagField.language.get(ltp1), locale));
-        copyFields2(LanguageTagField.script, getReplacement(LanguageTagField.script, LanguageTagField.script.get(ltp1), locale));
-        copyFields2(LanguageTagField.region, getReplacement(LanguageTagField.region, LanguageTagField.region.get(ltp1), locale));
+        transform(ltp1, ltp1.toString(OutputOption.BCP47));
+    }
+
+    /**
+     * Replace aliased fields in ltp1
+     *
+     * @param ltp1 the parsed tag, modified in place
+     * @param locale the tag, for looking up the likely region when a region splits
+     */
+    private void transform(LanguageTagParser ltp1, String locale) {
+        final LanguageTagParser ltp2 = new LanguageTagParser();
+        copyFields2(ltp1, ltp2, LanguageTagField.language, getReplacement(LanguageTagField.language, LanguageTagField.language.get(ltp1), locale));
+        copyFields2(ltp1, ltp2, LanguageTagField.script, getReplacement(LanguageTagField.script, LanguageTagField.script.get(ltp1), locale));
+        copyFields2(ltp1, ltp2, LanguageTagField.region, getReplacement(LanguageTagField.region, LanguageTagField.region.get(ltp1), locale));
 
         // special code for variants
 
@@ -183,7 +212,7 @@ public class LanguageTagCanonicalizer implements StringTransform {
                 if (replacement == null) {
                     newVariants.add(item);
                 } else {
-                    copyFields2(LanguageTagField.variant, replacement);
+                    copyFields2(ltp1, ltp2, LanguageTagField.variant, replacement);
                     List<String> otherVariants = ltp2.getVariants();
                     newVariants.addAll(otherVariants);
                 }
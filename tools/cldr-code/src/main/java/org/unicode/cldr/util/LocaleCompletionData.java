@@ -11,6 +11,12 @@ public class LocaleCompletionData {
         provisional = (int) problemCounter.get(NotificationCategory.notApproved);
     }
 
+    public LocaleCompletionData(int error, int missing, int provisional) {
+        this.error = error;
+        this.missing = missing;
+        this.provisional = provisional;
+    }
+
     public int errorCount() {
         return error;
     }
@@ -30,6 +30,8 @@ import org.unicode.cldr.util.Rational.RationalParser;
 import org.unicode.cldr.util.SupplementalDataInfo.PluralInfo;
 
 import com.google.common.base.Splitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.ImmutableBiMap;
 import com.google.common.collect.ImmutableList;
@@ -1442,23 +1444,24 @@ public class UnitConverter implements Freezable<UnitConverter> {
     }
 
     public Rational convert(Rational sourceValue, String sourceUnit, final String targetUnit, boolean showYourWork) {
-        if (showYourWork) {
-            System.out.println(showRational("\nconvert:\t", sourceValue, sourceUnit) + " ⟹ " + targetUnit);
+        if (!showYourWork) {
+            return getConversionPlan(sourceUnit, targetUnit).convert(sourceValue);
         }
+        System.out.println(showRational("\nconvert:\t", sourceValue, sourceUnit) + " ⟹ " + targetUnit);
         sourceUnit = fixDenormalized(sourceUnit);
         Output<String> sourceBase = new Output<>();
         Output<String> targetBase = new Output<>();
         ConversionInfo sourceConversionInfo = parseUnitId(sourceUnit, sourceBase, showYourWork);
         if (sourceConversionInfo == null) {
-            if (showYourWork) System.out.println("! unknown unit: " + sourceUnit);
+            System.out.println("! unknown unit: " + sourceUnit);
             return Rational.NaN;
         }
         Rational intermediateResult = sourceConversionInfo.convert(sourceValue);
-        if (showYourWork) System.out.println(showRational("intermediate:\t", intermediateResult, sourceBase.value));
-        if (showYourWork) System.out.println("invert:\t" + targetUnit);
+        System.out.println(showRational("intermediate:\t", intermediateResult, sourceBase.value));
+        System.out.println("invert:\t" + targetUnit);
         ConversionInfo targetConversionInfo = parseUnitId(targetUnit, targetBase, showYourWork);
         if (targetConversionInfo == null) {
-            if (showYourWork) System.out.println("! unknown unit: " + targetUnit);
+            System.out.println("! unknown unit: " + targetUnit);
             return Rational.NaN;
         }
         if (!sourceBase.value.equals(targetBase.value)) {
@@ -1469,18 +1472,190 @@ public class UnitConverter implements Freezable<UnitConverter> {
             if (!sourceBaseFixed.equals(targetBaseFixed)) {
                 String reciprocalUnit = reciprocalOf(sourceBase.value);
                 if (reciprocalUnit == null || !targetBase.value.equals(reciprocalUnit)) {
-                    if (showYourWork) System.out.println("! incomparable units: " + sourceUnit + " and " + targetUnit);
+                    System.out.println("! incomparable units: " + sourceUnit + " and " + targetUnit);
                     return Rational.NaN;
                 }
                 intermediateResult = intermediateResult.reciprocal();
-                if (showYourWork) System.out.println(showRational(" ⟹ 1/intermediate:\t", intermediateResult, reciprocalUnit));
+                System.out.println(showRational(" ⟹ 1/intermediate:\t", intermediateResult, reciprocalUnit));
             }
         }
         Rational result = targetConversionInfo.convertBackwards(intermediateResult);
-        if (showYourWork) System.out.println(showRational("target:\t", result, targetUnit));
+        System.out.println(showRational("target:\t", result, targetUnit));
         return result;
     }
 
+    /**
+     * A compiled conversion from one unit to another, so that the unit ids are parsed only once.
+     * Immutable. Conversions can be done either exactly, with Rational, or approximately but much faster, with double.
+     * If the units can't be converted, the conversion returns NaN.
+     */
+    public static final class ConversionPlan {
+        private static final ConversionPlan INVALID = new ConversionPlan(null, false, null);
+
+        private final ConversionInfo sourceInfo; // to the base unit
+        private final boolean reciprocal;
+        private final ConversionInfo targetInfo; // from the base unit (backwards)
+
+        // for the double evaluator: if not reciprocal, the whole conversion is x * factor + offset
+        private final double factor;
+        private final double offset;
+        private final double sourceFactor;
+        private final double sourceOffset;
+        private final double targetFactor;
+        private final double targetOffset;
+
+        private ConversionPlan(ConversionInfo sourceInfo, boolean reciprocal, ConversionInfo targetInfo) {
+            this.sourceInfo = sourceInfo;
+            this.reciprocal = reciprocal;
+            this.targetInfo = targetInfo;
+            if (sourceInfo == null) {
+                factor = offset = sourceFactor = sourceOffset = targetFactor = targetOffset = Double.NaN;
+                return;
+            }
+            sourceFactor = sourceInfo.factor.doubleValue();
+            sourceOffset = sourceInfo.offset.doubleValue();
+            targetFactor = targetInfo.factor.doubleValue();
+            targetOffset = targetInfo.offset.doubleValue();
+            if (reciprocal) {
+                factor = offset = Double.NaN; // not used
+            } else {
+                // (x * sf + so - to) / tf, computed exactly, then rounded once
+                factor = sourceInfo.factor.divide(targetInfo.factor).doubleValue();
+                offset = sourceInfo.offset.subtract(targetInfo.offset).divide(targetInfo.factor).doubleValue();
+            }
+        }
+
+        /**
+         * @return false if the units can't be converted
+         */
+        public boolean isValid() {
+            return sourceInfo != null;
+        }
+
+        /**
+         * Convert exactly; same result as UnitConverter.convert
+         */
+        public Rational convert(Rational sourceValue) {
+            if (sourceInfo == null) {
+                return Rational.NaN;
+            }
+            Rational intermediateResult = sourceInfo.convert(sourceValue);
+            if (reciprocal) {
+                intermediateResult = intermediateResult.reciprocal();
+            }
+            return targetInfo.convertBackwards(intermediateResult);
+        }
+
+        /**
+         * Convert approximately, in double precision
+         */
+        public double convert(double sourceValue) {
+            if (!reciprocal) {
+                return sourceValue * factor + offset;
+            }
+            return (1 / (sourceValue * sourceFactor + sourceOffset) - targetOffset) / targetFactor;
+        }
+
+        /**
+         * Convert an array of values approximately, in double precision
+         *
+         * @param sourceValues
+         * @return a new array with the converted values
+         */
+        public double[] convert(double[] sourceValues) {
+            final double[] result = new double[sourceValues.length];
+            if (!reciprocal) {
+                for (int i = 0; i < sourceValues.length; ++i) {
+                    result[i] = sourceValues[i] * factor + offset;
+                }
+            } else {
+                for (int i = 0; i < sourceValues.length; ++i) {
+                    result[i] = convert(sourceValues[i]);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            if (sourceInfo == null) {
+                return "invalid";
+            }
+            return reciprocal
+                ? targetInfo.invert().toString("(1/(" + sourceInfo + "))")
+                : targetInfo.invert().toString("(" + sourceInfo + ")");
+        }
+    }
+
+    /**
+     * Most conversion plans to keep; callers may pass arbitrary unit ids
+     */
+    private static final int MAX_CONVERSION_PLANS = 10_000;
+
+    /**
+     * Plans for frozen converters, keyed by source and target unit. Only valid plans are kept.
+     */
+    private final Cache<String, ConversionPlan> conversionPlans = CacheBuilder.newBuilder()
+        .maximumSize(MAX_CONVERSION_PLANS)
+        .build();
+
+    /**
+     * Get a compiled plan for converting from sourceUnit to targetUnit. The plan is cached (if this converter is frozen),
+     * so this is the fastest way to convert many values.
+     *
+     * @param sourceUnit
+     * @param targetUnit
+     * @return the plan, which is not valid if the units can't be converted
+     */
+    public ConversionPlan getConversionPlan(String sourceUnit, String targetUnit) {
+        if (!frozen) {
+            return makeConversionPlan(sourceUnit, targetUnit);
+        }
+        final String key = sourceUnit + SPLIT_PLAN + targetUnit;
+        ConversionPlan plan = conversionPlans.getIfPresent(key);
+        if (plan == null) {
+            plan = makeConversionPlan(sourceUnit, targetUnit);
+            if (plan != ConversionPlan.INVALID) {
+                conversionPlans.put(key, plan);
+            }
+        }
+        return plan;
+    }
+
+    private static final char SPLIT_PLAN = ' ';
+
+    /**
+     * Same logic as convert(…, showYourWork=true)
+     */
+    private ConversionPlan makeConversionPlan(String sourceUnit, String targetUnit) {
+        sourceUnit = fixDenormalized(sourceUnit);
+        Output<String> sourceBase = new Output<>();
+        Output<String> targetBase = new Output<>();
+        ConversionInfo sourceConversionInfo = parseUnitId(sourceUnit, sourceBase, false);
+        if (sourceConversionInfo == null) {
+            return ConversionPlan.INVALID;
+        }
+        ConversionInfo targetConversionInfo = parseUnitId(targetUnit, targetBase, false);
+        if (targetConversionInfo == null) {
+            return ConversionPlan.INVALID;
+        }
+        boolean reciprocal = false;
+        if (!sourceBase.value.equals(targetBase.value)) {
+            // try resolving
+            String sourceBaseFixed = createUnitId(sourceBase.value).resolve().toString();
+            String targetBaseFixed = createUnitId(targetBase.value).resolve().toString();
+            // try reciprocal
+            if (!sourceBaseFixed.equals(targetBaseFixed)) {
+                String reciprocalUnit = reciprocalOf(sourceBase.value);
+                if (reciprocalUnit == null || !targetBase.value.equals(reciprocalUnit)) {
+                    return ConversionPlan.INVALID;
+                }
+                reciprocal = true;
+            }
+        }
+        return new ConversionPlan(sourceConversionInfo, reciprocal, targetConversionInfo);
+    }
+
     public String fixDenormalized(String unit) {
         String fixed = fixDenormalized.get(unit);
         return fixed == null ? unit : fixed;
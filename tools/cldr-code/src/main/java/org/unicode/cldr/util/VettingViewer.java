@@ -3,6 +3,7 @@ package org.unicode.cldr.util;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -17,7 +18,9 @@ import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
 
 import org.unicode.cldr.test.CheckCLDR;
 import org.unicode.cldr.test.CheckCLDR.CheckStatus;
@@ -33,6 +36,8 @@ import org.unicode.cldr.util.PathHeader.PageId;
 import org.unicode.cldr.util.PathHeader.SectionId;
 import org.unicode.cldr.util.StandardCodes.LocaleCoverageType;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.ibm.icu.impl.Relation;
 import com.ibm.icu.impl.Row;
 import com.ibm.icu.impl.Row.R2;
@@ -65,6 +70,11 @@ public class VettingViewer<T> {
 
     private static final boolean DEBUG_THREADS = false;
 
+    /**
+     * How many paths to check between reports to the ProgressCallback
+     */
+    private static final int PROGRESS_INTERVAL = 100;
+
     private static final Set<CheckCLDR.CheckStatus.Subtype> OK_IF_VOTED = EnumSet.of(Subtype.sameAsEnglish);
 
     public static Organization getNeutralOrgForSummary() {
@@ -85,7 +95,10 @@ public class VettingViewer<T> {
         return outdatedPaths;
     }
 
-    private static PathHeader.Factory pathTransform;
+    /**
+     * Shared by all threads; PathHeader.Factory.fromPath is synchronized
+     */
+    private static volatile PathHeader.Factory pathTransform;
     private static final OutdatedPaths outdatedPaths = new OutdatedPaths();
 
     /**
@@ -124,6 +137,9 @@ public class VettingViewer<T> {
     }
 
     /**
+     * Implementations must be safe to call from several threads at once, since the
+     * Priority Items Summary checks locales (and sections) in parallel.
+     *
      * @author markdavis
      *
      * @param <T>
@@ -287,14 +303,15 @@ public class VettingViewer<T> {
         super();
         this.cldrFactory = cldrFactory;
         englishFile = cldrFactory.make("en", true);
-        if (pathTransform == null) {
-            pathTransform = PathHeader.getFactory(englishFile);
+        synchronized (VettingViewer.class) {
+            if (pathTransform == null) {
+                pathTransform = PathHeader.getFactory(englishFile);
+            }
         }
         this.userVoteStatus = userVoteStatus;
         this.supplementalDataInfo = supplementalDataInfo;
         this.defaultContentLocales = supplementalDataInfo.getDefaultContentLocales();
 
-        reasonsToPaths = Relation.of(new HashMap<>(), HashSet.class);
     }
 
     public class WritingInfo implements Comparable<WritingInfo> {
@@ -347,15 +364,163 @@ public class VettingViewer<T> {
     }
 
     public LocaleCompletionData generateLocaleCompletion(VettingParameters args) {
+        return generateLocaleCompletion(args, null);
+    }
+
+    /**
+     * Generate locale completion data, optionally recording the problems found for each path
+     *
+     * @param args the VettingParameters
+     * @param pathProblems if not null, filled in with a map from each path having problems to its problems
+     * @return the LocaleCompletionData
+     */
+    public LocaleCompletionData generateLocaleCompletion(VettingParameters args, Map<String, EnumSet<NotificationCategory>> pathProblems) {
         if (!args.sourceFile.isResolved()) {
             throw new IllegalArgumentException("File must be resolved for locale completion");
         }
         FileInfo fileInfo = new FileInfo(args.locale.getBaseName(), args.coverageLevel, args.choices, (T) args.organization);
         fileInfo.setFiles(args.sourceFile, args.baselineFile);
+        fileInfo.setPathProblems(pathProblems);
         fileInfo.getFileInfo();
         return new LocaleCompletionData(fileInfo.vc.problemCounter);
     }
 
+    /**
+     * Get a PathProblemChecker, for recomputing the problems of individual paths
+     * after a change, without scanning the whole locale
+     *
+     * @param args the VettingParameters
+     * @return the PathProblemChecker
+     */
+    public PathProblemChecker getPathProblemChecker(VettingParameters args) {
+        return new PathProblemChecker(args);
+    }
+
+    /**
+     * Computes the problems (notification categories) for one path at a time, using the same
+     * logic as generateLocaleCompletion. The error checker is initialized only once, so this
+     * is much cheaper than generateLocaleCompletion with a single path.
+     */
+    public class PathProblemChecker {
+        private final FileInfo fileInfo;
+
+        private PathProblemChecker(VettingParameters args) {
+            fileInfo = new FileInfo(args.locale.getBaseName(), args.coverageLevel, args.choices, (T) args.organization);
+            fileInfo.setFiles(args.sourceFile, args.baselineFile);
+            fileInfo.errorChecker.initErrorStatus(args.sourceFile);
+        }
+
+        /**
+         * Get the problems for the given path
+         *
+         * @param path the path
+         * @return the set of problems, empty if none
+         */
+        public synchronized EnumSet<NotificationCategory> getProblems(String path) {
+            fileInfo.problems.clear();
+            fileInfo.handleOnePath(path);
+            fileInfo.vc.clear(); // only the problems of this path are wanted; don't accumulate counts
+            return fileInfo.problems.clone();
+        }
+    }
+
+    /**
+     * Get a DashboardIndex, holding the part of the Dashboard that does not depend on the individual user,
+     * for one locale, coverage level and organization. The index is built with a full scan of the locale,
+     * and can then be kept up to date by rechecking only the paths that change.
+     *
+     * @param args the VettingParameters; the user id and single path, if any, are ignored
+     * @return the DashboardIndex
+     */
+    public DashboardIndex getDashboardIndex(VettingParameters args) {
+        return new DashboardIndex(args);
+    }
+
+    /**
+     * For each path that would be shown to a vetter on the Dashboard, the problems found
+     * (not counting abstained, which depends on the user), with the message and subtype.
+     */
+    public class DashboardIndex {
+        private final FileInfo fileInfo;
+        private final Map<String, IndexEntry> entries = new HashMap<>();
+
+        private DashboardIndex(VettingParameters args) {
+            fileInfo = new FileInfo(args.locale.getBaseName(), args.coverageLevel, args.choices, (T) args.organization);
+            fileInfo.setFiles(args.sourceFile, args.baselineFile);
+            fileInfo.setIndex(entries);
+            fileInfo.getFileInfo();
+        }
+
+        /**
+         * Recheck the given paths, such as after votes
+         *
+         * @param paths the paths that have changed
+         */
+        public synchronized void update(Collection<String> paths) {
+            fileInfo.vc.clear(); // the index keeps no counts; don't let rechecks accumulate them
+            for (String path : paths) {
+                entries.remove(path);
+                fileInfo.problems.clear();
+                fileInfo.handleOnePath(path);
+            }
+        }
+
+        /**
+         * Get the Dashboard for the given user from the index
+         *
+         * @param userId the user, or 0 for no voter progress and no abstained items
+         * @return the DashboardData
+         */
+        public synchronized DashboardData getDashboardData(int userId) {
+            final DashboardData dd = new DashboardData();
+            final EnumSet<NotificationCategory> problems = EnumSet.noneOf(NotificationCategory.class);
+            for (Entry<String, IndexEntry> e : entries.entrySet()) {
+                final String path = e.getKey();
+                final IndexEntry ie = e.getValue();
+                problems.clear();
+                problems.addAll(ie.problems);
+                if (userId != 0) {
+                    dd.voterProgress.incrementVotablePathCount();
+                    if (userVoteStatus.userDidVote(userId, fileInfo.cldrLocale, path)) {
+                        VoteType voteType = userVoteStatus.getUserVoteType(userId, fileInfo.cldrLocale, path);
+                        dd.voterProgress.incrementVotedPathCount(voteType);
+                    } else if (fileInfo.choices.contains(NotificationCategory.abstained)) {
+                        problems.add(NotificationCategory.abstained);
+                    }
+                }
+                if (!problems.isEmpty()) {
+                    R2<SectionId, PageId> group = Row.of(ie.ph.getSectionId(), ie.ph.getPageId());
+                    dd.sorted.put(group, new WritingInfo(ie.ph, problems, ie.htmlMessage, ie.subtype));
+                }
+            }
+            return dd;
+        }
+
+        /**
+         * @return the number of paths in the index
+         */
+        public synchronized int size() {
+            return entries.size();
+        }
+    }
+
+    /**
+     * One path's entry in a DashboardIndex
+     */
+    private static final class IndexEntry {
+        private final PathHeader ph;
+        private final EnumSet<NotificationCategory> problems;
+        private final String htmlMessage;
+        private final Subtype subtype;
+
+        private IndexEntry(PathHeader ph, EnumSet<NotificationCategory> problems, CharSequence htmlMessage, Subtype subtype) {
+            this.ph = ph;
+            this.problems = problems.clone();
+            this.htmlMessage = htmlMessage.toString();
+            this.subtype = subtype;
+        }
+    }
+
     private class VettingCounters {
         private final Counter<NotificationCategory> problemCounter = new Counter<>();
         private final Counter<Subtype> errorSubtypeCounter = new Counter<>();
@@ -373,6 +538,12 @@ public class VettingViewer<T> {
             errorSubtypeCounter.addAll(other.errorSubtypeCounter);
             warningSubtypeCounter.addAll(other.warningSubtypeCounter);
         }
+
+        private void clear() {
+            problemCounter.clear();
+            errorSubtypeCounter.clear();
+            warningSubtypeCounter.clear();
+        }
     }
 
     /**
@@ -441,6 +612,33 @@ public class VettingViewer<T> {
             this.specificSinglePath = path;
         }
 
+        /**
+         * If not null, getFileInfo will check only these paths, rather than all paths in the file
+         */
+        private Collection<String> pathsToCheck = null;
+
+        private void setPathsToCheck(Collection<String> paths) {
+            this.pathsToCheck = paths;
+        }
+
+        /**
+         * If not null, handleOnePath records the problems for each path here
+         */
+        private Map<String, EnumSet<NotificationCategory>> pathProblems = null;
+
+        private void setPathProblems(Map<String, EnumSet<NotificationCategory>> pathProblems) {
+            this.pathProblems = pathProblems;
+        }
+
+        /**
+         * If not null, handleOnePath records an IndexEntry here for each path that the user could vote on
+         */
+        private Map<String, IndexEntry> index = null;
+
+        private void setIndex(Map<String, IndexEntry> index) {
+            this.index = index;
+        }
+
         /**
          * Loop through paths for the Dashboard or the Priority Items Summary
          *
@@ -456,14 +654,25 @@ public class VettingViewer<T> {
                 return;
             }
             Set<String> seenSoFar = new HashSet<>();
-            for (String path : sourceFile.fullIterable()) {
+            int sinceNudge = 0;
+            for (String path : (pathsToCheck != null) ? pathsToCheck : sourceFile.fullIterable()) {
                 if (seenSoFar.contains(path)) {
                     continue;
                 }
                 seenSoFar.add(path);
-                progressCallback.nudge(); // Let the user know we're moving along
+                if (++sinceNudge == PROGRESS_INTERVAL) {
+                    // Let the user know we're moving along; once per chunk, since the callback may be shared by threads
+                    progressCallback.nudge(sinceNudge);
+                    sinceNudge = 0;
+                    if (progressCallback.isStopped()) {
+                        throw new RuntimeException("Requested to stop");
+                    }
+                }
                 handleOnePath(path);
             }
+            if (sinceNudge > 0) {
+                progressCallback.nudge(sinceNudge);
+            }
         }
 
         private void handleOnePath(String path) {
@@ -510,10 +719,15 @@ public class VettingViewer<T> {
             if (pathLevelIsTooHigh && problems.isEmpty()) {
                 return;
             }
+            if (index != null) {
+                index.put(path, new IndexEntry(ph, problems, htmlMessage, firstSubtype()));
+            }
             updateVotedOrAbstained(path);
 
+            if (!problems.isEmpty() && pathProblems != null) {
+                pathProblems.put(path, problems.clone());
+            }
             if (!problems.isEmpty() && sorted != null) {
-                reasonsToPaths.clear();
                 R2<SectionId, PageId> group = Row.of(ph.getSectionId(), ph.getPageId());
                 sorted.put(group, new WritingInfo(ph, problems, htmlMessage, firstSubtype()));
             }
@@ -773,6 +987,12 @@ public class VettingViewer<T> {
         private final Map<String, VettingViewer<T>.FileInfo> localeNameToFileInfo;
         private final String header;
         private final int configChunkSize; // Number of locales to process at once, minimum 1
+        private final int parallelism; // 1 means run on the calling thread
+        /**
+         * If true, each locale is further split into one task per section. This is worthwhile when there
+         * are fewer locales than threads, even though each task must set up its own checks.
+         */
+        private final boolean splitBySection;
 
         private WriteContext(Set<Entry<String, String>> entrySet, EnumSet<NotificationCategory> choices, T organization, VettingCounters totals,
                              Map<String, FileInfo> localeNameToFileInfo, String header) {
@@ -809,15 +1029,18 @@ public class VettingViewer<T> {
             // setup env
             CLDRConfig config = CLDRConfig.getInstance();
 
-            // parallelism. 0 means "let Java decide"
+            // parallelism. 0 (the default) means "let Java decide"; 1 runs on the calling thread.
+            // Each task has its own FileInfo and checks; userVoteStatus, pathTransform and cldrFactory are shared.
             int configParallel = Math.max(config.getProperty("CLDR_VETTINGVIEWER_PARALLEL", 0), 0);
             if (configParallel < 1) {
                 configParallel = java.lang.Runtime.getRuntime().availableProcessors(); // matches ForkJoinPool() behavior
             }
+            this.parallelism = configParallel;
             this.configChunkSize = Math.max(config.getProperty("CLDR_VETTINGVIEWER_CHUNKSIZE", 1), 1);
+            this.splitBySection = parallelism > 1 && count < 2 * parallelism;
             if (DEBUG) {
                 System.out.println("vv: CLDR_VETTINGVIEWER_PARALLEL=" + configParallel +
-                    ", CLDR_VETTINGVIEWER_CHUNKSIZE=" + configChunkSize);
+                    ", CLDR_VETTINGVIEWER_CHUNKSIZE=" + configChunkSize + ", splitBySection=" + splitBySection);
             }
         }
 
@@ -949,18 +1172,31 @@ public class VettingViewer<T> {
             }
             FileInfo fileInfo = new FileInfo(localeID, level, choices, context.organization);
             fileInfo.setFiles(sourceFile, baselineFile);
-            fileInfo.getFileInfo();
-
-            if (context.localeNameToFileInfo != null) {
-                context.localeNameToFileInfo.put(name, fileInfo);
+            if (context.splitBySection) {
+                final List<SectionAction> sectionActions = new ArrayList<>();
+                for (List<String> paths : getPathsBySection(localeID, sourceFile).values()) {
+                    sectionActions.add(new SectionAction(fileInfo, paths));
+                }
+                invokeAll(sectionActions);
+                for (SectionAction sectionAction : sectionActions) {
+                    fileInfo.vc.addAll(sectionAction.sectionInfo.vc);
+                }
+            } else {
+                fileInfo.getFileInfo();
             }
 
-            context.totals.addAll(fileInfo.vc);
+            synchronized (context.totals) {
+                if (context.localeNameToFileInfo != null) {
+                    context.localeNameToFileInfo.put(name, fileInfo);
+                }
+                context.totals.addAll(fileInfo.vc);
+            }
             if (DEBUG_THREADS) {
                 System.out.println("writeAction.compute(" + n + ") - got fileinfo " + name + ": " + localeID);
             }
             try {
                 writeSummaryRow(output, choices, fileInfo.vc.problemCounter, name, localeID, level);
+                progressCallback.localeDone(localeID, context.outputs[n]);
                 if (DEBUG_THREADS) {
                     System.out.println("writeAction.compute(" + n + ") - wrote " + name + ": " + localeID);
                 }
@@ -974,6 +1210,77 @@ public class VettingViewer<T> {
         }
     }
 
+    /**
+     * Worker action to check the paths of one section of a locale, for the Priority Items Summary
+     */
+    private class SectionAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final FileInfo sectionInfo;
+
+        private SectionAction(FileInfo localeInfo, List<String> paths) {
+            sectionInfo = new FileInfo(localeInfo.localeId, localeInfo.usersLevel, localeInfo.choices, localeInfo.organization);
+            sectionInfo.setFiles(localeInfo.sourceFile, localeInfo.baselineFile);
+            sectionInfo.setPathsToCheck(paths);
+        }
+
+        @Override
+        protected void compute() {
+            sectionInfo.getFileInfo();
+        }
+    }
+
+    /**
+     * The paths of each locale, split by section. This does not depend on the organization,
+     * so it is shared by summaries for different organizations; it can go stale
+     * only if paths are added, so it is kept only briefly.
+     */
+    private static final Cache<String, Map<SectionId, List<String>>> pathsBySection = CacheBuilder.newBuilder()
+        .softValues()
+        .expireAfterWrite(30, TimeUnit.MINUTES)
+        .build();
+
+    private Map<SectionId, List<String>> getPathsBySection(String localeID, CLDRFile sourceFile) {
+        Map<SectionId, List<String>> result = pathsBySection.getIfPresent(localeID);
+        if (result == null) {
+            result = new TreeMap<>();
+            Set<String> seenSoFar = new HashSet<>();
+            for (String path : sourceFile.fullIterable()) {
+                if (!seenSoFar.add(path)) {
+                    continue;
+                }
+                PathHeader ph = pathTransform.fromPath(path);
+                if (ph == null || ph.shouldHide()) {
+                    continue;
+                }
+                result.computeIfAbsent(ph.getSectionId(), k -> new ArrayList<>()).add(path);
+            }
+            result = Collections.unmodifiableMap(result);
+            pathsBySection.put(localeID, result);
+        }
+        return result;
+    }
+
+    private static ForkJoinPool summaryPool = null;
+
+    /**
+     * Get the pool for Priority Items Summary work. It is separate from the common pool,
+     * so that a long summary neither competes with nor is held up by other users of that pool.
+     *
+     * @param parallelism the number of threads, used when the pool is first created
+     * @return the pool
+     */
+    private static synchronized ForkJoinPool getSummaryPool(int parallelism) {
+        if (summaryPool == null) {
+            summaryPool = new ForkJoinPool(parallelism, pool -> {
+                final ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                t.setName("VettingViewer-summary-" + t.getPoolIndex());
+                return t;
+            }, null, false);
+        }
+        return summaryPool;
+    }
+
     /**
      * Write the table for the Priority Items Summary
      * @param output
@@ -1002,11 +1309,11 @@ public class VettingViewer<T> {
         WriteContext context = this.new WriteContext(entrySet, choices, organization, totals, localeNameToFileInfo, header);
 
         WriteAction writeAction = this.new WriteAction(context);
-        if (USE_FORKJOIN) {
-            ForkJoinPool.commonPool().invoke(writeAction);
+        if (context.parallelism > 1) {
+            getSummaryPool(context.parallelism).invoke(writeAction);
         } else {
             if (DEBUG) {
-                System.out.println("WARNING: calling writeAction.computeAll(), as the ForkJoinPool is disabled.");
+                System.out.println("WARNING: calling writeAction.computeAll(), as CLDR_VETTINGVIEWER_PARALLEL is 1.");
             }
             writeAction.computeAll();
         }
@@ -1038,8 +1345,6 @@ public class VettingViewer<T> {
         return sortedNames;
     }
 
-    private final boolean USE_FORKJOIN = false;
-
     private void showSubtypes(Appendable output, Map<String, String> sortedNames,
         Map<String, FileInfo> localeNameToFileInfo,
         VettingCounters totals, boolean errors) throws IOException {
@@ -1420,7 +1725,6 @@ public class VettingViewer<T> {
     }
 
     static final NumberFormat nf = NumberFormat.getIntegerInstance(ULocale.ENGLISH);
-    private final Relation<String, String> reasonsToPaths;
 
     static {
         nf.setGroupingUsed(true);
@@ -1440,12 +1744,33 @@ public class VettingViewer<T> {
         public void nudge() {
         }
 
+        /**
+         * Note progress on several xpaths at once. By default, calls nudge() once for each.
+         *
+         * @param count the number of xpaths
+         */
+        public void nudge(int count) {
+            for (int i = 0; i < count; i++) {
+                nudge();
+            }
+        }
+
         /**
          * Called when all operations are complete.
          */
         public void done() {
         }
 
+        /**
+         * Called when the Priority Items Summary row for one locale is complete.
+         * This may be called from several threads at once, with locales in no particular order.
+         *
+         * @param localeId the locale
+         * @param row the HTML for the locale's table row
+         */
+        public void localeDone(String localeId, CharSequence row) {
+        }
+
         /**
          * Return true to cause an early stop.
          * @return
@@ -23,6 +23,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -850,7 +851,8 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
             return source == null ? constructedItems : source;
         }
 
-        Map<String, String> getFullPathAtDPathCache = new HashMap<>();
+        // concurrent, since a resolved file may be read by several threads (such as the Priority Items Summary)
+        Map<String, String> getFullPathAtDPathCache = new ConcurrentHashMap<>();
 
         @Override
         public String getFullPathAtDPath(String xpath) {
@@ -1234,7 +1236,7 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
             return sources.get("root").getReverseAliases();
         }
 
-        private transient Set<String> cachedKeySet = null;
+        private transient volatile Set<String> cachedKeySet = null;
 
         /**
          * @return an iterator over all the xpaths in this XMLSource.
@@ -1245,11 +1247,11 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
         }
 
         private Set<String> getCachedKeySet() {
-            if (cachedKeySet == null) {
-                cachedKeySet = fillKeys();
-                cachedKeySet = Collections.unmodifiableSet(cachedKeySet);
+            Set<String> result = cachedKeySet;
+            if (result == null) {
+                cachedKeySet = result = Collections.unmodifiableSet(fillKeys());
             }
-            return cachedKeySet;
+            return result;
         }
 
         @Override
@@ -0,0 +1,104 @@
+package org.unicode.cldr.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class JsonManifestTest {
+    private static final String CONFIG = "type=main";
+
+    private static List<CldrItem> items(String value) {
+        return Arrays.asList(new CldrItem("//cldr/main/fr/numbers/symbols/decimal",
+            "//cldr/main/fr/numbers/symbols/decimal",
+            "//ldml/numbers/symbols/decimal",
+            "//ldml/numbers/symbols/decimal", value));
+    }
+
+    @Test
+    void testIncremental() throws IOException {
+        final File dir = Files.createTempDirectory("JsonManifestTest").toFile();
+        final File out = new File(dir, "fr/numbers.json");
+        final File stale = new File(dir, "fr/other.json");
+        out.getParentFile().mkdirs();
+        Files.write(out.toPath(), "{}".getBytes(StandardCharsets.UTF_8));
+        Files.write(stale.toPath(), "{}".getBytes(StandardCharsets.UTF_8));
+
+        JsonManifest m = new JsonManifest(dir.getPath(), "main", CONFIG, Collections.emptyList());
+        final String hash = m.hash(items(","));
+        assertEquals(-1, m.getUnchangedCount("fr/numbers.json", hash), "no manifest yet");
+        m.processed("main/fr");
+        m.put("fr/numbers.json", "main/fr", 3, hash, true);
+        m.put("fr/other.json", "main/fr", 1, m.hash(items("x")), true);
+        assertEquals(2, m.save());
+
+        m = new JsonManifest(dir.getPath(), "main", CONFIG, Collections.emptyList());
+        assertEquals(3, m.getUnchangedCount("fr/numbers.json", m.hash(items(","))), "same input");
+        assertEquals(-1, m.getUnchangedCount("fr/numbers.json", m.hash(items("."))), "changed value");
+        assertNotEquals(hash, new JsonManifest(dir.getPath(), "main", "type=main;resolve=true", Collections.emptyList()).hash(items(",")),
+            "changed config");
+
+        // fr is converted again, without other.json
+        m.processed("main/fr");
+        m.put("fr/numbers.json", "main/fr", 3, hash, false);
+        assertEquals(1, m.save());
+        assertFalse(stale.exists(), "output no longer produced is removed");
+        assertEquals(Arrays.asList("- fr/other.json"),
+            Files.readAllLines(new File(dir, "ldml2json-changes-main.txt").toPath()));
+    }
+
+    @Test
+    void testUnchangedSource() throws IOException {
+        final File dir = Files.createTempDirectory("JsonManifestTest").toFile();
+        final File src = new File(dir, "fr.xml");
+        final File shared = new File(dir, "supplemental.xml");
+        final File out = new File(dir, "fr/numbers.json");
+        out.getParentFile().mkdirs();
+        Files.write(src.toPath(), "<ldml/>".getBytes(StandardCharsets.UTF_8));
+        Files.write(shared.toPath(), "<supplementalData/>".getBytes(StandardCharsets.UTF_8));
+        Files.write(out.toPath(), "{}".getBytes(StandardCharsets.UTF_8));
+        final List<File> sharedInputs = Arrays.asList(shared);
+
+        JsonManifest m = new JsonManifest(dir.getPath(), "main", CONFIG, sharedInputs);
+        String sourceHash = m.hashSource(Arrays.asList(src));
+        assertFalse(m.isSourceUnchanged("main/fr", sourceHash), "no manifest yet");
+        m.processed("main/fr");
+        m.putSource("main/fr", sourceHash);
+        m.put("fr/numbers.json", "main/fr", 3, m.hash(items(",")), true);
+        m.save();
+
+        m = new JsonManifest(dir.getPath(), "main", CONFIG, sharedInputs);
+        sourceHash = m.hashSource(Arrays.asList(src));
+        assertTrue(m.isSourceUnchanged("main/fr", sourceHash), "same input");
+        m.processed("main/fr");
+        m.putSource("main/fr", sourceHash);
+        assertEquals(3, m.keepUnchanged("fr/numbers.json", "main/fr"));
+        assertEquals(-1, m.keepUnchanged("fr/other.json", "main/fr"), "not produced last time");
+        assertEquals(0, m.save(), "nothing written or removed");
+        assertTrue(out.exists());
+
+        Files.write(shared.toPath(), "<supplementalData><x/></supplementalData>".getBytes(StandardCharsets.UTF_8));
+        m = new JsonManifest(dir.getPath(), "main", CONFIG, sharedInputs);
+        assertFalse(m.isSourceUnchanged("main/fr", m.hashSource(Arrays.asList(src))), "changed shared input");
+
+        Files.write(shared.toPath(), "<supplementalData/>".getBytes(StandardCharsets.UTF_8));
+        Files.write(src.toPath(), "<ldml><x/></ldml>".getBytes(StandardCharsets.UTF_8));
+        m = new JsonManifest(dir.getPath(), "main", CONFIG, sharedInputs);
+        assertFalse(m.isSourceUnchanged("main/fr", m.hashSource(Arrays.asList(src))), "changed source");
+
+        Files.write(src.toPath(), "<ldml/>".getBytes(StandardCharsets.UTF_8));
+        out.delete();
+        m = new JsonManifest(dir.getPath(), "main", CONFIG, sharedInputs);
+        assertFalse(m.isSourceUnchanged("main/fr", m.hashSource(Arrays.asList(src))), "output file missing");
+    }
+}
@@ -4,6 +4,9 @@
  */
 package org.unicode.cldr.unittest;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -14,6 +17,7 @@ import org.unicode.cldr.tool.resolver.ResolutionType;
 import org.unicode.cldr.tool.resolver.ResolverUtils;
 import org.unicode.cldr.util.CLDRConfig;
 import org.unicode.cldr.util.CLDRFile;
+import org.unicode.cldr.util.CLDRFile.DraftStatus;
 import org.unicode.cldr.util.CldrUtility;
 import org.unicode.cldr.util.Factory;
 import org.unicode.cldr.util.LocaleIDParser;
@@ -54,6 +58,32 @@ public class TestCldrResolver extends TestFmwkPlus {
         }.testResolution();
     }
 
+    public void TestParallelResolution() throws IOException {
+        for (ResolutionType resolutionType : ResolutionType.values()) {
+            CldrResolver resolver = new CldrResolver(testInfo.getCldrFactory(), resolutionType);
+            File outputDir = Files.createTempDirectory("resolver").toFile();
+            resolver.resolve("(en|fr)(_.*)?", outputDir, 4);
+            Factory written = Factory.make(outputDir.getPath(), ".*", DraftStatus.unconfirmed);
+            assertEquals(resolutionType + " locales", resolver.getLocaleNames("(en|fr)(_.*)?"), written.getAvailable());
+            for (String locale : written.getAvailable()) {
+                CLDRFile expected = resolver.resolveLocale(locale);
+                CLDRFile actual = written.make(locale, false);
+                Set<String> paths = new HashSet<>();
+                expected.forEach(paths::add);
+                actual.forEach(paths::add);
+                for (String path : paths) {
+                    if (path.startsWith("//ldml/identity/")) {
+                        continue;
+                    }
+                    assertEquals(resolutionType + " " + locale + " " + path, expected.getStringValue(path),
+                        actual.getStringValue(path));
+                }
+                new File(outputDir, locale + ".xml").delete();
+            }
+            outputDir.delete();
+        }
+    }
+
     /**
      * Main method that runs all CLDR Resolver tests
      *
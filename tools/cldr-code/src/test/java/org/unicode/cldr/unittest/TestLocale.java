@@ -3,12 +3,14 @@ package org.unicode.cldr.unittest;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -29,6 +31,7 @@ import org.unicode.cldr.util.Iso639Data.Type;
 import org.unicode.cldr.util.LanguageTagCanonicalizer;
 import org.unicode.cldr.util.LanguageTagParser;
 import org.unicode.cldr.util.LanguageTagParser.Format;
+import org.unicode.cldr.util.LanguageTagParser.OutputOption;
 import org.unicode.cldr.util.SimpleFactory;
 import org.unicode.cldr.util.SimpleXMLSource;
 import org.unicode.cldr.util.StandardCodes;
@@ -355,6 +358,16 @@ public class TestLocale extends TestFmwkPlus {
             String actual = canonicalizer.transform(pair[0]);
             assertEquals("Canonical", pair[1], actual);
         }
+        // bulk, long enough to go in parallel, and repeating tags, so that results come from the cache
+        List<String> sources = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            for (String[] pair : tests) {
+                sources.add(pair[0]);
+                expected.add(pair[1]);
+            }
+        }
+        assertEquals("Canonical, bulk", expected, canonicalizer.transformAll(sources, OutputOption.ICU_LCVARIANT));
     }
 
     public void TestBrackets() {
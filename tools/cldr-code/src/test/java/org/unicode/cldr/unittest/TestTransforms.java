@@ -323,6 +323,35 @@ public class TestTransforms extends TestFmwkPlus {
         }
     }
 
+    public void TestTransformHeaders() {
+        for (String file : new File(CLDRTransforms.TRANSFORM_DIR).list()) {
+            if (!file.endsWith(".xml")) {
+                continue;
+            }
+            CLDRTransforms.ParsedTransformID full = new CLDRTransforms.ParsedTransformID();
+            CLDRTransforms.getIcuRulesFromXmlFile(CLDRTransforms.TRANSFORM_DIR, file, full);
+            CLDRTransforms.ParsedTransformID header = CLDRTransforms.getTransformHeader(CLDRTransforms.TRANSFORM_DIR, file);
+            assertEquals(file + " id", full.getId(), header.getId());
+            assertEquals(file + " direction", full.getDirection(), header.getDirection());
+            assertEquals(file + " aliases", Arrays.asList(full.getAliases()), Arrays.asList(header.getAliases()));
+            assertEquals(file + " backward aliases", Arrays.asList(full.getBackwardAliases()),
+                Arrays.asList(header.getBackwardAliases()));
+            assertEquals(file + " visibility", full.getVisibility(), header.getVisibility());
+        }
+    }
+
+    /**
+     * The header is read without the DTD, so a missing visibility must get the DTD default
+     */
+    public void TestTransformHeaderDefaults() {
+        CLDRTransforms.ParsedTransformID header = CLDRTransforms.getTransformHeader(CLDRTransforms.TRANSFORM_DIR,
+            "Amharic-Latin-BGN.xml"); // has no visibility attribute
+        assertEquals("default visibility", CLDRTransforms.Visibility.external, header.getVisibility());
+        assertEquals("direction", CLDRTransforms.Direction.forward, header.getDirection());
+        header = CLDRTransforms.getTransformHeader(CLDRTransforms.TRANSFORM_DIR, "Bengali-InterIndic.xml");
+        assertEquals("explicit visibility", CLDRTransforms.Visibility.internal, header.getVisibility());
+    }
+
     public void Test1461() {
         register();
 
@@ -2664,6 +2664,39 @@ public class TestUnits extends TestFmwk {
         assertEquals("kWh-per-100k", Rational.of(36), result);
     }
 
+    public void TestConversionPlan() {
+        Object[][] tests = {
+            {"kilowatt-hour-per-100-kilometer", "kilogram-meter-per-square-second", Rational.ONE, Rational.of(36)},
+            {"fahrenheit", "celsius", Rational.of(-40), Rational.of(-40)},
+            {"fahrenheit", "celsius", Rational.of(212), Rational.of(100)},
+            {"foot", "meter", Rational.ONE, Rational.of(381, 1250)},
+            {"mile-per-gallon", "liter-per-100-kilometer", Rational.of(30), null}, // reciprocal
+        };
+        for (Object[] test : tests) {
+            final String sourceUnit = (String) test[0];
+            final String targetUnit = (String) test[1];
+            final Rational source = (Rational) test[2];
+            final Rational expected = (Rational) test[3];
+            final String title = sourceUnit + " ⟹ " + targetUnit + ", " + source;
+            UnitConverter.ConversionPlan plan = converter.getConversionPlan(sourceUnit, targetUnit);
+            assertTrue(title + " valid", plan.isValid());
+            assertTrue(title + " cached", plan == converter.getConversionPlan(sourceUnit, targetUnit));
+            final Rational exact = plan.convert(source);
+            if (expected != null) {
+                assertEquals(title, expected, exact);
+            }
+            final double approximate = plan.convert(source.doubleValue());
+            assertTrue(title + " double " + approximate + " vs " + exact.doubleValue(),
+                Math.abs(approximate - exact.doubleValue()) <= Math.abs(exact.doubleValue()) * 1e-12);
+            double[] bulk = plan.convert(new double[] {source.doubleValue(), 0.5});
+            assertEquals(title + " bulk", approximate, bulk[0]);
+            assertEquals(title + " bulk", plan.convert(0.5), bulk[1]);
+        }
+        UnitConverter.ConversionPlan invalid = converter.getConversionPlan("foot", "second");
+        assertFalse("foot ⟹ second valid", invalid.isValid());
+        assertTrue("foot ⟹ second double", Double.isNaN(invalid.convert(1.0)));
+    }
+
     public void TestEnglishDisplayNames() {
         CLDRFile en = CLDRConfig.getInstance().getEnglish();
         ImmutableSet<String> unitSkips = ImmutableSet.of("temperature-generic", "graphics-em");
@@ -7,6 +7,8 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
+import org.unicode.cldr.draft.CompiledLocaleDistance;
+import org.unicode.cldr.draft.CompiledLocaleDistance.Subtags;
 import org.unicode.cldr.draft.XLikelySubtags.LSR;
 import org.unicode.cldr.draft.XLocaleDistance;
 import org.unicode.cldr.draft.XLocaleDistance.DistanceNode;
@@ -111,6 +113,63 @@ public class XLocaleDistanceTest extends TestFmwk {
         //logln("totalInt:\t" + (intTime)/maxIterations);
     }
 
+    public void testCompiled() {
+        final CompiledLocaleDistance compiled = localeMatcher.compile();
+        final int defaultThreshold = localeMatcher.getDefaultScriptDistance();
+        List<Subtags> all = new ArrayList<>();
+        for (List<String> line : tfh.getLines()) {
+            if (tfh.isTestLine(line)) {
+                Arguments args = new Arguments(line);
+                all.add(compiled.getSubtags(args.desired));
+                all.add(compiled.getSubtags(args.supported));
+            }
+        }
+        for (DistanceOption option : DistanceOption.values()) {
+            for (int threshold : new int[] { defaultThreshold, 1000 }) {
+                for (Subtags desired : all) {
+                    for (Subtags supported : all) {
+                        assertEquals(desired + " to " + supported + ", " + option + ", " + threshold,
+                            localeMatcher.distanceRaw(desired.getLSR(), supported.getLSR(), threshold, option),
+                            compiled.distance(desired, supported, threshold, option));
+                    }
+                }
+            }
+        }
+
+        List<Subtags> supported = new ArrayList<>();
+        for (String s : new String[] { "en-GB", "fr", "de" }) {
+            supported.add(compiled.getSubtags(new ULocale(s)));
+        }
+        List<Subtags> desired = new ArrayList<>();
+        for (String s : new String[] { "ja", "fr-CH", "en" }) {
+            desired.add(compiled.getSubtags(new ULocale(s)));
+        }
+        final int demotion = localeMatcher.getDefaultRegionDistance() + 1;
+        assertEquals("best of " + desired, 1, compiled.getBestMatch(desired, supported, defaultThreshold, demotion, DistanceOption.NORMAL));
+        assertEquals("best of ja", -1, compiled.getBestMatch(desired.subList(0, 1), supported, defaultThreshold, demotion, DistanceOption.NORMAL));
+    }
+
+    /**
+     * Regions with no partition that are not macroregions either, such as ZZ, fall back to ANY
+     */
+    public void testCompiledUnknownRegion() {
+        final CompiledLocaleDistance compiled = localeMatcher.compile();
+        List<LSR> all = new ArrayList<>();
+        for (String region : new String[] { "ZZ", "QO", "XY", "US", "GB", "419", "150" }) {
+            all.add(LSR.from("en", "Latn", region));
+            all.add(LSR.from("es", "Latn", region));
+        }
+        for (DistanceOption option : DistanceOption.values()) {
+            for (LSR desired : all) {
+                for (LSR supported : all) {
+                    assertEquals(desired + " to " + supported + ", " + option,
+                        localeMatcher.distanceRaw(desired, supported, 1000, option),
+                        compiled.distance(compiled.getSubtags(desired), compiled.getSubtags(supported), 1000, option));
+                }
+            }
+        }
+    }
+
     @SuppressWarnings("deprecation")
     public void testInternalTable() {
         checkTables(localeMatcher.internalGetDistanceTable(), "", 1);
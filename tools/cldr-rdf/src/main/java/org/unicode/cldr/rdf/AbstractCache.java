@@ -8,22 +8,31 @@ import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardCopyOption;
 import java.time.Instant;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import com.google.common.io.FileWriteMode;
 import com.google.common.io.Files;
 
 /**
- * This is a cache for the XPATH to URI mapping
- * It caches using 1 property file in the specified directory.
+ * This is a cache for the XPATH to URI mapping.
+ * It may be added to from several threads at once.
+ *
+ * It caches using 1 property file in the specified directory, plus a log
+ * of the entries stored since that file was written. store() only appends to the log;
+ * close() (or a log that has grown larger than the cache) compacts both into the property file.
  * @author srl295
  */
-public class AbstractCache {
+public class AbstractCache implements AutoCloseable {
     // This is equivalent to SurveyLog.forClass()
     static final Logger logger = Logger.getLogger(AbstractCache.class.getName());
     private static final String XPATH_TO_RESOURCE_FILE = "xpath-to-resource.properties";
+    private static final String XPATH_TO_RESOURCE_LOG = "xpath-to-resource.log";
 
     /**
      * Add an AbstractResource to the cache. Remember to call store() to
@@ -33,7 +42,11 @@ public class AbstractCache {
      * @return true if some value was already there, false if this was a new value
      */
     public boolean add(String xpath, String uri) {
-        return (xpathToResource.put(xpath, uri) != null);
+        final String old = xpathToResource.put(xpath, uri);
+        if (!uri.equals(old)) {
+            pending.put(xpath, uri);
+        }
+        return (old != null);
     }
 
     /**
@@ -42,14 +55,24 @@ public class AbstractCache {
      * @return
      */
     public String get(String xpath) {
-        return (String)xpathToResource.get(xpath);
+        return xpathToResource.get(xpath);
     }
 
     private final File root;
     private final File xpathToResourceFile;
+    private final File xpathToResourceLog;
 
+    final Map<String, String> xpathToResource = new ConcurrentHashMap<>();
 
-    Properties xpathToResource = new Properties();
+    /**
+     * Entries added since the last store()
+     */
+    private final Map<String, String> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Number of entries in the log file, guarded by this
+     */
+    private int logEntries = 0;
 
     /**
      * Initialize the abstract cache with a certain root location
@@ -58,51 +81,133 @@ public class AbstractCache {
     public AbstractCache(File root) {
         this.root = root;
         xpathToResourceFile = new File(root, XPATH_TO_RESOURCE_FILE);
+        xpathToResourceLog = new File(root, XPATH_TO_RESOURCE_LOG);
         load();
     }
 
     /**
-     * Load (or reload) the abstract cache.
+     * Load (or reload) the abstract cache: the property file, then the log on top of it.
      * On failure, will clear this cache.
+     * @return the time the cache was last written, or null
      */
     public Instant load() {
         final String simpleName = this.getClass().getSimpleName();
         synchronized(this) {
-            try(
-                Reader xp2res = Files.newReader(xpathToResourceFile, StandardCharsets.UTF_8);
-            ) {
-                xpathToResource.load(xp2res);
-                logger.fine("# " + simpleName + " read " + root.getAbsolutePath() + " count: " + size());
-                return Instant.ofEpochMilli(xpathToResourceFile.lastModified());
+            if (!xpathToResourceFile.exists() && !xpathToResourceLog.exists()) {
+                logger.log(Level.WARNING, "Could not read files in " + root.getAbsolutePath());
+                xpathToResource.clear();
+                logEntries = 0;
+                return null;
+            }
+            try {
+                final Properties p = read(xpathToResourceFile);
+                // A log entry replaces any earlier entry for the same xpath
+                final Properties log = read(xpathToResourceLog);
+                logEntries = log.size();
+                p.putAll(log);
+                for (final Map.Entry<Object, Object> e : p.entrySet()) {
+                    xpathToResource.put((String) e.getKey(), (String) e.getValue());
+                }
+                logger.fine("# " + simpleName + " read " + root.getAbsolutePath() + " count: " + size()
+                    + ", logged: " + logEntries);
+                return Instant.ofEpochMilli(Math.max(xpathToResourceFile.lastModified(), xpathToResourceLog.lastModified()));
             } catch (IOException ioe) {
                 logger.log(Level.WARNING, "Could not read files in " + root.getAbsolutePath());
                 // Full stacktrace at a higher trace level
                 logger.log(Level.FINE, "Could not read " + root.getAbsolutePath() + " - " + ioe.getMessage());
                 xpathToResource.clear();
+                logEntries = 0;
                 return null;
             }
         }
     }
 
+    private static Properties read(File f) throws IOException {
+        final Properties p = new Properties();
+        if (f.exists()) {
+            try(
+                Reader r = Files.newReader(f, StandardCharsets.UTF_8);
+            ) {
+                p.load(r);
+            }
+        }
+        return p;
+    }
+
     /**
-     * Write out the cache
+     * Write out the entries added since the last store(), by appending them to the log.
      */
     public void store() {
         final String simpleName = this.getClass().getSimpleName();
         synchronized(this) {
+            if (logEntries + pending.size() > Math.max(size(), 1024)) {
+                compact();
+                return;
+            }
+            if (pending.isEmpty()) {
+                return;
+            }
             root.mkdirs();
+            final Properties p = new Properties();
+            for (final String xpath : pending.keySet()) {
+                p.put(xpath, pending.remove(xpath));
+            }
+            // Each store() appends another block in properties format, so the log loads as one file
             try(
-                Writer xp2res = Files.newWriter(xpathToResourceFile, StandardCharsets.UTF_8);
+                Writer xp2res = Files.asCharSink(xpathToResourceLog, StandardCharsets.UTF_8, FileWriteMode.APPEND).openBufferedStream();
             ) {
-                xpathToResource.store(xp2res, "Written by " + simpleName);
+                p.store(xp2res, "Appended by " + simpleName);
+                logEntries += p.size();
+                logger.info("# " + simpleName + " appended " + p.size() + " to " + root.getAbsolutePath());
+            } catch (IOException ioe) {
+                ioe.printStackTrace();
+                logger.log(Level.SEVERE, "Could not write files in " + root.getAbsolutePath(), ioe);
+                for (final Map.Entry<Object, Object> e : p.entrySet()) {
+                    pending.putIfAbsent((String) e.getKey(), (String) e.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Rewrite the whole cache into the property file, and remove the log.
+     */
+    public void compact() {
+        final String simpleName = this.getClass().getSimpleName();
+        synchronized(this) {
+            root.mkdirs();
+            final Properties p = new Properties();
+            pending.clear();
+            p.putAll(xpathToResource);
+            final File tmp = new File(root, XPATH_TO_RESOURCE_FILE + ".tmp");
+            try {
+                try(
+                    Writer xp2res = Files.newWriter(tmp, StandardCharsets.UTF_8);
+                ) {
+                    p.store(xp2res, "Written by " + simpleName);
+                }
+                java.nio.file.Files.move(tmp.toPath(), xpathToResourceFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+                java.nio.file.Files.deleteIfExists(xpathToResourceLog.toPath());
+                logEntries = 0;
                 logger.info("# " + simpleName + " wrote to " + root.getAbsolutePath());
             } catch (IOException ioe) {
                 ioe.printStackTrace();
                 logger.log(Level.SEVERE, "Could not write files in " + root.getAbsolutePath(), ioe);
+                pending.putAll(xpathToResource);
             }
         }
     }
 
+    /**
+     * Store any pending entries, compacting the on-disk cache.
+     * The in-memory cache may still be read afterwards.
+     */
+    @Override
+    public void close() {
+        compact();
+    }
+
 	public int size() {
 		return xpathToResource.size();
 	}
@@ -1,13 +1,13 @@
 package org.unicode.cldr.rdf;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.jena.sparql.lang.sparql_11.ParseException;
 
 public class MapAll implements XPathMapper {
 	
-	final List<XPathMapper> mappers = new LinkedList<>();
+	final List<XPathMapper> mappers = new ArrayList<>();
 	
 	public MapAll() {
 		// add all mappers here
@@ -16,22 +16,29 @@ public class MapAll implements XPathMapper {
 		mappers.add(new CurrencyMapper());
 	}
 
+	/**
+	 * Run all of the mappers at once. The cache may be added to concurrently,
+	 * and the mappers' queries are independent of each other.
+	 */
 	@Override
 	public int addEntries(AbstractCache cache) throws ParseException {
-		int total = 0;
 		System.out.println("Begin mapping");
-		for(final XPathMapper m : mappers) {
-			String mapName = m.getClass().getSimpleName();
-			System.out.println(mapName + " - ");
-			try {
-				int thisAdded = m.addEntries(cache);
-				System.out.println(mapName + " + " + thisAdded);
-				total += thisAdded;
-			} catch(Throwable t) {
-				t.printStackTrace();
-				System.err.println("Problem running mapper " + mapName + " - " + t);
-			}
+		return mappers.parallelStream()
+			.mapToInt(m -> addEntries(m, cache))
+			.sum();
+	}
+
+	private static int addEntries(final XPathMapper m, AbstractCache cache) {
+		String mapName = m.getClass().getSimpleName();
+		System.out.println(mapName + " - ");
+		try {
+			int thisAdded = m.addEntries(cache);
+			System.out.println(mapName + " + " + thisAdded);
+			return thisAdded;
+		} catch(Throwable t) {
+			t.printStackTrace();
+			System.err.println("Problem running mapper " + mapName + " - " + t);
+			return 0;
 		}
-		return total;
 	}
 }
@@ -6,16 +6,22 @@ package org.unicode.cldr.rdf;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.jena.ext.com.google.common.io.Resources;
 import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecution;
 import org.apache.jena.query.QueryExecutionFactory;
 import org.apache.jena.query.QueryFactory;
 import org.apache.jena.query.QuerySolution;
 import org.apache.jena.query.ResultSet;
+import org.apache.jena.query.ResultSetFactory;
 import org.apache.jena.rdf.model.Literal;
+import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.riot.RDFDataMgr;
 import org.apache.jena.sparql.engine.http.QueryEngineHTTP;
 import org.unicode.cldr.util.Timer;
 
@@ -89,6 +95,11 @@ public class QueryClient {
         return l.getURI();
     }
 
+    /**
+     * Models loaded for servers that are local files, by file name
+     */
+    private final Map<String, Model> localModels = new ConcurrentHashMap<>();
+
     /**
      * Run a query
      * @param q
@@ -98,8 +109,24 @@ public class QueryClient {
         return execSelect(q, QueryClient.DBPEDIA_SPARQL_SERVER);
     }
 
+    /**
+     * Run a query
+     * @param q
+     * @param server the SPARQL endpoint, or the name of a local RDF file (such as a
+     * dump of the needed triples) to query instead.
+     * @return
+     */
     public ResultSet execSelect(Query q, final String server) {
         Timer t = new Timer();
+        if (!server.startsWith("http:") && !server.startsWith("https:")) {
+            // A local stand-in for the server: an RDF file, queried in memory
+            final Model model = localModels.computeIfAbsent(server, RDFDataMgr::loadModel);
+            try (QueryExecution qExec = QueryExecutionFactory.create(q, model)) {
+                ResultSet results = ResultSetFactory.copyResults(qExec.execSelect());
+                System.out.println("Local SparQL query complete in " + t);
+                return results;
+            }
+        }
         QueryEngineHTTP qEngine = QueryExecutionFactory.createServiceRequest(server, q);
         // qEngine.setHttpContext(httpContext);
         ResultSet results = qEngine.execSelect();
@@ -10,8 +10,11 @@ import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
 import org.apache.jena.sparql.lang.sparql_11.ParseException;
 import org.junit.jupiter.api.Test;
 import org.junit.platform.commons.annotation.Testable;
@@ -54,6 +57,65 @@ public class TestMapAll {
 	}
 
 
+	@Test
+	void TestLogAndCompact() throws IOException {
+		File root = Files.createTempDirectory("rdf_TestMapAll_TestLogAndCompact").toFile();
+		File log = new File(root, "xpath-to-resource.log");
+		File props = new File(root, "xpath-to-resource.properties");
+		final String otherUrl = TEST_URL + "/index.html";
+
+		AbstractCache tmpCache = new AbstractCache(root);
+		tmpCache.add(TEST_XPATH, TEST_URL);
+		tmpCache.store();
+		tmpCache.add("//cldr", TEST_URL);
+		tmpCache.add(TEST_XPATH, otherUrl);
+		tmpCache.store();
+		assertTrue(log.exists(), "store() appends to the log");
+		assertFalse(props.exists(), "store() does not rewrite the properties");
+
+		{
+			AbstractCache cache2 = new AbstractCache(root);
+			assertEquals(2, cache2.size(), "Log was replayed");
+			assertEquals(otherUrl, cache2.get(TEST_XPATH), "Later log entry wins");
+		}
+
+		tmpCache.close();
+		assertFalse(log.exists(), "close() compacts the log");
+		assertTrue(props.exists(), "close() writes the properties");
+
+		{
+			AbstractCache cache3 = new AbstractCache(root);
+			assertEquals(2, cache3.size(), "Compacted cache was re-read");
+			assertEquals(otherUrl, cache3.get(TEST_XPATH));
+			assertEquals(TEST_URL, cache3.get("//cldr"));
+		}
+	}
+
+
+	@Test
+	void TestLocalModel() throws IOException {
+		File root = Files.createTempDirectory("rdf_TestMapAll_TestLocalModel").toFile();
+		File model = new File(root, "wikidata.ttl");
+		Files.write(model.toPath(), String.join("\n",
+			"@prefix wd: <http://www.wikidata.org/entity/> .",
+			"@prefix wdt: <http://www.wikidata.org/prop/direct/> .",
+			"wd:Q1860 wdt:P305 \"en\" .",
+			"wd:Q150 wdt:P305 \"fr\" .",
+			"wd:Q150 wdt:P31 wd:Q34770 .").getBytes(StandardCharsets.UTF_8));
+
+		// the same query as against the Wikidata server, run against the local file instead
+		ResultSet rs = QueryClient.getInstance().execSelectFromSparql("wikidata-entityToCode", model.getPath());
+		assertTrue(rs.hasNext());
+		QuerySolution qs = rs.next();
+		assertEquals("http://www.wikidata.org/entity/Q150", QueryClient.getResourceOrNull(qs, "lang"));
+		assertEquals("fr", QueryClient.getLiteralOrNull(qs, "langCode"));
+		assertTrue(rs.hasNext());
+		qs = rs.next();
+		assertEquals("http://www.wikidata.org/entity/Q1860", QueryClient.getStringOrNull(qs, "lang"));
+		assertEquals("en", QueryClient.getStringOrNull(qs, "langCode"));
+		assertFalse(rs.hasNext(), "only the triples with a language code");
+	}
+
 
 	@Test
 	void TestAllMappings() throws ParseException, IOException {